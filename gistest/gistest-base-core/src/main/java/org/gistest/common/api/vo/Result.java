@@ -1,13 +1,52 @@
 package org.gistest.common.api.vo;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
 
 import java.io.Serializable;
 
+@Data
 public class Result<T> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Schema(description = "成功标志")
     private boolean success = true;
+
+    @Schema(description = "返回处理消息")
+    private String message = "";
+
+    @Schema(description = "返回代码")
+    private Integer code = 0;
+
+    @Schema(description = "返回数据对象")
+    private T result;
+
+    @Schema(description = "时间戳")
+    private long timestamp = System.currentTimeMillis();
+
+    public Result<T> success(String message) {
+        this.message = message;
+        this.code = 200;
+        this.success = true;
+        return this;
+    }
+
+    public Result<T> error500(String message) {
+        this.message = message;
+        this.code = 500;
+        this.success = false;
+        return this;
+    }
+
+    public static <T> Result<T> OK(T data) {
+        Result<T> r = new Result<T>();
+        r.setCode(200);
+        r.setResult(data);
+        return r;
+    }
+
+    public static <T> Result<T> error(String msg) {
+        return new Result<T>().error500(msg);
+    }
 }
@@ -1,16 +1,29 @@
 package org.gistest.common.util;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
+/**
+ * MD5 工具
+ * 每个线程复用一个 MessageDigest；CharSequence 直接按 UTF-8 编码进线程内缓冲区，不生成中间 String
+ * 仅用于签名、验证码等需要 MD5 的场景，缓存 key 摘要使用更快的 {@link Murmur3}
+ */
 public class Md5Util {
-    private static final Logger logger = LoggerFactory.getLogger(Md5Util.class);
 
     private static final char[] HEXDIGITS = { '0', '1', '2', '3', '4', '5',
             '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
 
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // 所有 JRE 都必须提供 MD5
+            throw new IllegalStateException(e);
+        }
+    });
+
     private Md5Util() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
@@ -23,52 +36,89 @@ public class Md5Util {
      */
     public static String byteArrayToHexString(byte[] b) {
         if (b == null) {
-            throw new IllegalArgumentException("");
+            throw new IllegalArgumentException("bytes must not be null");
         }
-        StringBuffer resultSb = new StringBuffer();
+        char[] hex = new char[b.length * 2];
         for (int i = 0; i < b.length; i++) {
-            resultSb.append(byteToHexString(b[i]));
+            int n = b[i] & 0xFF;
+            hex[i * 2] = HEXDIGITS[n >>> 4];
+            hex[i * 2 + 1] = HEXDIGITS[n & 0x0F];
         }
-        return resultSb.toString();
+        return new String(hex);
     }
 
     /**
-     * 将单个字节转换为对应的两位十六进制字符
-     *
-     * @param b 待转换的字节
-     * @return 转换后的两位十六进制字符
+     * @param input
+     * @return 16 字节摘要
+     */
+    public static byte[] md5(byte[] input) {
+        MessageDigest md = digest();
+        return md.digest(input);
+    }
+
+    /**
+     * 读取 input 剩余的全部字节
+     * @param input
+     * @return 16 字节摘要
      */
-    private static String byteToHexString(byte b) {
-//        int n = b;
-//        if (n < 0) {
-//            n += 256;
-//        }
-//        int d1 = n /16;
+    public static byte[] md5(ByteBuffer input) {
+        MessageDigest md = digest();
+        md.update(input);
+        return md.digest();
+    }
 
-        int n = b & 0XFF;
-        char high = HEXDIGITS[n >>> 4];
-        char low = HEXDIGITS[n & 0x0F];
+    /**
+     * 按 UTF-8 编码计算
+     * @param input
+     * @return 16 字节摘要
+     */
+    public static byte[] md5(CharSequence input) {
+        return md5(Utf8.encode(input));
+    }
 
-        return new String(new char[]{high, low});
-//        return new StringBuilder().append(high).append(low).toString();
+    public static String md5Hex(byte[] input) {
+        return byteArrayToHexString(md5(input));
     }
 
+    public static String md5Hex(ByteBuffer input) {
+        return byteArrayToHexString(md5(input));
+    }
+
+    /**
+     * 按 UTF-8 编码计算
+     * @param input
+     * @return 32 位小写十六进制
+     */
+    public static String md5Hex(CharSequence input) {
+        return byteArrayToHexString(md5(input));
+    }
+
+    /**
+     * @param origin
+     * @param charsetName 为空时使用平台默认编码
+     * @return 32 位小写十六进制，origin 为 null 时返回 null
+     * @throws IllegalArgumentException 不支持的编码
+     */
     public static String md5Encode(String origin, String charsetName) {
         if (origin == null) return null;
 
-        String resultString = null;
-
+        if (charsetName == null || charsetName.trim().isEmpty()) {
+            return md5Hex(origin.getBytes());
+        }
+        if ("utf-8".equalsIgnoreCase(charsetName) || "utf8".equalsIgnoreCase(charsetName)) {
+            return md5Hex(origin);
+        }
         try {
-            resultString = new String(origin);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            if ( charsetName == null || charsetName.trim().isEmpty()) {
-                resultString = byteArrayToHexString(md.digest(resultString.getBytes()));
-            } else {
-                resultString = byteArrayToHexString(md.digest(resultString.getBytes(charsetName)));
-            }
-        } catch (Exception e) {
-
+            return md5Hex(origin.getBytes(charsetName));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalArgumentException("Unsupported charset: " + charsetName, e);
         }
-        return resultString;
+    }
+
+    private static MessageDigest digest() {
+        MessageDigest md = MD5.get();
+        // 上次计算中途抛出异常时可能残留状态
+        md.reset();
+        return md;
     }
 }
@@ -0,0 +1,151 @@
+package org.gistest.common.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * MurmurHash3 x64 128 位非加密哈希，用于缓存 key 等只需分布均匀、不需要抗碰撞攻击的摘要
+ * 与 Guava Hashing.murmur3_128()、commons-codec MurmurHash3.hash128x64 结果一致
+ */
+public final class Murmur3 {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final char[] HEXDIGITS = "0123456789abcdef".toCharArray();
+
+    private Murmur3() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static Hash128 hash128(byte[] input) {
+        return hash128(input, 0, input.length, 0);
+    }
+
+    /**
+     * 读取 input 剩余的全部字节，不改变 position
+     * @param input
+     * @return
+     */
+    public static Hash128 hash128(ByteBuffer input) {
+        if (input.hasArray()) {
+            return hash128(input.array(), input.arrayOffset() + input.position(), input.remaining(), 0);
+        }
+        byte[] copy = new byte[input.remaining()];
+        input.duplicate().get(copy);
+        return hash128(copy, 0, copy.length, 0);
+    }
+
+    /**
+     * 按 UTF-8 编码计算
+     * @param input
+     * @return
+     */
+    public static Hash128 hash128(CharSequence input) {
+        return hash128(Utf8.encode(input));
+    }
+
+    public static Hash128 hash128(byte[] data, int offset, int length, long seed) {
+        long h1 = seed;
+        long h2 = seed;
+        int end = offset + (length & ~15);
+        for (int i = offset; i < end; i += 16) {
+            long k1 = (long) LONG_LE.get(data, i);
+            long k2 = (long) LONG_LE.get(data, i + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        switch (length & 15) {
+            case 15: k2 ^= (long) (data[end + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[end + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[end + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[end + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[end + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[end + 9] & 0xff) << 8;
+            case 9: k2 ^= data[end + 8] & 0xff;
+                h2 ^= mixK2(k2);
+            case 8: k1 ^= (long) (data[end + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[end + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[end + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[end + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[end + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[end + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[end + 1] & 0xff) << 8;
+            case 1: k1 ^= data[end] & 0xff;
+                h1 ^= mixK1(k1);
+            default:
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new Hash128(h1, h2);
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * 128 位哈希值
+     * @param h1 高 64 位
+     * @param h2 低 64 位
+     */
+    public record Hash128(long h1, long h2) {
+
+        /**
+         * @return 32 位小写十六进制，h1 在前，均为大端
+         */
+        public String toHex() {
+            char[] hex = new char[32];
+            writeHex(h1, hex, 0);
+            writeHex(h2, hex, 16);
+            return new String(hex);
+        }
+
+        private static void writeHex(long value, char[] dst, int offset) {
+            for (int i = 15; i >= 0; i--) {
+                dst[offset + i] = HEXDIGITS[(int) value & 0x0f];
+                value >>>= 4;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.gistest.common.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CharSequence 直接编码为 UTF-8 到线程内复用的缓冲区，哈希时不产生中间 String 和 byte[]
+ */
+final class Utf8 {
+
+    /**
+     * 超过该长度的输入不缓存缓冲区，避免线程长期持有大数组
+     */
+    private static final int MAX_CACHED_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    private Utf8() {
+    }
+
+    /**
+     * 编码为 UTF-8，非法的单个代理字符与 String.getBytes(UTF_8) 一样替换为 '?'
+     * @param s
+     * @return 读模式的缓冲区，线程内复用，下次调用前使用完毕
+     */
+    static ByteBuffer encode(CharSequence s) {
+        int len = s.length();
+        int maxBytes = len * 3;
+        ByteBuffer buffer = BUFFER.get();
+        if (buffer.capacity() < maxBytes) {
+            if (maxBytes > MAX_CACHED_BYTES) {
+                return ByteBuffer.wrap(s.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            buffer = ByteBuffer.allocate(Integer.highestOneBit(maxBytes - 1) << 1);
+            BUFFER.set(buffer);
+        }
+        byte[] dst = buffer.array();
+        int p = 0;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                dst[p++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[p++] = (byte) (0xc0 | c >> 6);
+                dst[p++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    dst[p++] = (byte) (0xf0 | cp >> 18);
+                    dst[p++] = (byte) (0x80 | cp >> 12 & 0x3f);
+                    dst[p++] = (byte) (0x80 | cp >> 6 & 0x3f);
+                    dst[p++] = (byte) (0x80 | cp & 0x3f);
+                } else {
+                    dst[p++] = '?';
+                }
+            } else {
+                dst[p++] = (byte) (0xe0 | c >> 12);
+                dst[p++] = (byte) (0x80 | c >> 6 & 0x3f);
+                dst[p++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        buffer.clear();
+        buffer.limit(p);
+        return buffer;
+    }
+}
@@ -0,0 +1,175 @@
+package org.gistest.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Murmur3Test {
+
+    /**
+     * 参考实现 MurmurHash3_x64_128（SMHasher）的输出：{长度, seed, h1, h2}
+     * 输入为 key() 的前 length 个字节，覆盖 0-15 字节的所有尾部长度以及整块加尾部
+     */
+    private static final long[][] VECTORS = {
+            {0, 0x00000000L, 0x0000000000000000L, 0x0000000000000000L},
+            {1, 0x00000000L, 0x4610abe56eff5cb5L, 0x51622daa78f83583L},
+            {2, 0x00000000L, 0x6be501e2d125aba2L, 0xfe06258de8dea05fL},
+            {3, 0x00000000L, 0xeb323f266eacc8ddL, 0xa543ecc1bece9071L},
+            {4, 0x00000000L, 0x55a0b48e6ac83baaL, 0x39ac10093cad31e7L},
+            {5, 0x00000000L, 0x701240de9dba1a33L, 0x1cb38e41cb88723dL},
+            {6, 0x00000000L, 0x4ae87d306dba7878L, 0x04887677f5e5ff83L},
+            {7, 0x00000000L, 0x51f618243c550059L, 0x1eb4eb0697807596L},
+            {8, 0x00000000L, 0x23821d87f4b41facL, 0x43ef55c5e444655fL},
+            {9, 0x00000000L, 0x274024baf2c39f33L, 0x18d28420528780ecL},
+            {10, 0x00000000L, 0xef356f9972a4ddb0L, 0x988c21bd17ecca7dL},
+            {11, 0x00000000L, 0x870b1fab72878558L, 0xd41c1048eabfc7e6L},
+            {12, 0x00000000L, 0x42eb77d9a6f7f96eL, 0xb5d20638d64a53b6L},
+            {13, 0x00000000L, 0x8ace41dfa01700deL, 0xa08a5a5ac2193e44L},
+            {14, 0x00000000L, 0x097160a1a23f42faL, 0x9dd097dec669c27cL},
+            {15, 0x00000000L, 0xea830387434d6ba5L, 0x03af8b0a8534ac7aL},
+            {16, 0x00000000L, 0xd687ed750dce30b0L, 0x9ca3fc20421f6661L},
+            {17, 0x00000000L, 0x934e51f3f8da5be6L, 0xc925409b6731eabcL},
+            {31, 0x00000000L, 0x8c087c16ba9a5c00L, 0x2bccb4553b093dbcL},
+            {32, 0x00000000L, 0xf2426a4cdaf2c3c1L, 0x70c6b8b4e2c48dc2L},
+            {33, 0x00000000L, 0x2e8cdeace3e1ce0aL, 0x704b91ee75e1cd2fL},
+            {0, 0x00000001L, 0x4610abe56eff5cb5L, 0x51622daa78f83583L},
+            {1, 0x00000001L, 0x0000000000000000L, 0x0000000000000000L},
+            {2, 0x00000001L, 0x8cdb584d7a9b3429L, 0x87958cefdd7d7395L},
+            {3, 0x00000001L, 0xd6fccc8e40218d3cL, 0x081d5e195eac8e85L},
+            {4, 0x00000001L, 0x82445af14466e527L, 0x08a24f6e54a7c58eL},
+            {5, 0x00000001L, 0x62c2e3684ae8e6c8L, 0x01f405c25eebc6cfL},
+            {6, 0x00000001L, 0xc487e950e047949dL, 0x10aad5a93ddbdf6aL},
+            {7, 0x00000001L, 0x99cf514b30869cabL, 0xa269c67896a68ad6L},
+            {8, 0x00000001L, 0x41b52aeeaa00ad89L, 0xf9e5c1a0ca42574aL},
+            {9, 0x00000001L, 0x1d2470519f88103eL, 0x049b1b4dac106302L},
+            {10, 0x00000001L, 0x52498c839b19cbbeL, 0x5eb45b9168d6a699L},
+            {11, 0x00000001L, 0x68f08653f32524c5L, 0x97e6dd99ebfb06c0L},
+            {12, 0x00000001L, 0x48f4ad4025e829ecL, 0xc1e47105d42ab4b2L},
+            {13, 0x00000001L, 0xdefef61d7dcd7276L, 0x48ebc2d67d862174L},
+            {14, 0x00000001L, 0x1f580be8807ca577L, 0xc99dee6c82e48776L},
+            {15, 0x00000001L, 0xb026a62806faa577L, 0x8ef6d04c0c8f201eL},
+            {16, 0x00000001L, 0x440d07b8852ff785L, 0xe3ecc31e80128b58L},
+            {17, 0x00000001L, 0xd74be50ae5b96ec1L, 0x63046e9af859b327L},
+            {31, 0x00000001L, 0x45cea5cadc377a20L, 0xef419e65f5ceeb10L},
+            {32, 0x00000001L, 0xd0b7fe800025417bL, 0x97aec1a1af11f424L},
+            {33, 0x00000001L, 0x58564be074671219L, 0xe08c38792546e3bdL},
+            {0, 0x9747b28cL, 0x392b208a1daabbb3L, 0x93b0608fe302957aL},
+            {1, 0x9747b28cL, 0x02c9f69a7dd730c0L, 0xf67103344e6f94c8L},
+            {2, 0x9747b28cL, 0x73c7a60c18cf1691L, 0x02abf4ef80152f04L},
+            {3, 0x9747b28cL, 0x97fbbd379c02ebdaL, 0x115acab76e585f09L},
+            {4, 0x9747b28cL, 0x766e4940b486de44L, 0xa42a3347c8f8d070L},
+            {5, 0x9747b28cL, 0x3f2f6d86e8fa1926L, 0xae4a3ce38b898542L},
+            {6, 0x9747b28cL, 0x5ccc5668bfb5ac57L, 0x21c7f24c3c9eb074L},
+            {7, 0x9747b28cL, 0xf45694c799571f74L, 0x7685b6a8fbafa0a0L},
+            {8, 0x9747b28cL, 0x9e84c3d33b1859b4L, 0xae10df51f0c35d95L},
+            {9, 0x9747b28cL, 0x0b5b34ef132c37d0L, 0x5137fa8144c09e91L},
+            {10, 0x9747b28cL, 0x4674bfc19ca84b00L, 0x684285c3c4742dccL},
+            {11, 0x9747b28cL, 0x0e0de5e2faa32b79L, 0xcf2a1519e6994164L},
+            {12, 0x9747b28cL, 0x300d7def9692f3e0L, 0x073631cf3bf0c47dL},
+            {13, 0x9747b28cL, 0x7c548755b097d25aL, 0xcf4b420cc91b86a5L},
+            {14, 0x9747b28cL, 0x1b2824de235b4197L, 0x0cf27d1daea2651fL},
+            {15, 0x9747b28cL, 0x379841b83015924fL, 0xf175ce8d9c32910dL},
+            {16, 0x9747b28cL, 0x0bb1ba6f39fd8b4cL, 0x0e37903aea6873ceL},
+            {17, 0x9747b28cL, 0x296cdbb5d9ae6ee9L, 0x05b138dd207e81a8L},
+            {31, 0x9747b28cL, 0x3f78168c969498b9L, 0x3218ebd73bbc8a86L},
+            {32, 0x9747b28cL, 0x4aef0dff853803b7L, 0xfc0ee981c55a163dL},
+            {33, 0x9747b28cL, 0xf09a29b29b85e5f8L, 0x4989de9d440512f2L},
+            {0, 0xffffffffL, 0x6af1df4d9d3bc9ecL, 0x857421121ee6446bL},
+            {1, 0xffffffffL, 0x97fa8c007c7250e6L, 0x6956901461600097L},
+            {2, 0xffffffffL, 0xb3b7130138975584L, 0xd7d3da8168765cfcL},
+            {3, 0xffffffffL, 0x3defe2e20789ea77L, 0x3ac98d3558a5f3a5L},
+            {4, 0xffffffffL, 0xa7589345c460446eL, 0x774e1ae0bddf7ea1L},
+            {5, 0xffffffffL, 0x4a1d621d5b2ac626L, 0x7265cb298abd1662L},
+            {6, 0xffffffffL, 0x70968f5e585497beL, 0x49e44ef02317f66bL},
+            {7, 0xffffffffL, 0x2958a6f797c2c700L, 0xfdc48f3f6b885befL},
+            {8, 0xffffffffL, 0xe29cc7702d5f7218L, 0x700753d8187a2506L},
+            {9, 0xffffffffL, 0xa6d19845485c9748L, 0x10b68e690fade64fL},
+            {10, 0xffffffffL, 0x162602119a6bd93bL, 0x9e0a3ef16b5ab565L},
+            {11, 0xffffffffL, 0x3274d4c3993c4477L, 0x553c2601d27a57c5L},
+            {12, 0xffffffffL, 0x5e0772fed1a1e4afL, 0x238d3f10bc3ca94dL},
+            {13, 0xffffffffL, 0x032ce05417903224L, 0x3adfd29e82beec40L},
+            {14, 0xffffffffL, 0x6d76d4879ed3f22cL, 0x0f73bb0591466c50L},
+            {15, 0xffffffffL, 0x131581baf3bc809eL, 0x96db95c403231590L},
+            {16, 0xffffffffL, 0x2006ea52b566c3e5L, 0x8e8ab2d31e3e316bL},
+            {17, 0xffffffffL, 0xa3caa4484add9756L, 0x871bc6096214890eL},
+            {31, 0xffffffffL, 0x944abb230831367fL, 0xcc47c815b8829851L},
+            {32, 0xffffffffL, 0x2fa3e6861b803c33L, 0xaee36c5ba3a8edceL},
+            {33, 0xffffffffL, 0xd84d361f4f676b06L, 0x4f4f8214fb10da32L}
+    };
+
+    @Test
+    void matchesReferenceVectors() {
+        byte[] key = key();
+        for (long[] vector : VECTORS) {
+            int length = (int) vector[0];
+            Murmur3.Hash128 hash = Murmur3.hash128(key, 0, length, vector[1]);
+            String message = "length " + length + ", seed " + Long.toHexString(vector[1]);
+            assertEquals(vector[2], hash.h1(), message);
+            assertEquals(vector[3], hash.h2(), message);
+        }
+    }
+
+    /**
+     * SMHasher 的 VerificationTest：长度 0-255 的输入分别以 256-i 为 seed 计算，
+     * 拼接全部结果（小端）再以 0 为 seed 计算，前 4 个字节应为 0x6384BA69
+     */
+    @Test
+    void passesSmhasherVerification() {
+        byte[] key = new byte[256];
+        ByteBuffer hashes = ByteBuffer.allocate(256 * 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 256; i++) {
+            key[i] = (byte) i;
+            Murmur3.Hash128 hash = Murmur3.hash128(key, 0, i, 256 - i);
+            hashes.putLong(hash.h1()).putLong(hash.h2());
+        }
+        Murmur3.Hash128 result = Murmur3.hash128(hashes.array());
+        assertEquals(0x6384BA69, (int) result.h1());
+    }
+
+    @Test
+    void hashesTextAsUtf8() {
+        String text = "The quick brown fox jumps over the lazy dog";
+        assertEquals("e34bbc7bbc071b6c7a433ca9c49a9347", Murmur3.hash128(text).toHex());
+        assertEquals(Murmur3.hash128(text.getBytes(StandardCharsets.UTF_8)), Murmur3.hash128(text));
+        assertEquals(Murmur3.hash128("中文😀".getBytes(StandardCharsets.UTF_8)), Murmur3.hash128("中文😀"));
+    }
+
+    @Test
+    void offsetAndBufferInputsMatchArray() {
+        byte[] key = key();
+        for (int length = 0; length <= 33; length++) {
+            byte[] shifted = new byte[length + 3];
+            System.arraycopy(key, 0, shifted, 3, length);
+            Murmur3.Hash128 expected = Murmur3.hash128(key, 0, length, 0);
+            assertEquals(expected, Murmur3.hash128(shifted, 3, length, 0));
+
+            ByteBuffer heap = ByteBuffer.wrap(shifted, 3, length).slice();
+            assertEquals(expected, Murmur3.hash128(heap));
+            assertEquals(0, heap.position());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length).put(key, 0, length).flip();
+            assertEquals(expected, Murmur3.hash128(direct));
+        }
+    }
+
+    @Test
+    void toHexWritesBothHalvesBigEndian() {
+        assertEquals("0000000000000001ffffffffffffffff", new Murmur3.Hash128(1L, -1L).toHex());
+        assertEquals("8000000000000000000000000000000a", new Murmur3.Hash128(Long.MIN_VALUE, 10L).toHex());
+    }
+
+    /**
+     * 与生成参考值时的输入一致：第 i 个字节为 i * 7 + 0xA5 * (i & 1)
+     */
+    private static byte[] key() {
+        byte[] key = new byte[64];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) (i * 7 + 0xA5 * (i & 1));
+        }
+        return key;
+    }
+}
@@ -0,0 +1,148 @@
+package org.gistest.benchmarks;
+
+import org.gistest.common.base.BaseMap;
+import org.gistest.common.base.TypedMessage;
+import org.gistest.common.constant.GlobalConstants;
+import org.gistest.common.modules.redis.config.RedisCacheTtls;
+import org.gistest.common.modules.redis.config.RedisConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BaseMap 访问器：redis 消息、一级缓存失效消息都以 BaseMap 传递
+ * typed* 为同一条消息的 TypedMessage 版本，encode/decode 与 redis 消息使用的 Jackson 序列化对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseMapBenchmark {
+
+    private static final long[] IDS = {1001L, 1002L, 1003L, 1010L, 1024L, 2048L, 4096L, 8192L};
+
+    private BaseMap message;
+
+    private TypedMessage typedMessage;
+
+    private Jackson2JsonRedisSerializer<Object> jacksonSerializer;
+
+    private byte[] json;
+
+    private byte[] binary;
+
+    @Setup
+    public void setup() {
+        message = newMessage();
+        typedMessage = newTypedMessage();
+        jacksonSerializer = new Jackson2JsonRedisSerializer<>(RedisConfig.objectMapper(new RedisCacheTtls.Geometry()), Object.class);
+        json = jacksonSerializer.serialize(message);
+        binary = typedMessage.encode();
+    }
+
+    private static BaseMap newMessage() {
+        BaseMap map = new BaseMap();
+        map.put(GlobalConstants.HANDLER_NAME, GlobalConstants.NEAR_CACHE_INVALIDATE_HANDLER);
+        map.put("cacheName", "sys:cache:dictTable");
+        map.put("cacheKey", "sys_user:id:1");
+        map.put("count", "42");
+        map.put("enabled", "true");
+        map.put("ids", "1001,1002,1003,1010,1024,2048,4096,8192");
+        return map;
+    }
+
+    private static TypedMessage newTypedMessage() {
+        return new TypedMessage()
+                .putString(GlobalConstants.HANDLER_NAME, GlobalConstants.NEAR_CACHE_INVALIDATE_HANDLER)
+                .putString("cacheName", "sys:cache:dictTable")
+                .putString("cacheKey", "sys_user:id:1")
+                .putLong("count", 42L)
+                .putBoolean("enabled", true)
+                .putLongs("ids", IDS);
+    }
+
+    /**
+     * 构造一条缓存失效消息
+     */
+    @Benchmark
+    public BaseMap build() {
+        return newMessage();
+    }
+
+    @Benchmark
+    public String get() {
+        return message.get("cacheKey");
+    }
+
+    @Benchmark
+    public Long getLong() {
+        return message.getLong("count");
+    }
+
+    @Benchmark
+    public Boolean getBoolean() {
+        return message.getBoolean("enabled");
+    }
+
+    @Benchmark
+    public Long[] getLongIds() {
+        return message.getLongIds("ids");
+    }
+
+    @Benchmark
+    public BaseMap decodeJson() {
+        return (BaseMap) jacksonSerializer.deserialize(json);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return jacksonSerializer.serialize(message);
+    }
+
+    @Benchmark
+    public TypedMessage typedBuild() {
+        return newTypedMessage();
+    }
+
+    @Benchmark
+    public String typedGet() {
+        return typedMessage.getString("cacheKey");
+    }
+
+    @Benchmark
+    public long typedGetLong() {
+        return typedMessage.getLong("count", 0L);
+    }
+
+    @Benchmark
+    public boolean typedGetBoolean() {
+        return typedMessage.getBoolean("enabled", false);
+    }
+
+    @Benchmark
+    public long[] typedGetLongs() {
+        return typedMessage.getLongs("ids");
+    }
+
+    @Benchmark
+    public TypedMessage typedDecode() {
+        return TypedMessage.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] typedEncode() {
+        return typedMessage.encode();
+    }
+}
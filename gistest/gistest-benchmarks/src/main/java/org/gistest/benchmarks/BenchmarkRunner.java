@@ -0,0 +1,38 @@
+package org.gistest.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，参数与 JMH 命令行一致，默认附加 -prof gc 并输出 JSON 结果
+ * 打包：mvn -P benchmarks package
+ * 运行：java -jar gistest-benchmarks/target/benchmarks.jar [正则] [JMH 参数]
+ * 例如只跑缓存：java -jar benchmarks.jar CacheBenchmark -rff cache.json
+ * 结果默认写入 jmh-result.json，可用 -rf/-rff 修改，便于 CI 归档对比
+ * 缓存基准默认启动内嵌 Redis，-Dredis.host=... -Dredis.port=... 时改用已有 Redis
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cmd);
+        if (cmd.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(builder.build()).run();
+    }
+}
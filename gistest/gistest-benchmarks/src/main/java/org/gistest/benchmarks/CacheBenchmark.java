@@ -0,0 +1,175 @@
+package org.gistest.benchmarks;
+
+import org.gistest.common.modules.redis.cache.BatchRedisCache;
+import org.gistest.common.modules.redis.config.RedisCacheTtls;
+import org.gistest.common.modules.redis.config.RedisConfig;
+import org.gistest.common.modules.redis.receiver.RedisReceiver;
+import org.gistest.common.util.SpringContextHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 RedisConfigCacheManager 读写缓存，覆盖 RCacheWriter 的脚本、流水线与批量读写
+ * 未指定 -Dredis.host 时在 redis.port（默认 16379）启动内嵌 Redis
+ * 多线程运行，流水线只有在并发请求下才能合并往返
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(1)
+public class CacheBenchmark {
+
+    private static final String CACHE_NAME = "benchmark:cache";
+
+    /**
+     * 预先写入的 key 数
+     */
+    private static final int KEY_COUNT = 1000;
+
+    /**
+     * 批量读取的 key 数
+     */
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"true", "false"})
+    private boolean pipelining;
+
+    @Param({"JSON", "SMILE"})
+    private String format;
+
+    private RedisServer redisServer;
+
+    private ConfigurableApplicationContext context;
+
+    private BatchRedisCache cache;
+
+    private Fixtures.Feature value;
+
+    private List<String> batchKeys;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String host = System.getProperty("redis.host");
+        int port = Integer.getInteger("redis.port", host == null ? 16379 : 6379);
+        if (host == null) {
+            redisServer = new RedisServer(port);
+            redisServer.start();
+            host = "localhost";
+        }
+        context = new SpringApplicationBuilder(BenchmarkRedisConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("benchmark.redis.host=" + host,
+                        "benchmark.redis.port=" + port,
+                        "gistest.redis.pipelining=" + pipelining,
+                        "gistest.redis.default-serialization.format=" + format)
+                .run();
+        cache = context.getBean(RedisConfig.RedisConfigCacheManager.class).getBatchCache(CACHE_NAME);
+        cache.clear();
+        value = Fixtures.features(1, 64).getFeatures().get(0);
+        batchKeys = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            cache.put(key(i), value);
+            if (i < BATCH_SIZE) {
+                batchKeys.add(key(i));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (cache != null) {
+            cache.clear();
+        }
+        if (context != null) {
+            context.close();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    private static String key(int i) {
+        return "feature:" + i;
+    }
+
+    @Benchmark
+    public Object get() {
+        return cache.get(key(ThreadLocalRandom.current().nextInt(KEY_COUNT)));
+    }
+
+    @Benchmark
+    public void put() {
+        cache.put(key(ThreadLocalRandom.current().nextInt(KEY_COUNT)), value);
+    }
+
+    /**
+     * 一次 MGET 读取 BATCH_SIZE 个 key
+     */
+    @Benchmark
+    public Object getAll() {
+        return cache.getAll(batchKeys);
+    }
+
+    /**
+     * 逐个读取 BATCH_SIZE 个 key，与 getAll 对比
+     */
+    @Benchmark
+    public void getSequential(Blackhole blackhole) {
+        for (String key : batchKeys) {
+            blackhole.consume(cache.get(key));
+        }
+    }
+
+    /**
+     * 只加载缓存相关的配置，不启动 web 与数据源
+     */
+    @Configuration
+    @EnableConfigurationProperties
+    @Import({RedisCacheTtls.class, RedisConfig.class, RedisReceiver.class, SpringContextHolder.class})
+    public static class BenchmarkRedisConfiguration {
+
+        @Bean
+        public LettuceConnectionFactory redisConnectionFactory(Environment environment) {
+            RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                    environment.getRequiredProperty("benchmark.redis.host"),
+                    environment.getRequiredProperty("benchmark.redis.port", Integer.class));
+            return new LettuceConnectionFactory(configuration);
+        }
+    }
+}
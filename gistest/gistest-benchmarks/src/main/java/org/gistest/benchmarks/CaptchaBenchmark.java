@@ -0,0 +1,62 @@
+package org.gistest.benchmarks;
+
+import org.gistest.modules.system.system.captcha.CaptchaImagePool;
+import org.gistest.modules.system.system.util.RandImageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证码渲染：请求线程现场渲染与预渲染池后台线程复用渲染器的单次开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CaptchaBenchmark {
+
+    private RandImageUtil.Renderer renderer;
+
+    private String code;
+
+    @Setup
+    public void setup() {
+        renderer = new RandImageUtil.Renderer(new SecureRandom());
+        code = renderer.randomCode(CaptchaImagePool.CODE_LENGTH);
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.close();
+    }
+
+    /**
+     * 池取空时 LoginController 的现场渲染
+     */
+    @Benchmark
+    public String generateInline() throws IOException {
+        return RandImageUtil.generate(code);
+    }
+
+    /**
+     * 预渲染池后台线程的渲染
+     */
+    @Benchmark
+    public String renderReused() throws IOException {
+        return renderer.render(code);
+    }
+}
@@ -0,0 +1,97 @@
+package org.gistest.benchmarks;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试数据：带 JTS 面要素的 DTO，固定随机种子保证每次运行数据一致
+ */
+public final class Fixtures {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param count 要素数
+     * @param vertices 每个面的顶点数
+     * @return
+     */
+    public static FeatureCollection features(int count, int vertices) {
+        Random random = new Random(42);
+        FeatureCollection collection = new FeatureCollection();
+        collection.setName("benchmark");
+        List<Feature> features = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Feature feature = new Feature();
+            feature.setId((long) i);
+            feature.setName("feature-" + i);
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("code", "330100" + i);
+            properties.put("area", random.nextDouble() * 1000);
+            properties.put("level", random.nextInt(5));
+            feature.setProperties(properties);
+            feature.setGeometry(polygon(random, 120 + random.nextDouble(), 30 + random.nextDouble(), vertices));
+            features.add(feature);
+        }
+        collection.setFeatures(features);
+        return collection;
+    }
+
+    /**
+     * 以 (x, y) 为中心、半径随机扰动的闭合多边形
+     */
+    private static Polygon polygon(Random random, double x, double y, int vertices) {
+        Coordinate[] coordinates = new Coordinate[vertices + 1];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = 0.01 + random.nextDouble() * 0.002;
+            coordinates[i] = new Coordinate(x + radius * Math.cos(angle), y + radius * Math.sin(angle));
+        }
+        coordinates[vertices] = coordinates[0];
+        LinearRing shell = GEOMETRY_FACTORY.createLinearRing(coordinates);
+        return GEOMETRY_FACTORY.createPolygon(shell);
+    }
+
+    public static class FeatureCollection {
+
+        private String name;
+
+        private List<Feature> features;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public List<Feature> getFeatures() { return features; }
+        public void setFeatures(List<Feature> features) { this.features = features; }
+    }
+
+    public static class Feature {
+
+        private Long id;
+
+        private String name;
+
+        private Map<String, Object> properties;
+
+        private org.locationtech.jts.geom.Geometry geometry;
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public Map<String, Object> getProperties() { return properties; }
+        public void setProperties(Map<String, Object> properties) { this.properties = properties; }
+        public org.locationtech.jts.geom.Geometry getGeometry() { return geometry; }
+        public void setGeometry(org.locationtech.jts.geom.Geometry geometry) { this.geometry = geometry; }
+    }
+}
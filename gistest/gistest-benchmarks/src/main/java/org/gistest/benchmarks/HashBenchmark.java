@@ -0,0 +1,94 @@
+package org.gistest.benchmarks;
+
+import org.gistest.common.util.Md5Util;
+import org.gistest.common.util.Murmur3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证码、签名与缓存 key 摘要：MD5 与 Murmur3 128 位对比
+ * legacyMd5Encode 为改造前 Md5Util.md5Encode 的实现，作为基线
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+    private static final char[] HEXDIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 输入字符数
+     */
+    @Param({"16", "64", "1024"})
+    private int length;
+
+    private String input;
+
+    private byte[] inputBytes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        input = sb.toString();
+        inputBytes = input.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String legacyMd5Encode() throws NoSuchAlgorithmException {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        byte[] digest = md.digest(new String(input).getBytes(StandardCharsets.UTF_8));
+        StringBuffer resultSb = new StringBuffer();
+        for (byte b : digest) {
+            int n = b & 0xFF;
+            resultSb.append(new String(new char[]{HEXDIGITS[n >>> 4], HEXDIGITS[n & 0x0F]}));
+        }
+        return resultSb.toString();
+    }
+
+    @Benchmark
+    public String md5Encode() {
+        return Md5Util.md5Encode(input, "utf-8");
+    }
+
+    @Benchmark
+    public String md5HexCharSequence() {
+        return Md5Util.md5Hex(input);
+    }
+
+    @Benchmark
+    public byte[] md5Bytes() {
+        return Md5Util.md5(inputBytes);
+    }
+
+    @Benchmark
+    public String murmur3HexCharSequence() {
+        return Murmur3.hash128(input).toHex();
+    }
+
+    @Benchmark
+    public Murmur3.Hash128 murmur3Bytes() {
+        return Murmur3.hash128(inputBytes);
+    }
+}
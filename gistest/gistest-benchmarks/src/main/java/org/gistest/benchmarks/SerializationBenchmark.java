@@ -0,0 +1,83 @@
+package org.gistest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.gistest.common.modules.redis.config.RedisCacheTtls;
+import org.gistest.common.modules.redis.config.RedisConfig;
+import org.gistest.common.modules.redis.serializer.CacheValueSerializer;
+import org.gistest.common.modules.redis.serializer.GeometryEncoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存值序列化：JSON / Smile、是否 LZ4 压缩、Geometry 编码方式组合
+ * ObjectMapper 取自 RedisConfig.objectMapper，与线上缓存配置一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    private CacheValueSerializer.Format format;
+
+    @Param({"NONE", "LZ4"})
+    private CacheValueSerializer.Compression compression;
+
+    @Param({"WKB", "TWKB"})
+    private GeometryEncoding geometry;
+
+    /**
+     * 要素数
+     */
+    @Param({"100"})
+    private int features;
+
+    /**
+     * 每个面的顶点数
+     */
+    @Param({"64"})
+    private int vertices;
+
+    private CacheValueSerializer serializer;
+
+    private Fixtures.FeatureCollection value;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        RedisCacheTtls.Geometry geometryConfig = new RedisCacheTtls.Geometry();
+        geometryConfig.setEncoding(geometry);
+        ObjectMapper jsonMapper = RedisConfig.objectMapper(geometryConfig);
+        ObjectMapper smileMapper = jsonMapper.copyWith(new SmileFactory());
+        serializer = new CacheValueSerializer(jsonMapper, smileMapper, format, compression, new RedisCacheTtls.Serialization().getCompressThreshold());
+        value = Fixtures.features(features, vertices);
+        bytes = serializer.serialize(value);
+        System.out.printf("%n%s/%s/%s serialized size: %d bytes%n", format, compression, geometry, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+}
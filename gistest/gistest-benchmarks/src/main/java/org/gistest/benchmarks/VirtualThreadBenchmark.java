@@ -0,0 +1,132 @@
+package org.gistest.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求执行模式的负载测试：一批并发请求分别在 Tomcat 默认的 200 个平台线程与每请求一个虚拟线程上执行
+ * 每个请求模拟典型的阻塞处理：读一次 Redis、一次 dbLatencyMillis 毫秒的数据库查询（sleep 模拟）、再写一次 Redis
+ * 得分为每秒完成的请求数；平台线程受线程数限制，约为 200 / 单个请求耗时，虚拟线程只受 Redis 与 CPU 限制
+ * 未指定 -Dredis.host 时在 redis.port（默认 16379）启动内嵌 Redis
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    /**
+     * 每次调用并发提交的请求数
+     */
+    private static final int REQUESTS = 2000;
+
+    /**
+     * 平台线程模式的线程数，与 Tomcat 默认的 server.tomcat.threads.max 一致
+     */
+    private static final int PLATFORM_THREADS = 200;
+
+    private static final int KEY_COUNT = 1000;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String mode;
+
+    @Param({"5", "20"})
+    private int dbLatencyMillis;
+
+    private RedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String host = System.getProperty("redis.host");
+        int port = Integer.getInteger("redis.port", host == null ? 16379 : 6379);
+        if (host == null) {
+            redisServer = new RedisServer(port);
+            redisServer.start();
+            host = "localhost";
+        }
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            redisTemplate.opsForValue().set(key(i), "value:" + i);
+        }
+        executor = "VIRTUAL".equals(mode) ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    private static String key(int i) {
+        return "benchmark:request:" + i;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void requests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.execute(() -> {
+                try {
+                    handleRequest();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void handleRequest() {
+        String key = key(ThreadLocalRandom.current().nextInt(KEY_COUNT));
+        String value = redisTemplate.opsForValue().get(key);
+        try {
+            Thread.sleep(dbLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        redisTemplate.opsForValue().set(key, value == null ? "" : value);
+    }
+}
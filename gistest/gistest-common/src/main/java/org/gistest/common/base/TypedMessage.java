@@ -0,0 +1,572 @@
+package org.gistest.common.base;
+
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 类型化消息，高频 RedisListener 消息替代 BaseMap 的载体
+ * long/int/double/boolean 与 ID 数组按原始类型存放，不装箱，类型化的取值方法不做字符串解析；
+ * 条目少，按数组顺序查找，不建哈希表
+ * 二进制格式：魔数 + 版本 + 条目数，每个条目为 key、类型、值，整数为 zigzag 变长编码，ID 数组按差值编码；
+ * 首字节不可能出现在 JSON 中，可与 Jackson 格式的 BaseMap 消息共用同一通道
+ * 非线程安全，发布后不要再修改
+ */
+public final class TypedMessage {
+
+    /**
+     * 魔数，UTF-8 续字节，不会是 JSON 文本的首字节
+     */
+    private static final byte MAGIC = (byte) 0xB7;
+
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INT = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte STRING = 5;
+    private static final byte LONGS = 6;
+
+    private String[] keys;
+
+    private byte[] types;
+
+    /**
+     * 原始类型的值，double 存放其 bit 位
+     */
+    private long[] values;
+
+    /**
+     * String 与 long[] 的值
+     */
+    private Object[] refs;
+
+    private int size;
+
+    public TypedMessage() {
+        this(8);
+    }
+
+    public TypedMessage(int capacity) {
+        keys = new String[capacity];
+        types = new byte[capacity];
+        values = new long[capacity];
+        refs = new Object[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    public TypedMessage putLong(String key, long value) {
+        return set(key, LONG, value, null);
+    }
+
+    public TypedMessage putInt(String key, int value) {
+        return set(key, INT, value, null);
+    }
+
+    public TypedMessage putDouble(String key, double value) {
+        return set(key, DOUBLE, Double.doubleToRawLongBits(value), null);
+    }
+
+    public TypedMessage putBoolean(String key, boolean value) {
+        return set(key, BOOLEAN, value ? 1 : 0, null);
+    }
+
+    public TypedMessage putString(String key, @Nullable String value) {
+        return value == null ? set(key, NULL, 0, null) : set(key, STRING, 0, value);
+    }
+
+    /**
+     * @param value 直接引用，不复制，放入后不要再修改
+     */
+    public TypedMessage putLongs(String key, @Nullable long[] value) {
+        return value == null ? set(key, NULL, 0, null) : set(key, LONGS, 0, value);
+    }
+
+    /**
+     * 按值的类型放入，用于从 Map 转换；无法识别的类型按 toString 存为字符串
+     */
+    public TypedMessage put(String key, @Nullable Object value) {
+        if (value == null) {
+            return set(key, NULL, 0, null);
+        } else if (value instanceof Long v) {
+            return putLong(key, v);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return putInt(key, ((Number) value).intValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            return putDouble(key, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean v) {
+            return putBoolean(key, v);
+        } else if (value instanceof long[] v) {
+            return putLongs(key, v);
+        } else if (value instanceof Long[] v) {
+            long[] ids = new long[v.length];
+            for (int i = 0; i < v.length; i++) {
+                ids[i] = v[i];
+            }
+            return putLongs(key, ids);
+        } else if (value instanceof Collection<?> c && c.stream().allMatch(e -> e instanceof Long || e instanceof Integer)) {
+            return putLongs(key, c.stream().mapToLong(e -> ((Number) e).longValue()).toArray());
+        }
+        return putString(key, value.toString());
+    }
+
+    public long getLong(String key, long def) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return def;
+        }
+        return switch (types[i]) {
+            case LONG, INT -> values[i];
+            case DOUBLE -> (long) Double.longBitsToDouble(values[i]);
+            case STRING -> parseLong((String) refs[i], def);
+            default -> def;
+        };
+    }
+
+    public int getInt(String key, int def) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return def;
+        }
+        return switch (types[i]) {
+            case LONG, INT -> (int) values[i];
+            case DOUBLE -> (int) Double.longBitsToDouble(values[i]);
+            case STRING -> (int) parseLong((String) refs[i], def);
+            default -> def;
+        };
+    }
+
+    public double getDouble(String key, double def) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return def;
+        }
+        return switch (types[i]) {
+            case LONG, INT -> values[i];
+            case DOUBLE -> Double.longBitsToDouble(values[i]);
+            case STRING -> {
+                try {
+                    yield Double.parseDouble((String) refs[i]);
+                } catch (NumberFormatException e) {
+                    yield def;
+                }
+            }
+            default -> def;
+        };
+    }
+
+    public boolean getBoolean(String key, boolean def) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return def;
+        }
+        return switch (types[i]) {
+            case BOOLEAN, LONG, INT -> values[i] != 0;
+            case STRING -> Boolean.parseBoolean((String) refs[i]);
+            default -> def;
+        };
+    }
+
+    /**
+     * @return 字符串值，数值类型转为字符串，不存在或为 null 时返回 null
+     */
+    @Nullable
+    public String getString(String key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        return switch (types[i]) {
+            case STRING -> (String) refs[i];
+            case NULL -> null;
+            default -> String.valueOf(boxed(i));
+        };
+    }
+
+    /**
+     * @return ID 数组，为逗号分隔字符串时解析，返回的数组不要修改
+     */
+    @Nullable
+    public long[] getLongs(String key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        return switch (types[i]) {
+            case LONGS -> (long[]) refs[i];
+            case LONG, INT -> new long[]{values[i]};
+            case STRING -> parseLongs((String) refs[i]);
+            default -> null;
+        };
+    }
+
+    /**
+     * @return 装箱后的值，ID 数组为 long[]
+     */
+    @Nullable
+    public Object get(String key) {
+        int i = indexOf(key);
+        return i < 0 ? null : boxed(i);
+    }
+
+    /**
+     * 转为 BaseMap，供只实现了 onMessage(BaseMap) 的处理器使用；ID 数组转为 Long[]，与 BaseMap.getLongs 一致
+     */
+    public BaseMap toBaseMap() {
+        BaseMap map = new BaseMap();
+        for (int i = 0; i < size; i++) {
+            Object value = boxed(i);
+            if (value instanceof long[] ids) {
+                Long[] boxedIds = new Long[ids.length];
+                for (int j = 0; j < ids.length; j++) {
+                    boxedIds[j] = ids[j];
+                }
+                value = boxedIds;
+            }
+            map.put(keys[i], value);
+        }
+        return map;
+    }
+
+    public static TypedMessage fromMap(Map<String, ?> map) {
+        TypedMessage message = new TypedMessage(Math.max(map.size(), 1));
+        map.forEach(message::put);
+        return message;
+    }
+
+    /**
+     * 编码为二进制，先计算长度，只分配一次数组
+     */
+    public byte[] encode() {
+        int length = 2 + varintSize(size);
+        for (int i = 0; i < size; i++) {
+            length += stringSize(keys[i]) + 1 + valueSize(i);
+        }
+        byte[] out = new byte[length];
+        out[0] = MAGIC;
+        out[1] = VERSION;
+        int p = writeVarint(out, 2, size);
+        for (int i = 0; i < size; i++) {
+            p = writeString(out, p, keys[i]);
+            out[p++] = types[i];
+            switch (types[i]) {
+                case LONG, INT -> p = writeVarint(out, p, zigzag(values[i]));
+                case DOUBLE -> p = writeFixed64(out, p, values[i]);
+                case BOOLEAN -> out[p++] = (byte) values[i];
+                case STRING -> p = writeString(out, p, (String) refs[i]);
+                case LONGS -> {
+                    long[] ids = (long[]) refs[i];
+                    p = writeVarint(out, p, ids.length);
+                    long previous = 0;
+                    for (long id : ids) {
+                        p = writeVarint(out, p, zigzag(id - previous));
+                        previous = id;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return 是否为 encode 生成的二进制
+     */
+    public static boolean isEncoded(@Nullable byte[] bytes) {
+        return bytes != null && bytes.length >= 2 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * 解码，条目数、数组长度、字符串长度按剩余字节数校验后才分配，截断或长度超出时抛出 IllegalArgumentException
+     */
+    public static TypedMessage decode(byte[] bytes) {
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Not a typed message");
+        }
+        if (bytes[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported typed message version: " + bytes[1]);
+        }
+        Reader reader = new Reader(bytes, 2);
+        // 每个条目至少有 key 长度与类型 2 个字节
+        int count = reader.length(2);
+        TypedMessage message = new TypedMessage(Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            String key = reader.string();
+            byte type = reader.next();
+            switch (type) {
+                case NULL -> message.set(key, NULL, 0, null);
+                case LONG, INT -> message.set(key, type, unzigzag(reader.varint()), null);
+                case DOUBLE -> message.set(key, DOUBLE, reader.fixed64(), null);
+                case BOOLEAN -> message.set(key, BOOLEAN, reader.next(), null);
+                case STRING -> message.set(key, STRING, 0, reader.string());
+                case LONGS -> {
+                    long[] ids = new long[reader.length(1)];
+                    long previous = 0;
+                    for (int j = 0; j < ids.length; j++) {
+                        previous += unzigzag(reader.varint());
+                        ids[j] = previous;
+                    }
+                    message.set(key, LONGS, 0, ids);
+                }
+                default -> throw new IllegalArgumentException("Unknown value type: " + type);
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Object value = boxed(i);
+            sb.append(keys[i]).append('=').append(value instanceof long[] ids ? Arrays.toString(ids) : value);
+        }
+        return sb.append('}').toString();
+    }
+
+    private TypedMessage set(String key, byte type, long value, @Nullable Object ref) {
+        int i = indexOf(key);
+        if (i < 0) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                types = Arrays.copyOf(types, capacity);
+                values = Arrays.copyOf(values, capacity);
+                refs = Arrays.copyOf(refs, capacity);
+            }
+            i = size++;
+            keys[i] = key;
+        }
+        types[i] = type;
+        values[i] = value;
+        refs[i] = ref;
+        return this;
+    }
+
+    private int indexOf(String key) {
+        // 常量 key 先比较引用
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Nullable
+    private Object boxed(int i) {
+        return switch (types[i]) {
+            case LONG -> values[i];
+            case INT -> (int) values[i];
+            case DOUBLE -> Double.longBitsToDouble(values[i]);
+            case BOOLEAN -> values[i] != 0;
+            case STRING, LONGS -> refs[i];
+            default -> null;
+        };
+    }
+
+    private static long parseLong(String value, long def) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    private static long[] parseLongs(String value) {
+        if (value.isEmpty()) {
+            return new long[0];
+        }
+        String[] parts = value.split(",");
+        long[] ids = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = Long.parseLong(parts[i].trim());
+        }
+        return ids;
+    }
+
+    private int valueSize(int i) {
+        return switch (types[i]) {
+            case LONG, INT -> varintSize(zigzag(values[i]));
+            case DOUBLE -> 8;
+            case BOOLEAN -> 1;
+            case STRING -> stringSize((String) refs[i]);
+            case LONGS -> {
+                long[] ids = (long[]) refs[i];
+                int n = varintSize(ids.length);
+                long previous = 0;
+                for (long id : ids) {
+                    n += varintSize(zigzag(id - previous));
+                    previous = id;
+                }
+                yield n;
+            }
+            default -> 0;
+        };
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varintSize(long value) {
+        int n = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    private static int writeVarint(byte[] out, int p, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[p++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[p++] = (byte) value;
+        return p;
+    }
+
+    private static int writeFixed64(byte[] out, int p, long value) {
+        for (int i = 0; i < 8; i++) {
+            out[p++] = (byte) (value >>> (i * 8));
+        }
+        return p;
+    }
+
+    private static int stringSize(String s) {
+        int length = utf8Length(s);
+        return varintSize(length) + length;
+    }
+
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 直接写入 UTF-8，非法的单个代理字符与 String.getBytes(UTF_8) 一样写为 '?'
+     */
+    private static int writeString(byte[] out, int p, String s) {
+        p = writeVarint(out, p, utf8Length(s));
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out[p++] = (byte) c;
+            } else if (c < 0x800) {
+                out[p++] = (byte) (0xc0 | c >> 6);
+                out[p++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out[p++] = (byte) (0xf0 | cp >> 18);
+                out[p++] = (byte) (0x80 | cp >> 12 & 0x3f);
+                out[p++] = (byte) (0x80 | cp >> 6 & 0x3f);
+                out[p++] = (byte) (0x80 | cp & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                out[p++] = '?';
+            } else {
+                out[p++] = (byte) (0xe0 | c >> 12);
+                out[p++] = (byte) (0x80 | c >> 6 & 0x3f);
+                out[p++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        return p;
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        byte next() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Truncated typed message");
+            }
+            return bytes[position++];
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long fixed64() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (long) (next() & 0xFF) << (i * 8);
+            }
+            return value;
+        }
+
+        /**
+         * 读取长度，每个元素至少 minBytes 个字节，超出剩余字节数时为截断或伪造的长度
+         */
+        int length(int minBytes) {
+            long length = varint();
+            if (length < 0 || length > (bytes.length - position) / minBytes) {
+                throw new IllegalArgumentException("Truncated typed message");
+            }
+            return (int) length;
+        }
+
+        String string() {
+            int length = length(1);
+            String s = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+    }
+}
@@ -61,6 +61,16 @@ public final class CacheConstant {
      */
     public static final String ROUTE_JVM_RELOAD_TOPIC = "gateway_jvm_route_reload_topic";
 
+    /**
+     * 缓存锁释放通知通道，消息体为锁 key
+     */
+    public static final String CACHE_UNLOCK_TOPIC = "sys:cache:unlock_topic";
+
+    /**
+     * 登录验证码，后接 md5(客户端 key + 签名密钥)，每个客户端 key 只对应一个 redis key
+     */
+    public static final String SYS_CAPTCHA_KEY = "sys:captcha:";
+
     /**
      * TODO 冗余代码 待删除
      *插件商城排行榜
@@ -98,4 +108,9 @@ public final class CacheConstant {
      * 拖拽页面信息缓存
      */
     public static final String DRAG_PAGE_CACHE = "drag:cache:page";
+
+    /**
+     * 矢量瓦片（MVT）缓存，key 为 图层:z:x:y
+     */
+    public static final String GIS_TILE_CACHE = "gis:cache:tile";
 }
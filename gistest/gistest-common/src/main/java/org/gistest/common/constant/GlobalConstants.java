@@ -6,6 +6,10 @@ public final class GlobalConstants {
      * 业务处理器beanName传递参数
      */
     public static final String HANDLER_NAME = "handlerName";
+    /**
+     * 消息分区参数，同一处理器下 partitionKey 相同的消息按发送顺序处理，不传时整个处理器按顺序处理
+     */
+    public static final String PARTITION_KEY = "partitionKey";
     /**
      * 路由刷新触发器
      */
@@ -15,4 +19,19 @@ public final class GlobalConstants {
      * redis消息通道名称
      */
     public static final String REDIS_TOPIC_NAME="jeecg_redis_topic";
+
+    /**
+     * redis Streams 消息流名称，需要可靠送达的 RedisListener 消息走该流
+     */
+    public static final String REDIS_STREAM_NAME = "gistest:event_stream";
+
+    /**
+     * 一级缓存（L1）失效广播处理器
+     */
+    public static final String NEAR_CACHE_INVALIDATE_HANDLER = "nearCacheInvalidateHandler";
+
+    /**
+     * 内存空间索引变更处理器
+     */
+    public static final String SPATIAL_INDEX_CHANGE_HANDLER = "spatialIndexChangeHandler";
 }
\ No newline at end of file
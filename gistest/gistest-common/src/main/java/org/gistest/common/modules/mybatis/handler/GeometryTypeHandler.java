@@ -0,0 +1,70 @@
+package org.gistest.common.modules.mybatis.handler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedTypes;
+import org.gistest.common.modules.redis.serializer.GeometryCodec;
+import org.locationtech.jts.geom.Geometry;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HexFormat;
+
+/**
+ * JTS Geometry 与 PostGIS geometry 的映射，以 EWKB 二进制读写，SRID 随 EWKB 保留
+ * 读：geometry 列返回十六进制 EWKB 文本，ST_AsEWKB/ST_AsBinary 返回 bytea，两者都直接按 WKB 解析，无需 ST_AsGeoJSON/ST_AsText 再解析文本
+ * 写：以 bytea 传入 EWKB，由 PostGIS 的 bytea → geometry 隐式转换接收；函数参数有歧义时写 #{geom}::geometry
+ * Point、Polygon 等子类型同样使用该处理器
+ */
+@MappedTypes(Geometry.class)
+public class GeometryTypeHandler extends BaseTypeHandler<Geometry> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, Geometry parameter, JdbcType jdbcType) throws SQLException {
+        ps.setBytes(i, GeometryCodec.writeEwkb(parameter));
+    }
+
+    @Override
+    public Geometry getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return decode(rs.getObject(columnName));
+    }
+
+    @Override
+    public Geometry getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return decode(rs.getObject(columnIndex));
+    }
+
+    @Override
+    public Geometry getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return decode(cs.getObject(columnIndex));
+    }
+
+    private static Geometry decode(Object value) throws SQLException {
+        byte[] ewkb = toEwkb(value);
+        return ewkb == null ? null : GeometryCodec.readEwkb(ewkb);
+    }
+
+    /**
+     * @param value bytea 列为 byte[]，geometry 列为 PGobject（文本为十六进制 EWKB）
+     * @return EWKB，值为 null 时返回 null
+     */
+    static byte[] toEwkb(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes;
+        }
+        String hex = value.toString();
+        if (hex == null) {
+            return null;
+        }
+        try {
+            return HexFormat.of().parseHex(hex);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Not a PostGIS geometry (EWKB expected): " + value.getClass().getName(), e);
+        }
+    }
+}
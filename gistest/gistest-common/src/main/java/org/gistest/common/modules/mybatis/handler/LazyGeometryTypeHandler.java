@@ -0,0 +1,44 @@
+package org.gistest.common.modules.mybatis.handler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedTypes;
+import org.gistest.common.modules.spatial.LazyGeometry;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * LazyGeometry 与 PostGIS geometry 的映射：读出时只保存 EWKB，不解析几何，写入时原样传回
+ * 用于只在数据库、缓存、响应之间传递的几何字段
+ */
+@MappedTypes(LazyGeometry.class)
+public class LazyGeometryTypeHandler extends BaseTypeHandler<LazyGeometry> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, LazyGeometry parameter, JdbcType jdbcType) throws SQLException {
+        ps.setBytes(i, parameter.getEwkb());
+    }
+
+    @Override
+    public LazyGeometry getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return wrap(rs.getObject(columnName));
+    }
+
+    @Override
+    public LazyGeometry getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return wrap(rs.getObject(columnIndex));
+    }
+
+    @Override
+    public LazyGeometry getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return wrap(cs.getObject(columnIndex));
+    }
+
+    private static LazyGeometry wrap(Object value) throws SQLException {
+        byte[] ewkb = GeometryTypeHandler.toEwkb(value);
+        return ewkb == null ? null : LazyGeometry.ofEwkb(ewkb);
+    }
+}
@@ -0,0 +1,135 @@
+package org.gistest.common.modules.redis.cache;
+
+import org.gistest.common.modules.redis.config.RCacheWriter;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 支持批量读写的 RedisCache，用于一次请求需要查询大量要素、字典 ID 的场景
+ * 缓存写入器为 RCacheWriter 时 getAll/putAll 走 MGET 与批量写入脚本，否则逐个 key 读写
+ * 使用方式：RedisConfigCacheManager.getBatchCache(name)
+ */
+public class BatchRedisCache extends RedisCache {
+
+    public BatchRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration) {
+        super(name, cacheWriter, cacheConfiguration);
+    }
+
+    /**
+     * 批量读取
+     * @param keys
+     * @return 命中的 key 与缓存值，保持 keys 的顺序；缓存了 null 的 key 对应值为 null
+     */
+    public <K> Map<K, Object> getAll(Collection<K> keys) {
+        return readAll(keys);
+    }
+
+    /**
+     * 批量读取，只读 Redis，不经过也不填充 NearRedisCache 的一级缓存；用于预热等一次性的批量扫描
+     * @param keys
+     * @return 同 getAll
+     */
+    public <K> Map<K, Object> peekAll(Collection<K> keys) {
+        return readAll(keys);
+    }
+
+    private <K> Map<K, Object> readAll(Collection<K> keys) {
+        List<K> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<byte[]> binaryKeys = new ArrayList<>(keyList.size());
+        for (K key : keyList) {
+            binaryKeys.add(serializeCacheKey(createCacheKey(key)));
+        }
+        List<byte[]> values;
+        if (getCacheWriter() instanceof RCacheWriter writer) {
+            values = writer.getAll(getName(), binaryKeys);
+        } else {
+            values = new ArrayList<>(binaryKeys.size());
+            for (byte[] binaryKey : binaryKeys) {
+                values.add(getCacheWriter().get(getName(), binaryKey));
+            }
+        }
+        Map<K, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] value = values.get(i);
+            if (value != null) {
+                result.put(keyList.get(i), fromStoreValue(deserializeCacheValue(value)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量读取，未命中的 key 一次性交给 loader 加载并写回缓存
+     * @param keys
+     * @param loader 参数为未命中的 key，返回加载到的值，未返回的 key 不缓存
+     * @return 命中与加载的结果
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = (Map<K, V>) getAll(keys);
+        Set<K> misses = new LinkedHashSet<>(keys);
+        misses.removeAll(result.keySet());
+        if (misses.isEmpty()) {
+            return result;
+        }
+        Map<K, V> loaded = loader.apply(Collections.unmodifiableSet(misses));
+        if (loaded != null && !loaded.isEmpty()) {
+            putAll(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * 批量写入，按各条目的过期时间分组，每组一次批量写入
+     * 不允许缓存 null 时，值为 null 的条目直接跳过
+     * @param entries
+     */
+    public void putAll(Map<?, ?> entries) {
+        Map<Duration, Map<byte[], byte[]>> groups = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            Object cacheValue = preProcessCacheValue(value);
+            if (cacheValue == null) {
+                return;
+            }
+            Duration ttl = getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+            groups.computeIfAbsent(ttl, t -> new LinkedHashMap<>())
+                    .put(serializeCacheKey(createCacheKey(key)), serializeCacheValue(cacheValue));
+        });
+        groups.forEach((ttl, group) -> {
+            if (getCacheWriter() instanceof RCacheWriter writer) {
+                writer.putAll(getName(), group, ttl);
+            } else {
+                group.forEach((binaryKey, binaryValue) -> getCacheWriter().put(getName(), binaryKey, binaryValue, ttl));
+            }
+        });
+    }
+
+    /**
+     * 批量删除，RCacheWriter 时按批 UNLINK，否则逐个 key 删除
+     * @param keys
+     */
+    public void evictAll(Collection<?> keys) {
+        List<byte[]> binaryKeys = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            binaryKeys.add(serializeCacheKey(createCacheKey(key)));
+        }
+        if (getCacheWriter() instanceof RCacheWriter writer) {
+            writer.removeAll(getName(), binaryKeys);
+        } else {
+            binaryKeys.forEach(binaryKey -> getCacheWriter().remove(getName(), binaryKey));
+        }
+    }
+}
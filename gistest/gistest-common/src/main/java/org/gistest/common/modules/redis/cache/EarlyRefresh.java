@@ -0,0 +1,19 @@
+package org.gistest.common.modules.redis.cache;
+
+/**
+ * 热点 key 过期前的提前刷新方式，仅对 @Cacheable(sync = true) 的加载生效
+ */
+public enum EarlyRefresh {
+    /**
+     * 不提前刷新，过期后由第一个未命中的请求加载
+     */
+    NONE,
+    /**
+     * XFetch 概率提前过期：越接近过期、加载越慢，命中的请求越可能被选中，由选中的请求同步加载并返回新值
+     */
+    XFETCH,
+    /**
+     * stale-while-revalidate：选中条件与 XFETCH 相同，但立即返回旧值，由后台线程加载
+     */
+    BACKGROUND
+}
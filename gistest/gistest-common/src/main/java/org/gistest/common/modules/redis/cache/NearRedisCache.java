@@ -0,0 +1,236 @@
+package org.gistest.common.modules.redis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 两级缓存：进程内 L1（Caffeine，按容量和写入时间淘汰） + Redis L2
+ * L1 中保存的是反序列化后的对象，命中时既不走网络也不反序列化；
+ * put/evict/clear 时先清理本地 L1，再通过 invalidationPublisher 广播给集群其他节点，putAll/evictAll 的全部 key 合并为一条广播
+ * 注意：L1 命中返回的是同一个对象实例，调用方不应修改缓存对象
+ */
+@Slf4j
+public class NearRedisCache extends BatchRedisCache {
+
+    /**
+     * 清空整个缓存时广播的 key
+     */
+    public static final String ALL_KEYS = "*";
+
+    /**
+     * 按字节数淘汰时，非 byte[] 值每条的估算大小
+     */
+    private static final int ESTIMATED_ENTRY_BYTES = 1024;
+
+    private final Cache<String, Object> localCache;
+
+    private final InvalidationPublisher invalidationPublisher;
+
+    public NearRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                          long maximumSize, Duration localTtl, InvalidationPublisher invalidationPublisher) {
+        this(name, cacheWriter, cacheConfiguration, maximumSize, 0, localTtl, invalidationPublisher);
+    }
+
+    /**
+     * @param maximumBytes 大于 0 时 L1 按字节数淘汰（byte[] 按长度，其他值按 ESTIMATED_ENTRY_BYTES 估算），忽略 maximumSize
+     */
+    public NearRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                          long maximumSize, long maximumBytes, Duration localTtl, InvalidationPublisher invalidationPublisher) {
+        super(name, cacheWriter, cacheConfiguration);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().expireAfterWrite(localTtl);
+        if (maximumBytes > 0) {
+            builder.maximumWeight(maximumBytes)
+                    .weigher((String key, Object value) -> key.length() + (value instanceof byte[] bytes ? bytes.length : ESTIMATED_ENTRY_BYTES));
+        } else {
+            builder.maximumSize(maximumSize);
+        }
+        this.localCache = builder.build();
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = createCacheKey(key);
+        Object value = localCache.getIfPresent(cacheKey);
+        if (value != null) {
+            return value;
+        }
+        value = super.lookup(key);
+        if (value != null) {
+            localCache.put(cacheKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * RedisCache.get(key, valueLoader) 直接走缓存写入器，不经过 lookup，这里先查 L1，加载结果同样放入 L1
+     * 用于 @Cacheable(sync = true) 与瓦片等按需加载的场景
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = createCacheKey(key);
+        Object value = localCache.getIfPresent(cacheKey);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+        T result = super.get(key, valueLoader);
+        if (result != null || isAllowNullValues()) {
+            localCache.put(cacheKey, toStoreValue(result));
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<ValueWrapper> retrieve(Object key) {
+        Object value = localCache.getIfPresent(createCacheKey(key));
+        if (value != null) {
+            return CompletableFuture.completedFuture(toValueWrapper(value));
+        }
+        return super.retrieve(key);
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        super.put(key, value);
+        invalidate(createCacheKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        invalidate(createCacheKey(key));
+        return existing;
+    }
+
+    /**
+     * 先查 L1，只有 L1 未命中的 key 走 Redis 批量读取
+     */
+    @Override
+    public <K> Map<K, Object> getAll(Collection<K> keys) {
+        Map<K, Object> result = new LinkedHashMap<>();
+        List<K> misses = new ArrayList<>();
+        for (K key : keys) {
+            Object value = localCache.getIfPresent(createCacheKey(key));
+            if (value != null) {
+                result.put(key, fromStoreValue(value));
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<K, Object> loaded = super.getAll(misses);
+            loaded.forEach((key, value) -> {
+                Object storeValue = toStoreValue(value);
+                if (storeValue != null) {
+                    localCache.put(createCacheKey(key), storeValue);
+                }
+            });
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        super.putAll(entries);
+        invalidateAll(entries.keySet());
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        invalidate(createCacheKey(key));
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        super.evictAll(keys);
+        invalidateAll(keys);
+    }
+
+    /**
+     * 只以 * 结尾的前缀模式按前缀清理 L1，其余模式清空整个 L1
+     */
+    @Override
+    public void clear(String keyPattern) {
+        super.clear(keyPattern);
+        String prefix = keyPattern.substring(0, Math.max(keyPattern.length() - 1, 0));
+        boolean prefixPattern = keyPattern.endsWith(ALL_KEYS) && !prefix.isEmpty() && prefix.chars().noneMatch(c -> c == '*' || c == '?' || c == '[');
+        invalidate(prefixPattern ? createCacheKey(keyPattern) : ALL_KEYS);
+    }
+
+    /**
+     * 清理本节点 L1 并通知其他节点
+     * @param cacheKey 带前缀的缓存 key，以 * 结尾时按前缀清理
+     */
+    private void invalidate(String cacheKey) {
+        invalidateLocal(cacheKey);
+        publish(List.of(cacheKey));
+    }
+
+    /**
+     * 批量清理本节点 L1，只广播一条消息
+     */
+    private void invalidateAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> cacheKeys = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            String cacheKey = createCacheKey(key);
+            localCache.invalidate(cacheKey);
+            cacheKeys.add(cacheKey);
+        }
+        publish(cacheKeys);
+    }
+
+    private void publish(List<String> cacheKeys) {
+        try {
+            invalidationPublisher.publish(getName(), cacheKeys);
+        } catch (Exception e) {
+            // 广播失败时其他节点依赖 L1 的 TTL 兜底
+            log.warn("near cache invalidation publish failed, cache:{}, keys:{}", getName(), cacheKeys.size() == 1 ? cacheKeys.get(0) : cacheKeys.size(), e);
+        }
+    }
+
+    /**
+     * 仅清理本节点 L1，收到其他节点广播时调用
+     * @param cacheKey 带前缀的缓存 key，* 表示全部，以 * 结尾时按前缀清理
+     */
+    public void invalidateLocal(String cacheKey) {
+        if (ALL_KEYS.equals(cacheKey)) {
+            localCache.invalidateAll();
+        } else if (cacheKey.endsWith(ALL_KEYS)) {
+            String prefix = cacheKey.substring(0, cacheKey.length() - 1);
+            localCache.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+        } else {
+            localCache.invalidate(cacheKey);
+        }
+    }
+
+    /**
+     * L1 失效广播
+     */
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+
+        /**
+         * @param cacheKeys 带前缀的缓存 key，一次调用发送一条消息
+         */
+        void publish(String cacheName, List<String> cacheKeys);
+    }
+}
@@ -1,28 +1,60 @@
 package org.gistest.common.modules.redis.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.constant.CacheConstant;
+import org.gistest.common.modules.redis.cache.EarlyRefresh;
+import org.gistest.common.modules.redis.lock.CacheLockMode;
+import org.gistest.common.modules.redis.lock.CacheLockNotifier;
+import org.gistest.common.modules.redis.metrics.CacheMetricsRecorder;
+import org.gistest.common.modules.redis.metrics.CacheOperation;
 import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.redis.cache.CacheStatistics;
 import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 public class RCacheWriter implements RedisCacheWriter {
@@ -31,25 +63,271 @@ public class RCacheWriter implements RedisCacheWriter {
 
     private final Duration defaultTtl;
 
-    private ThreadLocal<String> currentLockValue = new ThreadLocal<>();
+    /**
+     * 异步读写使用的响应式连接工厂（Lettuce），为 null 时不支持 retrieve/store
+     */
+    @Nullable
+    private final ReactiveRedisConnectionFactory reactiveConnectionFactory;
+
+    /**
+     * 按缓存名称配置的加锁粒度，未配置的使用 defaultLockMode
+     */
+    private Map<String, CacheLockMode> lockModes = Collections.emptyMap();
+
+    private CacheLockMode defaultLockMode = CacheLockMode.CACHE;
+
+    /**
+     * KEY 模式下的锁分段数
+     */
+    private int lockStripes = 64;
+
+    /**
+     * 等待锁释放的最长时间，超时抛出 PessimisticLockingFailureException
+     */
+    private Duration maxLockWait = Duration.ofSeconds(5);
+
+    /**
+     * 未收到解锁通知时的兜底复查间隔（锁过期或通知丢失）
+     */
+    private Duration lockRecheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * clean/通配符 remove 时每条 UNLINK 删除的 key 数
+     */
+    private int deleteBatchSize = 500;
+
+    /**
+     * clean/通配符 remove 时 SCAN 的 COUNT 提示值
+     */
+    private long scanCount = 1000;
+
+    /**
+     * getAll/putAll 时每条 MGET 或写入脚本的最大 key 数
+     */
+    private int multiKeyBatchSize = 500;
+
+    /**
+     * 锁释放通知，默认只能收到本 JVM 的解锁信号，订阅 CACHE_UNLOCK_TOPIC 后可收到集群内的解锁信号
+     */
+    private CacheLockNotifier lockNotifier = new CacheLockNotifier();
+
+    /**
+     * 按缓存名称配置的击穿防护，未配置的缓存同步加载时按 RedisCacheWriter 默认实现先读后写
+     */
+    private Map<String, RedisCacheTtls.Stampede> stampedes = Collections.emptyMap();
+
+    /**
+     * 本 JVM 内正在加载的 key，同一 key 只有一个线程执行加载，其余线程等待其结果
+     */
+    private final ConcurrentHashMap<ByteBuffer, CompletableFuture<byte[]>> loadings = new ConcurrentHashMap<>();
+
+    /**
+     * 各 key 最近一次的加载耗时（毫秒），作为 XFetch 的 delta
+     */
+    private final Cache<ByteBuffer, Long> loadTimes = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    /**
+     * BACKGROUND 提前刷新使用的线程池，队列满时放弃本次刷新
+     */
+    private Executor refreshExecutor = defaultRefreshExecutor();
+
+    /**
+     * 命令自动流水线，为 null 时每次操作单独获取连接执行
+     */
+    @Nullable
+    private RedisCommandPipeline pipeline;
+
+    /**
+     * 命中、未命中、读写、删除次数及锁等待时间，默认实现按缓存名称使用 LongAdder 计数，高并发下不争用同一计数器
+     */
+    private final CacheStatisticsCollector statistics;
+
+    /**
+     * 操作耗时与缓存值大小的直方图
+     */
+    private CacheMetricsRecorder metricsRecorder = CacheMetricsRecorder.NONE;
 
-    // Lua 原子解锁脚本
+    /**
+     * 解锁通知通道
+     */
+    private final byte[] unlockChannel = CacheConstant.CACHE_UNLOCK_TOPIC.getBytes(StandardCharsets.UTF_8);
+
+    // Lua 原子解锁脚本，删除锁后发布解锁通知唤醒等待方
     private static final String UNLOCK_LUA =
             "if redis.call('get', KEYS[1]) == ARGV[1] then " +
-                    "   return redis.call('del', KEYS[1]); " +
+                    "   redis.call('del', KEYS[1]); " +
+                    "   redis.call('publish', ARGV[2], KEYS[1]); " +
+                    "   return 1; " +
                     "else " +
                     "   return 0; " +
                     "end";
 
+    // 单 key 读写脚本：KEYS[1] 为缓存 key，KEYS[2] 为需要检查的锁 key（可选）
+    // 锁存在时返回 {0}，由调用方等待解锁后重试；否则返回 {1, 结果...}，锁检查与读写只需一次往返
+    private static final String LOCK_CHECK_LUA =
+            "if KEYS[2] and redis.call('exists', KEYS[2]) == 1 then " +
+                    "   return {0}; " +
+                    "end; ";
+
+    private static final Long UNLOCKED = 1L;
+
+    private static final RedisScript<Object> GET_SCRIPT = RedisScript.of(LOCK_CHECK_LUA +
+            "return {1, redis.call('get', KEYS[1])}");
+
+    // ARGV[1] 为缓存值，ARGV[2] 为过期毫秒数，0 表示永不过期
+    private static final RedisScript<Object> PUT_SCRIPT = RedisScript.of(LOCK_CHECK_LUA +
+            "if ARGV[2] == '0' then " +
+            "   redis.call('set', KEYS[1], ARGV[1]); " +
+            "else " +
+            "   redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]); " +
+            "end; " +
+            "return {1}");
+
+    // 写入成功返回 {1}，已存在时返回 {1, 已有值}；脚本在服务端原子执行，不再需要加锁、写入、解锁三步
+    private static final RedisScript<Object> PUT_IF_ABSENT_SCRIPT = RedisScript.of(LOCK_CHECK_LUA +
+            "local ok; " +
+            "if ARGV[2] == '0' then " +
+            "   ok = redis.call('set', KEYS[1], ARGV[1], 'NX'); " +
+            "else " +
+            "   ok = redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2], 'NX'); " +
+            "end; " +
+            "if ok then " +
+            "   return {1}; " +
+            "end; " +
+            "return {1, redis.call('get', KEYS[1])}");
+
+    // 批量写入，KEYS 为同一批（集群模式下为同一槽位）的缓存 key，ARGV[1] 为过期毫秒数，ARGV[i + 1] 为 KEYS[i] 的值
+    private static final RedisScript<Object> PUT_ALL_SCRIPT = RedisScript.of(
+            "for i = 1, #KEYS do " +
+            "   if ARGV[1] == '0' then " +
+            "       redis.call('set', KEYS[i], ARGV[i + 1]); " +
+            "   else " +
+            "       redis.call('set', KEYS[i], ARGV[i + 1], 'PX', ARGV[1]); " +
+            "   end; " +
+            "end; " +
+            "return {#KEYS}");
+
+    private static final RedisScript<Object> DEL_SCRIPT = RedisScript.of(LOCK_CHECK_LUA +
+            "return {1, redis.call('del', KEYS[1])}");
+
+    // 一次往返读取缓存值及剩余存活时间（毫秒）
+    private static final RedisScript<Object> GET_WITH_TTL_SCRIPT = RedisScript.of(LOCK_CHECK_LUA +
+            "local value = redis.call('get', KEYS[1]); " +
+            "if not value then " +
+            "   return {1}; " +
+            "end; " +
+            "return {1, value, redis.call('pttl', KEYS[1])}");
+
     public RCacheWriter(RedisConnectionFactory connectionFactory) {
         this(connectionFactory, Duration.ZERO);
     }
 
     public RCacheWriter(RedisConnectionFactory connectionFactory, Duration defaultTtl) {
+        this(connectionFactory, defaultTtl, true);
+    }
+
+    /**
+     * @param asyncEnabled 是否启用异步读写，仅当连接工厂同时实现 ReactiveRedisConnectionFactory（如 Lettuce）时生效
+     */
+    public RCacheWriter(RedisConnectionFactory connectionFactory, Duration defaultTtl, boolean asyncEnabled) {
         Assert.notNull(connectionFactory, "connectionFactory must not be null");
         Assert.notNull(defaultTtl, "Default TTL must not be null");
         this.connectionFactory = connectionFactory;
         this.defaultTtl = defaultTtl;
+        this.reactiveConnectionFactory = asyncEnabled && connectionFactory instanceof ReactiveRedisConnectionFactory reactive
+                ? reactive : null;
+        this.statistics = CacheStatisticsCollector.create();
+    }
+
+    /**
+     * 复制 source 的全部配置，使用新的统计收集器
+     */
+    private RCacheWriter(RCacheWriter source, CacheStatisticsCollector statistics) {
+        this.connectionFactory = source.connectionFactory;
+        this.defaultTtl = source.defaultTtl;
+        this.reactiveConnectionFactory = source.reactiveConnectionFactory;
+        this.lockModes = source.lockModes;
+        this.defaultLockMode = source.defaultLockMode;
+        this.lockStripes = source.lockStripes;
+        this.maxLockWait = source.maxLockWait;
+        this.lockRecheckInterval = source.lockRecheckInterval;
+        this.deleteBatchSize = source.deleteBatchSize;
+        this.scanCount = source.scanCount;
+        this.multiKeyBatchSize = source.multiKeyBatchSize;
+        this.lockNotifier = source.lockNotifier;
+        this.stampedes = source.stampedes;
+        this.refreshExecutor = source.refreshExecutor;
+        this.metricsRecorder = source.metricsRecorder;
+        this.pipeline = source.pipeline;
+        this.statistics = statistics;
+    }
+
+    public void setLockModes(Map<String, CacheLockMode> lockModes) {
+        this.lockModes = lockModes == null ? Collections.emptyMap() : lockModes;
+    }
+
+    public void setDefaultLockMode(CacheLockMode defaultLockMode) {
+        Assert.notNull(defaultLockMode, "Default lock mode must not be null");
+        this.defaultLockMode = defaultLockMode;
+    }
+
+    public void setLockStripes(int lockStripes) {
+        Assert.isTrue(lockStripes > 0, "Lock stripes must be greater than 0");
+        this.lockStripes = lockStripes;
+    }
+
+    public void setMaxLockWait(Duration maxLockWait) {
+        Assert.notNull(maxLockWait, "Max lock wait must not be null");
+        this.maxLockWait = maxLockWait;
+    }
+
+    public void setLockRecheckInterval(Duration lockRecheckInterval) {
+        Assert.notNull(lockRecheckInterval, "Lock recheck interval must not be null");
+        this.lockRecheckInterval = lockRecheckInterval;
+    }
+
+    public void setDeleteBatchSize(int deleteBatchSize) {
+        Assert.isTrue(deleteBatchSize > 0, "Delete batch size must be greater than 0");
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    public void setScanCount(long scanCount) {
+        Assert.isTrue(scanCount > 0, "Scan count must be greater than 0");
+        this.scanCount = scanCount;
+    }
+
+    public void setMultiKeyBatchSize(int multiKeyBatchSize) {
+        Assert.isTrue(multiKeyBatchSize > 0, "Multi key batch size must be greater than 0");
+        this.multiKeyBatchSize = multiKeyBatchSize;
+    }
+
+    public void setLockNotifier(CacheLockNotifier lockNotifier) {
+        Assert.notNull(lockNotifier, "Lock notifier must not be null");
+        this.lockNotifier = lockNotifier;
+    }
+
+    public void setMetricsRecorder(CacheMetricsRecorder metricsRecorder) {
+        Assert.notNull(metricsRecorder, "Metrics recorder must not be null");
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    public void setPipeline(@Nullable RedisCommandPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public void setStampedes(Map<String, RedisCacheTtls.Stampede> stampedes) {
+        this.stampedes = stampedes == null ? Collections.emptyMap() : stampedes;
+    }
+
+    public void setRefreshExecutor(Executor refreshExecutor) {
+        Assert.notNull(refreshExecutor, "Refresh executor must not be null");
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    private static Executor defaultRefreshExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(1, 4, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(256), threadFactory);
     }
 
     /**
@@ -66,69 +344,414 @@ public class RCacheWriter implements RedisCacheWriter {
         Assert.notNull(key, "Cache key must not be null!");
         Assert.notNull(value, "Cache value must not be null!");
 
-        this.execute(name, connection -> {
-            // 判断ttl（Time-To-Live，存活时间）是否有效（通常规则：ttl > 0或ttl != Duration.ZERO
-            // 若有ttl, 对于key: value, 没有则新增，有则覆盖
-            if (shouldExpireWithin(ttl)) {
-                // Expiration.from: 将Duration类型的 TTL 转换为 Redis 支持的过期时间（毫秒级）
-                // upsert = update or insert,没有则新增，有则覆盖
-                connection.set(key, value, Expiration.from(ttl.toMillis(), TimeUnit.MILLISECONDS), RedisStringCommands.SetOption.upsert());
-            } else {
-                // 若无ttl, 对于key: value, 永不过期
-                connection.set(key, value);
-            }
-            return "OK";
-        });
+        long start = System.nanoTime();
+        // 有ttl时 SET PX，没有则新增，有则覆盖；无ttl时永不过期
+        this.evalWriteScript(name, PUT_SCRIPT, key, value, ttlArg(ttl));
+        this.statistics.incPuts(name);
+        this.metricsRecorder.recordPayload(name, CacheOperation.PUT, value.length);
+        this.recordLatency(name, CacheOperation.PUT, start);
     }
 
     @Override
     public byte[] get(String name, byte[] key) {
         Assert.notNull(name, "Name must not be null!");
         Assert.notNull(key, "Key must not be null!");
-        return (byte[]) this.execute(name, (connection) -> {
-            return connection.get(key);
-        });
+        long start = System.nanoTime();
+        byte[] value = this.doGet(name, key);
+        this.recordGet(name, CacheOperation.GET, value, start);
+        return value;
+    }
+
+    /**
+     * 批量读取：按 multiKeyBatchSize 分批 MGET，集群模式下先按槽位分组，避免 CROSSSLOT
+     * 锁检查对整批只做一次（涉及的锁 key 一条 EXISTS）
+     * @param name
+     * @param keys
+     * @return 与 keys 顺序一致，未命中的位置为 null
+     */
+    public List<byte[]> getAll(String name, List<byte[]> keys) {
+        Assert.notNull(name, "Name must not be null!");
+        Assert.notNull(keys, "Keys must not be null!");
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        this.waitForBatchLocks(name, keys);
+        byte[][] values = new byte[keys.size()][];
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            for (List<Integer> batch : this.partition(keys, connection)) {
+                byte[][] batchKeys = new byte[batch.size()][];
+                for (int i = 0; i < batchKeys.length; i++) {
+                    batchKeys[i] = keys.get(batch.get(i));
+                }
+                List<byte[]> batchValues = connection.stringCommands().mGet(batchKeys);
+                for (int i = 0; batchValues != null && i < batchValues.size(); i++) {
+                    values[batch.get(i)] = batchValues.get(i);
+                }
+            }
+        }
+        for (byte[] value : values) {
+            this.statistics.incGets(name);
+            if (value != null) {
+                this.statistics.incHits(name);
+                this.metricsRecorder.recordPayload(name, CacheOperation.GET_ALL, value.length);
+            } else {
+                this.statistics.incMisses(name);
+            }
+        }
+        this.recordLatency(name, CacheOperation.GET_ALL, start);
+        return Arrays.asList(values);
+    }
+
+    /**
+     * 批量写入：按 multiKeyBatchSize 分批（集群模式下按槽位分组）执行写入脚本，每批一次往返，同一批使用相同的过期时间
+     * @param name
+     * @param entries key 为缓存 key，按遍历顺序写入
+     * @param ttl
+     */
+    public void putAll(String name, Map<byte[], byte[]> entries, @Nullable Duration ttl) {
+        Assert.notNull(name, "Name must not be null!");
+        Assert.notNull(entries, "Entries must not be null!");
+        if (entries.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<byte[]> keys = new ArrayList<>(entries.keySet());
+        List<byte[]> values = new ArrayList<>(entries.values());
+        this.waitForBatchLocks(name, keys);
+        byte[] ttlArg = ttlArg(ttl);
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            for (List<Integer> batch : this.partition(keys, connection)) {
+                byte[][] keysAndArgs = new byte[batch.size() * 2 + 1][];
+                keysAndArgs[batch.size()] = ttlArg;
+                for (int i = 0; i < batch.size(); i++) {
+                    byte[] value = values.get(batch.get(i));
+                    Assert.notNull(value, "Cache value must not be null!");
+                    keysAndArgs[i] = keys.get(batch.get(i));
+                    keysAndArgs[batch.size() + 1 + i] = value;
+                    this.statistics.incPuts(name);
+                    this.metricsRecorder.recordPayload(name, CacheOperation.PUT_ALL, value.length);
+                }
+                RedisCommandPipeline.evalSha(connection, PUT_ALL_SCRIPT, batch.size(), keysAndArgs);
+            }
+        }
+        this.recordLatency(name, CacheOperation.PUT_ALL, start);
+    }
+
+    /**
+     * 批量操作前的锁检查：涉及的锁 key（CACHE 模式一个，KEY 模式为各 key 所在分段）去重后一条 EXISTS，存在时逐个等待解锁
+     * @param name
+     * @param keys
+     */
+    private void waitForBatchLocks(String name, List<byte[]> keys) {
+        Map<ByteBuffer, byte[]> lockKeys = new LinkedHashMap<>();
+        for (byte[] key : keys) {
+            byte[] lockKey = this.lockKey(name, key);
+            if (lockKey == null) {
+                return;
+            }
+            lockKeys.putIfAbsent(ByteBuffer.wrap(lockKey), lockKey);
+        }
+        if (lockKeys.isEmpty()) {
+            return;
+        }
+        Long locked;
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            locked = connection.keyCommands().exists(lockKeys.values().toArray(new byte[0][]));
+        }
+        if (locked == null || locked == 0) {
+            return;
+        }
+        for (byte[] lockKey : lockKeys.values()) {
+            if (this.isLocked(lockKey)) {
+                this.waitUntilUnlocked(name, lockKey);
+            }
+        }
+    }
+
+    /**
+     * 将 key 的下标分批：单机按 multiKeyBatchSize 切分，集群先按槽位分组再切分，每批内的 key 可以在一条命令中执行
+     * @param keys
+     * @param connection
+     * @return
+     */
+    private List<List<Integer>> partition(List<byte[]> keys, RedisConnection connection) {
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        boolean cluster = connection instanceof RedisClusterConnection;
+        for (int i = 0; i < keys.size(); i++) {
+            int group = cluster ? ClusterSlotHashUtil.calculateSlot(keys.get(i)) : 0;
+            groups.computeIfAbsent(group, g -> new ArrayList<>()).add(i);
+        }
+        List<List<Integer>> batches = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += this.multiKeyBatchSize) {
+                batches.add(group.subList(from, Math.min(from + this.multiKeyBatchSize, group.size())));
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * 不计入统计的读取，用于加载过程中的复查
+     */
+    @Nullable
+    private byte[] doGet(String name, byte[] key) {
+        List<Object> result = this.evalCacheScript(name, GET_SCRIPT, key, this.lockKey(name, key));
+        return result.isEmpty() ? null : (byte[]) result.get(0);
+    }
+
+    /**
+     * 记录一次读取：读取次数、命中/未命中、命中时的值大小与耗时
+     */
+    private void recordGet(String name, CacheOperation operation, @Nullable byte[] value, long start) {
+        this.statistics.incGets(name);
+        if (value != null) {
+            this.statistics.incHits(name);
+            this.metricsRecorder.recordPayload(name, operation, value.length);
+        } else {
+            this.statistics.incMisses(name);
+        }
+        this.recordLatency(name, operation, start);
+    }
+
+    private void recordLatency(String name, CacheOperation operation, long start) {
+        this.metricsRecorder.recordLatency(name, operation, System.nanoTime() - start);
     }
 
     /**
-     * 不存在则写入
+     * 同步加载（@Cacheable(sync = true)）：配置了击穿防护的缓存
+     * 1. 未命中时本 JVM 内同一 key 只有一个线程加载，集群内只有拿到租约的节点加载，其余等待租约释放后读取结果
+     * 2. 命中时按 XFetch 概率提前刷新，避免热点 key 到期瞬间大量请求同时未命中
      * @param name
      * @param key
-     * @param value
+     * @param valueLoader 加载并序列化缓存值
      * @param ttl
+     * @param timeToIdleEnabled
      * @return
      */
     @Override
-    public byte[] putIfAbsent(String name, byte[] key, byte[] value, @Nullable Duration ttl) {
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, @Nullable Duration ttl, boolean timeToIdleEnabled) {
+        RedisCacheTtls.Stampede stampede = this.stampedes.get(name);
+        if (stampede == null) {
+            return RedisCacheWriter.super.get(name, key, valueLoader, ttl, timeToIdleEnabled);
+        }
         Assert.notNull(name, "Name must not be null!");
         Assert.notNull(key, "Key must not be null!");
-        Assert.notNull(value, "Value must not be null!");
-        return (byte[]) this.execute(name, (connection) -> {
-            if (this.isLockingCacheWriter()) {
-                this.doLock(name, connection);
-            }
+        // time-to-idle 每次读取都会续期，剩余存活时间不能反映数据新旧，不做提前刷新
+        if (timeToIdleEnabled || stampede.getEarlyRefresh() == EarlyRefresh.NONE) {
+            byte[] value = timeToIdleEnabled ? this.get(name, key, ttl) : this.get(name, key);
+            return value != null ? value : this.loadSingleFlight(name, key, valueLoader, ttl, stampede);
+        }
+        long start = System.nanoTime();
+        List<Object> cached = this.evalCacheScript(name, GET_WITH_TTL_SCRIPT, key, this.lockKey(name, key));
+        byte[] value = cached.size() < 2 ? null : (byte[]) cached.get(0);
+        this.recordGet(name, CacheOperation.GET, value, start);
+        if (value == null) {
+            return this.loadSingleFlight(name, key, valueLoader, ttl, stampede);
+        }
+        long remainingMillis = (Long) cached.get(1);
+        if (!this.shouldRefreshEarly(key, remainingMillis, stampede)) {
+            return value;
+        }
+        return this.refreshEarly(name, key, value, valueLoader, ttl, stampede);
+    }
+
+    /**
+     * XFetch：-delta * beta * ln(rand) >= 剩余存活时间时提前刷新，delta 为该 key 的加载耗时
+     * @param key
+     * @param remainingMillis PTTL 的结果，-1 表示永不过期
+     * @param stampede
+     * @return
+     */
+    private boolean shouldRefreshEarly(byte[] key, long remainingMillis, RedisCacheTtls.Stampede stampede) {
+        if (remainingMillis < 0) {
+            return false;
+        }
+        Long loadTime = this.loadTimes.getIfPresent(ByteBuffer.wrap(key));
+        long delta = loadTime != null ? loadTime : stampede.getLoadTimeHint().toMillis();
+        // 取值范围 (0, 1]，避免 ln(0)
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return -delta * stampede.getBeta() * Math.log(random) >= remainingMillis;
+    }
+
+    /**
+     * 提前刷新，只有拿到租约的请求执行，其余请求继续使用当前值
+     * @param value 当前缓存值
+     * @return XFETCH 返回新值，BACKGROUND 返回当前值
+     */
+    private byte[] refreshEarly(String name, byte[] key, byte[] value, Supplier<byte[]> valueLoader, @Nullable Duration ttl, RedisCacheTtls.Stampede stampede) {
+        byte[] leaseKey = createLeaseKey(key);
+        String leaseValue = this.tryLease(leaseKey, stampede.getLeaseTime());
+        if (leaseValue == null) {
+            return value;
+        }
+        if (stampede.getEarlyRefresh() == EarlyRefresh.XFETCH) {
             try {
-                boolean put;
-                if (shouldExpireWithin(ttl)) {
-                    // 带TTL的原子写入：SET key value PX ttl NX
-                    put = connection.set(key, value, Expiration.from(ttl.toMillis(), TimeUnit.MILLISECONDS), RedisStringCommands.SetOption.ifAbsent());
-                } else {
-                    // 无TTL的原子写入：SETNX key value
-                    put = connection.setNX(key, value);
+                return this.loadAndPut(name, key, valueLoader, ttl);
+            } finally {
+                this.releaseLease(leaseKey, leaseValue);
+            }
+        }
+        // 后台线程中没有请求线程的事务、安全等上下文，加载逻辑不应依赖它们
+        try {
+            this.refreshExecutor.execute(() -> {
+                try {
+                    this.loadAndPut(name, key, valueLoader, ttl);
+                } catch (RuntimeException e) {
+                    log.warn("cache background refresh failed, cache:{}, key:{}", name, new String(key, StandardCharsets.UTF_8), e);
+                } finally {
+                    this.releaseLease(leaseKey, leaseValue);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            this.releaseLease(leaseKey, leaseValue);
+        }
+        return value;
+    }
 
-                if (!put) {
-                    byte[] val1 = connection.get(key);
-                    return val1;
+    /**
+     * 本 JVM 内单飞加载：同一 key 的并发请求共用第一个请求的加载结果（包括异常）
+     */
+    private byte[] loadSingleFlight(String name, byte[] key, Supplier<byte[]> valueLoader, @Nullable Duration ttl, RedisCacheTtls.Stampede stampede) {
+        ByteBuffer loadingKey = ByteBuffer.wrap(key);
+        CompletableFuture<byte[]> loading = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = this.loadings.putIfAbsent(loadingKey, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
                 }
+                throw e;
+            }
+        }
+        try {
+            byte[] value = this.loadWithLease(name, key, valueLoader, ttl, stampede);
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loadings.remove(loadingKey, loading);
+        }
+    }
 
-                return null;
-            } finally {
-                if (this.isLockingCacheWriter()) {
-                    this.doUnlock(name, connection);
+    /**
+     * 集群内只有拿到租约的节点加载，其余节点等待租约释放（解锁通知或 lockRecheckInterval 复查）后读取结果；
+     * 等待超过 maxLockWait 时（如持有方加载过慢）不再等待，自行加载
+     */
+    private byte[] loadWithLease(String name, byte[] key, Supplier<byte[]> valueLoader, @Nullable Duration ttl, RedisCacheTtls.Stampede stampede) {
+        byte[] leaseKey = createLeaseKey(key);
+        long deadline = System.nanoTime() + this.maxLockWait.toNanos();
+        try {
+            while (true) {
+                // 先登记再抢租约，避免抢租约失败之后、等待之前的释放通知丢失
+                CompletableFuture<Void> released = this.lockNotifier.register(leaseKey);
+                String leaseValue = this.tryLease(leaseKey, stampede.getLeaseTime());
+                if (leaseValue != null) {
+                    try {
+                        // 其他节点可能在本节点抢到租约前刚完成加载
+                        byte[] value = this.doGet(name, key);
+                        return value != null ? value : this.loadAndPut(name, key, valueLoader, ttl);
+                    } finally {
+                        this.releaseLease(leaseKey, leaseValue);
+                    }
+                }
+                byte[] value = this.doGet(name, key);
+                if (value != null) {
+                    return value;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn("cache load lease wait timeout, cache:{}, key:{}", name, new String(key, StandardCharsets.UTF_8));
+                    return this.loadAndPut(name, key, valueLoader, ttl);
+                }
+                try {
+                    released.get(Math.min(remaining, this.lockRecheckInterval.toNanos()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // 兜底复查
                 }
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PessimisticLockingFailureException(String.format("Interrupted while waiting to load cache %s", name), e);
+        } catch (ExecutionException e) {
+            throw new PessimisticLockingFailureException(String.format("Failed while waiting to load cache %s", name), e);
+        }
+    }
+
+    /**
+     * 加载、记录加载耗时并写入缓存
+     */
+    private byte[] loadAndPut(String name, byte[] key, Supplier<byte[]> valueLoader, @Nullable Duration ttl) {
+        long start = System.nanoTime();
+        byte[] value = valueLoader.get();
+        long loadTime = System.nanoTime() - start;
+        this.loadTimes.put(ByteBuffer.wrap(key), TimeUnit.NANOSECONDS.toMillis(loadTime));
+        this.metricsRecorder.recordLatency(name, CacheOperation.LOAD, loadTime);
+        this.put(name, key, value, ttl);
+        return value;
+    }
+
+    /**
+     * 抢占加载租约
+     * @return 租约持有者标识，未抢到时为 null
+     */
+    @Nullable
+    private String tryLease(byte[] leaseKey, Duration leaseTime) {
+        String leaseValue = Thread.currentThread().threadId() + ":" + UUID.randomUUID();
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            Boolean acquired = connection.stringCommands().set(leaseKey, leaseValue.getBytes(StandardCharsets.UTF_8),
+                    Expiration.from(leaseTime.toMillis(), TimeUnit.MILLISECONDS), RedisStringCommands.SetOption.SET_IF_ABSENT);
+            return Boolean.TRUE.equals(acquired) ? leaseValue : null;
+        }
+    }
+
+    /**
+     * 释放租约，与解锁共用脚本，等待方通过解锁通知唤醒
+     */
+    private void releaseLease(byte[] leaseKey, String leaseValue) {
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            this.doUnlock(leaseKey, leaseValue, connection);
+        }
+    }
+
+    /**
+     * 加载租约 key（格式为{key}~lease），与缓存 key 同前缀，clean 时一并清理
+     * @param key
+     * @return
+     */
+    private static byte[] createLeaseKey(byte[] key) {
+        byte[] suffix = "~lease".getBytes(StandardCharsets.UTF_8);
+        byte[] leaseKey = Arrays.copyOf(key, key.length + suffix.length);
+        System.arraycopy(suffix, 0, leaseKey, key.length, suffix.length);
+        return leaseKey;
+    }
+
+    /**
+     * 不存在则写入，锁检查、SET NX 与读取已有值在一个脚本中完成
+     * @param name
+     * @param key
+     * @param value
+     * @param ttl
+     * @return 已存在时返回已有值，写入成功返回 null
+     */
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, @Nullable Duration ttl) {
+        Assert.notNull(name, "Name must not be null!");
+        Assert.notNull(key, "Key must not be null!");
+        Assert.notNull(value, "Value must not be null!");
+        long start = System.nanoTime();
+        List<Object> result = this.evalWriteScript(name, PUT_IF_ABSENT_SCRIPT, key, value, ttlArg(ttl));
+        byte[] existing = result.isEmpty() ? null : (byte[]) result.get(0);
+        if (existing == null) {
+            this.statistics.incPuts(name);
+            this.metricsRecorder.recordPayload(name, CacheOperation.PUT_IF_ABSENT, value.length);
+        }
+        this.recordLatency(name, CacheOperation.PUT_IF_ABSENT, start);
+        return existing;
     }
 
 
@@ -140,26 +763,48 @@ public class RCacheWriter implements RedisCacheWriter {
         log.info("redis remove key:" + keyString);
         String keyIsAll = "*";
 
+        long start = System.nanoTime();
         if (keyString != null && keyString.endsWith(keyIsAll)) {
-            execute(name, connection -> {
-                ScanOptions options = ScanOptions.scanOptions().match(key).count(100000).build();
-                Set<byte[]> keys = new HashSet<>();
-                try (Cursor<byte[]> cursor = connection.scan(options)) {
-                    while (cursor.hasNext()) {
-                        keys.add(cursor.next());
-                    }
-                }
-                int delNum = 0;
-                for (byte[] keyByte : keys) {
-                    delNum += connection.del(keyByte);
-                }
-                return delNum;
+            long delNum = execute(name, this.cacheLockKey(name), connection -> {
+                return this.unlinkMatching(name, key, connection);
             });
+            log.info("redis remove pattern:{}, deleted:{}", keyString, delNum);
         } else {
-            this.execute(name, (connection) -> {
-                return connection.del(new byte[][]{key});
-            });
+            List<Object> result = this.evalWriteScript(name, DEL_SCRIPT, key);
+            Long deleted = result.isEmpty() ? null : (Long) result.get(0);
+            this.statistics.incDeletesBy(name, deleted == null ? 0 : deleted.intValue());
+        }
+        this.recordLatency(name, CacheOperation.REMOVE, start);
+    }
+
+    /**
+     * 批量删除指定的 key，每 deleteBatchSize 个 key 一条 UNLINK，与 clean 一样等待缓存级的锁
+     * @param name
+     * @param keys
+     */
+    public void removeAll(String name, Collection<byte[]> keys) {
+        Assert.notNull(name, "Name must not be null!");
+        Assert.notNull(keys, "Keys must not be null!");
+        if (keys.isEmpty()) {
+            return;
         }
+        long start = System.nanoTime();
+        long deleted = this.execute(name, this.cacheLockKey(name), connection -> {
+            List<byte[]> batch = new ArrayList<>(Math.min(keys.size(), this.deleteBatchSize));
+            long count = 0;
+            for (byte[] key : keys) {
+                batch.add(key);
+                if (batch.size() >= this.deleteBatchSize) {
+                    count += this.unlinkBatch(name, batch, connection);
+                }
+            }
+            if (!batch.isEmpty()) {
+                count += this.unlinkBatch(name, batch, connection);
+            }
+            return count;
+        });
+        log.debug("redis remove cache:{}, keys:{}, deleted:{}", name, keys.size(), deleted);
+        this.recordLatency(name, CacheOperation.REMOVE, start);
     }
 
     /**
@@ -171,82 +816,213 @@ public class RCacheWriter implements RedisCacheWriter {
     public void clean(String name, byte[] pattern) {
         Assert.notNull(name, "Name must not be null!");
         Assert.notNull(pattern, "Pattern must not be null!");
-        this.execute(name, (connection) -> {
-            boolean wasLocked = false;
+        // KEY、NONE 模式下 clean 不加锁，避免一次清理阻塞整个缓存的读写
+        byte[] lockKey = this.cacheLockKey(name);
+        long start = System.nanoTime();
+        this.execute(name, lockKey, (connection) -> {
+            String lockValue = null;
 
             try {
-                if (this.isLockingCacheWriter()) {
-                    this.doLock(name, connection);
-                    wasLocked = true;
-                }
-                // 如果不设置count数，默认会返回10个
-                // SCAN是渐进式迭代命令，分批返回匹配的键（非阻塞），适合大数据量场景
-                ScanOptions options = ScanOptions.scanOptions().match(pattern).count(100000).build();
-                Set<byte[]> keys = new HashSet<>();
-                try (Cursor<byte[]> cursor = connection.scan(options)) {
-                    while (cursor.hasNext()) {
-                        keys.add(cursor.next());
-                    }
-                }
-//                for (byte[] keyByte : keys) {
-//                    connection.del(keyByte);
-//                }
-                if (!keys.isEmpty()) {
-                    connection.del(keys.toArray(new byte[0][])); // 批量删除，性能提升
-                }
-                if (keys.isEmpty()) {
-                    return "OK";
+                if (lockKey != null) {
+                    lockValue = this.doLock(name, lockKey, connection);
                 }
+                long delNum = this.unlinkMatching(name, pattern, connection);
+                log.debug("redis clean cache:{}, deleted:{}", name, delNum);
             } finally {
-                if (wasLocked && this.isLockingCacheWriter()) {
-                    this.doUnlock(name, connection);
+                if (lockValue != null) {
+                    this.doUnlock(lockKey, lockValue, connection);
                 }
             }
 
             return "OK";
         });
+        this.recordLatency(name, CacheOperation.CLEAN, start);
+    }
+
+    /**
+     * 边扫描边删除：SCAN 每累计 deleteBatchSize 个 key 就发一条 UNLINK，内存中最多只保留一个批次，
+     * UNLINK 在 Redis 后台线程回收内存，不阻塞服务端；每批删除数计入缓存统计作为进度
+     * @param name
+     * @param pattern
+     * @param connection
+     * @return 实际删除的 key 数量
+     */
+    private long unlinkMatching(String name, byte[] pattern, RedisConnection connection) {
+        // 如果不设置count数，默认会返回10个
+        // SCAN是渐进式迭代命令，分批返回匹配的键（非阻塞），适合大数据量场景
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(this.scanCount).build();
+        List<byte[]> batch = new ArrayList<>(this.deleteBatchSize);
+        long deleted = 0;
+        try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= this.deleteBatchSize) {
+                    deleted += this.unlinkBatch(name, batch, connection);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += this.unlinkBatch(name, batch, connection);
+        }
+        return deleted;
+    }
+
+    private long unlinkBatch(String name, List<byte[]> batch, RedisConnection connection) {
+        Long unlinked = connection.keyCommands().unlink(batch.toArray(new byte[0][]));
+        batch.clear();
+        long deleted = unlinked == null ? 0 : unlinked;
+        this.statistics.incDeletesBy(name, (int) deleted);
+        return deleted;
     }
 
     private static boolean shouldExpireWithin(@Nullable Duration ttl) {
         return ttl != null && !ttl.isZero() && !ttl.isNegative();
     }
 
+    /**
+     * 脚本中的过期时间参数，毫秒，0 表示永不过期
+     */
+    private static byte[] ttlArg(@Nullable Duration ttl) {
+        return String.valueOf(shouldExpireWithin(ttl) ? ttl.toMillis() : 0L).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 执行单 key 读写脚本：锁检查与读写在服务端一次完成，锁存在时等待解锁后重试
+     * 开启流水线时与其他线程的命令合并发送，否则单独获取连接执行
+     * @param name
+     * @param script
+     * @param key 缓存 key
+     * @param lockKey 需要检查的锁 key，为 null 时不检查
+     * @param args
+     * @return 去掉锁状态标记后的脚本返回值
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> evalCacheScript(String name, RedisScript<?> script, byte[] key, @Nullable byte[] lockKey, byte[]... args) {
+        int numKeys = lockKey != null ? 2 : 1;
+        byte[][] keysAndArgs = new byte[numKeys + args.length][];
+        keysAndArgs[0] = key;
+        if (lockKey != null) {
+            keysAndArgs[1] = lockKey;
+        }
+        System.arraycopy(args, 0, keysAndArgs, numKeys, args.length);
+        while (true) {
+            List<Object> result;
+            if (this.pipeline != null) {
+                result = (List<Object>) this.pipeline.eval(script, numKeys, keysAndArgs);
+            } else {
+                try (RedisConnection connection = this.connectionFactory.getConnection()) {
+                    result = (List<Object>) RedisCommandPipeline.evalSha(connection, script, numKeys, keysAndArgs);
+                }
+            }
+            if (result == null || result.isEmpty()) {
+                return Collections.emptyList();
+            }
+            if (lockKey == null || UNLOCKED.equals(result.get(0))) {
+                return result.subList(1, result.size());
+            }
+            this.waitUntilUnlocked(name, lockKey);
+        }
+    }
+
+    /**
+     * 单 key 写入（put、putIfAbsent、remove）：KEY 模式下持有 key 所在分段的锁执行写入脚本，
+     * 同一分段的读写等待解锁，其他分段与 clean 不受影响；其余模式与读取相同，脚本内检查锁
+     * @param name
+     * @param script
+     * @param key
+     * @param args
+     * @return 去掉锁状态标记后的脚本返回值
+     */
+    private List<Object> evalWriteScript(String name, RedisScript<?> script, byte[] key, byte[]... args) {
+        if (this.lockMode(name) != CacheLockMode.KEY) {
+            return this.evalCacheScript(name, script, key, this.lockKey(name, key), args);
+        }
+        byte[] lockKey = this.createKeyLockKey(name, key);
+        String lockValue;
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            lockValue = this.doLock(name, lockKey, connection);
+        }
+        try {
+            return this.evalCacheScript(name, script, key, null, args);
+        } finally {
+            try (RedisConnection connection = this.connectionFactory.getConnection()) {
+                this.doUnlock(lockKey, lockValue, connection);
+            }
+        }
+    }
+
     /**
      * 模板方法模式封装了 Redis 连接的获取、锁检查、回调执行和连接关闭等通用逻辑
      * @param name 缓存名称（用于分布式锁的 key 生成）
+     * @param lockKey 需要检查的锁 key，为 null 时（非加锁模式）不做任何锁检查
      * @param callback 函数式接口，接收 RedisConnection（Redis 连接），返回泛型结果，用于封装具体的 Redis 操作逻辑
      * @return
      * @param <T>
      */
-    private <T> T execute(String name, Function<RedisConnection, T> callback) {
+    private <T> T execute(String name, @Nullable byte[] lockKey, Function<RedisConnection, T> callback) {
         RedisConnection connection = this.connectionFactory.getConnection();
         try {
-            this.checkAndPotentiallyWaitUntilUnlocked(name, connection);
+            if (lockKey != null && this.doCheckLock(lockKey, connection)) {
+                // 等待期间先归还连接，避免等待线程占满连接池
+                connection.close();
+                connection = null;
+                this.waitUntilUnlocked(name, lockKey);
+                connection = this.connectionFactory.getConnection();
+            }
             return callback.apply(connection);
         } finally {
-            connection.close();
+            if (connection != null) {
+                connection.close();
+            }
         }
     }
 
     /**
-     * 分布式锁的 “自旋等待”,让当前线程循环等待
+     * 等待锁释放：由解锁通知唤醒，不再 sleep 轮询；未收到通知时按 lockRecheckInterval 复查，最长等待 maxLockWait
+     * 等待耗时计入缓存统计的 lockWaitDuration
      * @param name
-     * @param connection
+     * @param lockKey
      */
-    private void checkAndPotentiallyWaitUntilUnlocked(String name, RedisConnection connection) {
-        if (this.isLockingCacheWriter()) {
-            try {
-                // 循环调用doCheckLock检测锁 key 是否存在（即其他线程是否持有锁），若存在则进入循环体
-                while(this.doCheckLock(name, connection)) {
-                    // 当前线程休眠defaultTtl对应的毫秒数，避免高频循环检测锁
-                    Thread.sleep(this.defaultTtl.toMillis());
+    private void waitUntilUnlocked(String name, byte[] lockKey) {
+        long start = System.nanoTime();
+        long deadline = start + this.maxLockWait.toNanos();
+        try {
+            while (true) {
+                // 先登记再检查，避免检查之后、等待之前的解锁通知丢失
+                CompletableFuture<Void> unlocked = this.lockNotifier.register(lockKey);
+                if (!this.isLocked(lockKey)) {
+                    return;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new PessimisticLockingFailureException(String.format("Timed out waiting to unlock cache %s", name));
+                }
+                try {
+                    unlocked.get(Math.min(remaining, this.lockRecheckInterval.toNanos()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // 兜底复查
                 }
-            } catch ( InterruptedException var4) {
-                // 恢复线程的中断状态（因为Thread.sleep()会清除中断标记），确保上层代码能感知到中断事件
-                Thread.currentThread().interrupt();
-                // 将中断异常包装为 Spring 数据访问层的标准并发异常
-                throw new PessimisticLockingFailureException(String.format("Interrupted while waiting to unlock cache %s", name), var4);
             }
+        } catch (InterruptedException var4) {
+            // 恢复线程的中断状态，确保上层代码能感知到中断事件
+            Thread.currentThread().interrupt();
+            // 将中断异常包装为 Spring 数据访问层的标准并发异常
+            throw new PessimisticLockingFailureException(String.format("Interrupted while waiting to unlock cache %s", name), var4);
+        } catch (ExecutionException e) {
+            throw new PessimisticLockingFailureException(String.format("Failed while waiting to unlock cache %s", name), e);
+        } finally {
+            this.statistics.incLockTime(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 使用独立的短连接检查锁，等待期间不占用连接
+     * @param lockKey
+     * @return
+     */
+    private boolean isLocked(byte[] lockKey) {
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            return this.doCheckLock(lockKey, connection);
         }
     }
 
@@ -261,73 +1037,110 @@ public class RCacheWriter implements RedisCacheWriter {
     }
 
     /**
-     * 检查指定缓存名称（name）对应的分布式锁是否存在
+     * 指定缓存的加锁粒度，写入器未启用锁时一律为 NONE
      * @param name
-     * @param connection
      * @return
      */
-    private boolean doCheckLock(String name, RedisConnection connection) {
-        byte[] lockKey = createCacheLockKey(name);
-        return connection.exists(lockKey);
+    private CacheLockMode lockMode(String name) {
+        if (!this.isLockingCacheWriter()) {
+            return CacheLockMode.NONE;
+        }
+        return this.lockModes.getOrDefault(name, this.defaultLockMode);
     }
 
     /**
-     * 锁 key（通常格式为{name}~lock，如缓存名userCache对应锁 keyuserCache~lock）
+     * 单个 key 读写时需要检查的锁：CACHE 模式为缓存锁，KEY 模式为 key 所在分段的锁，NONE 模式为 null
      * @param name
+     * @param key
      * @return
      */
-    private static byte[] createCacheLockKey(String name) {
-        return (name + "~lock").getBytes(StandardCharsets.UTF_8);
+    @Nullable
+    private byte[] lockKey(String name, byte[] key) {
+        return switch (this.lockMode(name)) {
+            case CACHE -> createCacheLockKey(name);
+            case KEY -> this.createKeyLockKey(name, key);
+            case NONE -> null;
+        };
     }
 
     /**
-     *
-     * @param name  锁的业务标识
+     * 整个缓存范围操作（clean、通配符 remove、removeAll）需要的锁，仅 CACHE 模式加锁
+     * @param name
+     * @return
+     */
+    @Nullable
+    private byte[] cacheLockKey(String name) {
+        return this.lockMode(name) == CacheLockMode.CACHE ? createCacheLockKey(name) : null;
+    }
+
+    /**
+     * 检查锁 key 是否存在
+     * @param lockKey
      * @param connection
      * @return
      */
-    private boolean doLock(String name, RedisConnection connection) {
-        String lockValue = Thread.currentThread().getId() + ":" + UUID.randomUUID();
+    private boolean doCheckLock(byte[] lockKey, RedisConnection connection) {
+        return Boolean.TRUE.equals(connection.keyCommands().exists(lockKey));
+    }
 
-        currentLockValue.set(lockValue);
-        // createCacheLockKey("order:123") → lock:order:123, 生成 Redis 中锁的实际 Key
-        // new byte[0], Value 无实际业务意义，仅需占位,生产环境中建议用客户端唯一标识（如 UUID + 线程 ID）作为 Value
-        // Expiration.seconds(180L):对应 Redis SET 命令的 EX 选项
-        // RedisStringCommands.SetOption.SET_IF_ABSENT: 只有当 Key不存在时，才执行 SET 操作
-//        return connection.set(createCacheLockKey(name), new byte[0], Expiration.seconds(180L), RedisStringCommands.SetOption.SET_IF_ABSENT)
-        return connection.set(createCacheLockKey(name), lockValue.getBytes(StandardCharsets.UTF_8), Expiration.seconds(180L), RedisStringCommands.SetOption.SET_IF_ABSENT);
+    /**
+     * 锁 key（通常格式为{name}~lock，如缓存名userCache对应锁 keyuserCache~lock）
+     * @param name
+     * @return
+     */
+    private static byte[] createCacheLockKey(String name) {
+        return (name + "~lock").getBytes(StandardCharsets.UTF_8);
     }
 
     /**
-     * 生成对应的锁 key 并执行 Redis 的DEL命令删除锁，返回删除成功的 key 数量，完成分布式锁的释放
+     * 分段锁 key（格式为{name}~lock:{stripe}），stripe 由缓存 key 的哈希值决定
      * @param name
-     * @param connection
+     * @param key
      * @return
      */
-    private Long doUnlock(String name, RedisConnection connection) {
-        byte[] lockKey = createCacheLockKey(name);
-        String lockValue = currentLockValue.get();
+    private byte[] createKeyLockKey(String name, byte[] key) {
+        int stripe = (Arrays.hashCode(key) & Integer.MAX_VALUE) % this.lockStripes;
+        return (name + "~lock:" + stripe).getBytes(StandardCharsets.UTF_8);
+    }
 
-        try {
-            if (lockValue == null) {
-                return 0L;
-            }
-            return (Long) connection.eval(
-                UNLOCK_LUA.getBytes(StandardCharsets.UTF_8),
-                ReturnType.INTEGER,
-                1,
-                lockKey,
-                lockValue.getBytes(StandardCharsets.UTF_8)
-            );
-        } finally {
-            currentLockValue.remove();
+    /**
+     * 加锁，锁被占用时等待解锁通知后重试
+     * @param name  锁的业务标识
+     * @param lockKey
+     * @param connection
+     * @return 锁的持有者标识，解锁时用于校验
+     */
+    private String doLock(String name, byte[] lockKey, RedisConnection connection) {
+        String lockValue = Thread.currentThread().threadId() + ":" + UUID.randomUUID();
+        byte[] lockValueBytes = lockValue.getBytes(StandardCharsets.UTF_8);
+        // Expiration.seconds(180L):对应 Redis SET 命令的 EX 选项
+        // RedisStringCommands.SetOption.SET_IF_ABSENT: 只有当 Key不存在时，才执行 SET 操作
+        while (!Boolean.TRUE.equals(connection.stringCommands().set(lockKey, lockValueBytes, Expiration.seconds(180L), RedisStringCommands.SetOption.SET_IF_ABSENT))) {
+            this.waitUntilUnlocked(name, lockKey);
         }
+        return lockValue;
     }
 
     /**
-     * 统计收集器初始化
+     * 校验持有者后删除锁并发布解锁通知，返回删除成功的 key 数量
+     * @param lockKey
+     * @param lockValue
+     * @param connection
+     * @return
      */
-    private final CacheStatisticsCollector statistics = CacheStatisticsCollector.create();
+    private Long doUnlock(byte[] lockKey, String lockValue, RedisConnection connection) {
+        Long unlocked = (Long) connection.scriptingCommands().eval(
+            UNLOCK_LUA.getBytes(StandardCharsets.UTF_8),
+            ReturnType.INTEGER,
+            1,
+            lockKey,
+            lockValue.getBytes(StandardCharsets.UTF_8),
+            this.unlockChannel
+        );
+        // 本 JVM 的等待方直接唤醒，不依赖消息订阅
+        this.lockNotifier.signal(new String(lockKey, StandardCharsets.UTF_8));
+        return unlocked;
+    }
 
     /**
      * 按缓存名称返回对应的统计数据（如命中率、写入次数），用于监控缓存性能
@@ -345,29 +1158,51 @@ public class RCacheWriter implements RedisCacheWriter {
      */
     @Override
     public void clearStatistics(String name) {
-        ((CacheStatisticsCollector) statistics).reset(name);
+        this.statistics.reset(name);
     }
 
     /**
-     * 返回一个携带指定统计收集器的新RedisCacheWriter实例
+     * 返回一个携带指定统计收集器的新RedisCacheWriter实例，其余配置与当前实例相同
      * @param cacheStatisticsCollector
      * @return
      */
     @Override
     public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
-        return null;
+        Assert.notNull(cacheStatisticsCollector, "CacheStatisticsCollector must not be null");
+        return new RCacheWriter(this, cacheStatisticsCollector);
+    }
+
+    /**
+     * 是否支持异步读取，RedisCache.retrieve 在不支持时直接抛出 UnsupportedOperationException
+     * @return
+     */
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return this.reactiveConnectionFactory != null;
     }
 
     /**
      * 异步缓存操作方法，支持非阻塞的缓存读取
      * @param name
      * @param key
-     * @param ttl
+     * @param ttl 不为空时按 time-to-idle 语义通过 GETEX 续期
      * @return
      */
     @Override
-    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
-        return null;
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, @Nullable Duration ttl) {
+        Assert.notNull(name, "Name must not be null!");
+        Assert.notNull(key, "Key must not be null!");
+        long start = System.nanoTime();
+        return this.executeAsync(name, this.lockKey(name, key), connection -> {
+            ByteBuffer wrappedKey = ByteBuffer.wrap(key);
+            Mono<ByteBuffer> value = shouldExpireWithin(ttl)
+                    ? connection.stringCommands().getEx(wrappedKey, Expiration.from(ttl.toMillis(), TimeUnit.MILLISECONDS))
+                    : connection.stringCommands().get(wrappedKey);
+            return value.map(ByteUtils::getBytes);
+        }).thenApply(value -> {
+            this.recordGet(name, CacheOperation.RETRIEVE, value, start);
+            return value;
+        });
     }
 
     /**
@@ -379,7 +1214,75 @@ public class RCacheWriter implements RedisCacheWriter {
      * @return
      */
     @Override
-    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
-        return null;
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, @Nullable Duration ttl) {
+        Assert.notNull(name, "Name must not be null!");
+        Assert.notNull(key, "Key must not be null!");
+        Assert.notNull(value, "Value must not be null!");
+        long start = System.nanoTime();
+        return this.executeAsync(name, this.lockKey(name, key), connection -> {
+            ByteBuffer wrappedKey = ByteBuffer.wrap(key);
+            ByteBuffer wrappedValue = ByteBuffer.wrap(value);
+            Mono<Boolean> result = shouldExpireWithin(ttl)
+                    ? connection.stringCommands().set(wrappedKey, wrappedValue, Expiration.from(ttl.toMillis(), TimeUnit.MILLISECONDS), RedisStringCommands.SetOption.upsert())
+                    : connection.stringCommands().set(wrappedKey, wrappedValue);
+            return result.then();
+        }).thenRun(() -> {
+            this.statistics.incPuts(name);
+            this.metricsRecorder.recordPayload(name, CacheOperation.STORE, value.length);
+            this.recordLatency(name, CacheOperation.STORE, start);
+        });
+    }
+
+    /**
+     * execute 的异步版本：获取响应式连接、非阻塞地等待锁释放、执行回调并在完成后关闭连接
+     * @param name 缓存名称
+     * @param lockKey 需要检查的锁 key，为 null 时不做锁检查
+     * @param callback 返回 Mono 的 Redis 操作
+     * @return 空 Mono 对应 future 结果为 null（即缓存未命中）
+     * @param <T>
+     */
+    private <T> CompletableFuture<T> executeAsync(String name, @Nullable byte[] lockKey, Function<ReactiveRedisConnection, Mono<T>> callback) {
+        if (this.reactiveConnectionFactory == null) {
+            return CompletableFuture.failedFuture(new UnsupportedOperationException(
+                    String.format("Async cache operations are not supported for cache %s, a ReactiveRedisConnectionFactory is required", name)));
+        }
+        ReactiveRedisConnectionFactory factory = this.reactiveConnectionFactory;
+        return Mono.usingWhen(
+                Mono.fromSupplier(factory::getReactiveConnection),
+                connection -> this.waitUntilUnlockedAsync(name, lockKey, connection).then(Mono.defer(() -> callback.apply(connection))),
+                ReactiveRedisConnection::closeLater
+        ).toFuture();
+    }
+
+    /**
+     * waitUntilUnlocked 的异步版本：由解锁通知唤醒，不占用调用线程
+     * @param name
+     * @param lockKey
+     * @param connection
+     * @return
+     */
+    private Mono<Void> waitUntilUnlockedAsync(String name, @Nullable byte[] lockKey, ReactiveRedisConnection connection) {
+        if (lockKey == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return this.awaitUnlock(lockKey, connection)
+                    .timeout(this.maxLockWait, Mono.error(() -> new PessimisticLockingFailureException(
+                            String.format("Timed out waiting to unlock cache %s", name))))
+                    .doFinally(signal -> this.statistics.incLockTime(name, System.nanoTime() - start));
+        });
+    }
+
+    private Mono<Void> awaitUnlock(byte[] lockKey, ReactiveRedisConnection connection) {
+        return Mono.defer(() -> {
+            CompletableFuture<Void> unlocked = this.lockNotifier.register(lockKey);
+            return connection.keyCommands().exists(ByteBuffer.wrap(lockKey))
+                    .flatMap(locked -> locked
+                            ? Mono.fromFuture(unlocked, true)
+                                    .timeout(this.lockRecheckInterval, Mono.empty())
+                                    .then(this.awaitUnlock(lockKey, connection))
+                            : Mono.empty());
+        });
     }
 }
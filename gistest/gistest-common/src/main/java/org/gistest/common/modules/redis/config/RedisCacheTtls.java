@@ -1,8 +1,14 @@
 package org.gistest.common.modules.redis.config;
 
+import org.gistest.common.modules.redis.cache.EarlyRefresh;
+import org.gistest.common.modules.redis.lock.CacheLockMode;
+import org.gistest.common.modules.redis.receiver.RedisMessageDispatcher;
+import org.gistest.common.modules.redis.serializer.CacheValueSerializer;
+import org.gistest.common.modules.redis.serializer.GeometryEncoding;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,4 +23,319 @@ public class RedisCacheTtls {
     private Map<String, Long> cacheTtls = new HashMap<>();
     public Map<String, Long> getCacheTtls() { return cacheTtls; }
     public void setCacheTtls(Map<String, Long> cacheTtls) { this.cacheTtls = cacheTtls; }
+
+    /**
+     * 响应式缓存模式：开启后 RCacheWriter 通过 Lettuce 响应式连接实现 retrieve/store，
+     * 返回 CompletableFuture/Mono 的 @Cacheable 方法不再阻塞请求线程
+     */
+    private boolean reactive = true;
+    public boolean isReactive() { return reactive; }
+    public void setReactive(boolean reactive) { this.reactive = reactive; }
+
+    /**
+     * 进程内一级缓存（L1）配置，未配置的缓存只走 Redis
+     * key: 缓存名称
+     * value: L1 容量与过期时间
+     */
+    private Map<String, NearCache> nearCaches = new HashMap<>();
+    public Map<String, NearCache> getNearCaches() { return nearCaches; }
+    public void setNearCaches(Map<String, NearCache> nearCaches) { this.nearCaches = nearCaches; }
+
+    /**
+     * 缓存锁粒度配置
+     * key: 缓存名称
+     * value: NONE 不加锁 / CACHE 整个缓存一把锁 / KEY 按 key 分段加锁；Redis 集群模式下一律不加锁
+     */
+    private Map<String, CacheLockMode> lockModes = new HashMap<>();
+    public Map<String, CacheLockMode> getLockModes() { return lockModes; }
+    public void setLockModes(Map<String, CacheLockMode> lockModes) { this.lockModes = lockModes; }
+
+    /**
+     * 未单独配置的缓存使用的锁粒度
+     */
+    private CacheLockMode defaultLockMode = CacheLockMode.CACHE;
+    public CacheLockMode getDefaultLockMode() { return defaultLockMode; }
+    public void setDefaultLockMode(CacheLockMode defaultLockMode) { this.defaultLockMode = defaultLockMode; }
+
+    /**
+     * KEY 模式下的锁分段数
+     */
+    private int lockStripes = 64;
+    public int getLockStripes() { return lockStripes; }
+    public void setLockStripes(int lockStripes) { this.lockStripes = lockStripes; }
+
+    /**
+     * 等待锁释放的最长时间
+     */
+    private Duration maxLockWait = Duration.ofSeconds(5);
+    public Duration getMaxLockWait() { return maxLockWait; }
+    public void setMaxLockWait(Duration maxLockWait) { this.maxLockWait = maxLockWait; }
+
+    /**
+     * 批量删除（clean、通配符 evict）时每条 UNLINK 的 key 数
+     */
+    private int deleteBatchSize = 500;
+    public int getDeleteBatchSize() { return deleteBatchSize; }
+    public void setDeleteBatchSize(int deleteBatchSize) { this.deleteBatchSize = deleteBatchSize; }
+
+    /**
+     * 批量删除时 SCAN 的 COUNT 值
+     */
+    private long scanCount = 1000;
+    public long getScanCount() { return scanCount; }
+    public void setScanCount(long scanCount) { this.scanCount = scanCount; }
+
+    /**
+     * 缓存命令自动流水线：并发的缓存读写由一个刷写线程合并为 pipeline 发送，共用一个连接
+     */
+    private boolean pipelining = true;
+    public boolean isPipelining() { return pipelining; }
+    public void setPipelining(boolean pipelining) { this.pipelining = pipelining; }
+
+    /**
+     * 流水线每批最多合并的命令数
+     */
+    private int pipelineBatchSize = 128;
+    public int getPipelineBatchSize() { return pipelineBatchSize; }
+    public void setPipelineBatchSize(int pipelineBatchSize) { this.pipelineBatchSize = pipelineBatchSize; }
+
+    /**
+     * 流水线刷写线程数，即同时在途的批次数（每个线程占用一个连接）
+     */
+    private int pipelineFlushers = 1;
+    public int getPipelineFlushers() { return pipelineFlushers; }
+    public void setPipelineFlushers(int pipelineFlushers) { this.pipelineFlushers = pipelineFlushers; }
+
+    /**
+     * 批量读写（getAll/putAll）时每条 MGET 或写入脚本的最大 key 数
+     */
+    private int multiKeyBatchSize = 500;
+    public int getMultiKeyBatchSize() { return multiKeyBatchSize; }
+    public void setMultiKeyBatchSize(int multiKeyBatchSize) { this.multiKeyBatchSize = multiKeyBatchSize; }
+
+    /**
+     * 缓存击穿防护配置，仅对 @Cacheable(sync = true) 生效，未配置的缓存按默认方式先读后加载
+     * key: 缓存名称
+     * value: 加载租约与提前刷新方式
+     */
+    private Map<String, Stampede> stampedes = new HashMap<>();
+    public Map<String, Stampede> getStampedes() { return stampedes; }
+    public void setStampedes(Map<String, Stampede> stampedes) { this.stampedes = stampedes; }
+
+    /**
+     * 缓存值序列化配置
+     * key: 缓存名称
+     * value: 格式（JSON/SMILE）与压缩方式
+     */
+    private Map<String, Serialization> serializations = new HashMap<>();
+    public Map<String, Serialization> getSerializations() { return serializations; }
+    public void setSerializations(Map<String, Serialization> serializations) { this.serializations = serializations; }
+
+    /**
+     * 未单独配置的缓存使用的序列化配置
+     */
+    private Serialization defaultSerialization = new Serialization();
+    public Serialization getDefaultSerialization() { return defaultSerialization; }
+    public void setDefaultSerialization(Serialization defaultSerialization) { this.defaultSerialization = defaultSerialization; }
+
+    /**
+     * 缓存与 redisTemplate 中 JTS Geometry 的编码配置
+     */
+    private Geometry geometry = new Geometry();
+    public Geometry getGeometry() { return geometry; }
+    public void setGeometry(Geometry geometry) { this.geometry = geometry; }
+
+    /**
+     * redis 消息（RedisListener）分发配置
+     */
+    private Dispatch dispatch = new Dispatch();
+    public Dispatch getDispatch() { return dispatch; }
+    public void setDispatch(Dispatch dispatch) { this.dispatch = dispatch; }
+
+    /**
+     * redis Streams 可靠消息通道配置
+     */
+    private EventStream stream = new EventStream();
+    public EventStream getStream() { return stream; }
+    public void setStream(EventStream stream) { this.stream = stream; }
+
+    /**
+     * 框架内部的高频消息（一级缓存失效）以 TypedMessage 二进制格式发布；
+     * 滚动升级期间旧版本节点无法解析该格式，升级完成前设为 false，按 BaseMap（JSON）发布
+     */
+    private boolean typedMessages = true;
+    public boolean isTypedMessages() { return typedMessages; }
+    public void setTypedMessages(boolean typedMessages) { this.typedMessages = typedMessages; }
+
+    /**
+     * 虚拟线程模式（spring.threads.virtual.enabled=true）下缓存提前刷新的最大并发数，超出时跳过本次刷新
+     * 平台线程模式下由固定的刷新线程池限制
+     */
+    private int virtualRefreshConcurrency = 16;
+    public int getVirtualRefreshConcurrency() { return virtualRefreshConcurrency; }
+    public void setVirtualRefreshConcurrency(int virtualRefreshConcurrency) { this.virtualRefreshConcurrency = virtualRefreshConcurrency; }
+
+    public static class NearCache {
+        /**
+         * L1 最大条目数
+         */
+        private long maximumSize = 1000;
+        /**
+         * L1 写入后过期时间，单位秒，作为失效广播丢失时的兜底
+         */
+        private long ttl = 60;
+        /**
+         * L1 最大字节数，大于 0 时按字节数淘汰并忽略 maximumSize
+         * 适用于值为 byte[] 的缓存（如瓦片），其他类型的值每条按 1 KB 估算
+         */
+        private long maximumBytes = 0;
+        public long getMaximumSize() { return maximumSize; }
+        public void setMaximumSize(long maximumSize) { this.maximumSize = maximumSize; }
+        public long getTtl() { return ttl; }
+        public void setTtl(long ttl) { this.ttl = ttl; }
+        public long getMaximumBytes() { return maximumBytes; }
+        public void setMaximumBytes(long maximumBytes) { this.maximumBytes = maximumBytes; }
+    }
+
+    public static class Stampede {
+        /**
+         * 分布式加载租约的过期时间，应大于加载耗时，持有方异常退出时到期自动释放
+         */
+        private Duration leaseTime = Duration.ofSeconds(10);
+        /**
+         * 提前刷新方式：NONE / XFETCH / BACKGROUND
+         */
+        private EarlyRefresh earlyRefresh = EarlyRefresh.NONE;
+        /**
+         * XFetch 的 beta 系数，大于 1 时更早刷新
+         */
+        private double beta = 1.0;
+        /**
+         * 本节点还没有加载耗时记录时假定的加载耗时
+         */
+        private Duration loadTimeHint = Duration.ofMillis(100);
+        public Duration getLeaseTime() { return leaseTime; }
+        public void setLeaseTime(Duration leaseTime) { this.leaseTime = leaseTime; }
+        public EarlyRefresh getEarlyRefresh() { return earlyRefresh; }
+        public void setEarlyRefresh(EarlyRefresh earlyRefresh) { this.earlyRefresh = earlyRefresh; }
+        public double getBeta() { return beta; }
+        public void setBeta(double beta) { this.beta = beta; }
+        public Duration getLoadTimeHint() { return loadTimeHint; }
+        public void setLoadTimeHint(Duration loadTimeHint) { this.loadTimeHint = loadTimeHint; }
+    }
+
+    public static class Serialization {
+        /**
+         * 序列化格式，JSON 与原有数据格式一致，SMILE 为二进制 JSON，BINARY 为 byte[] 原样存储
+         */
+        private CacheValueSerializer.Format format = CacheValueSerializer.Format.JSON;
+        /**
+         * 压缩方式
+         */
+        private CacheValueSerializer.Compression compression = CacheValueSerializer.Compression.NONE;
+        /**
+         * 序列化后超过该字节数才压缩
+         */
+        private int compressThreshold = 1024;
+        public CacheValueSerializer.Format getFormat() { return format; }
+        public void setFormat(CacheValueSerializer.Format format) { this.format = format; }
+        public CacheValueSerializer.Compression getCompression() { return compression; }
+        public void setCompression(CacheValueSerializer.Compression compression) { this.compression = compression; }
+        public int getCompressThreshold() { return compressThreshold; }
+        public void setCompressThreshold(int compressThreshold) { this.compressThreshold = compressThreshold; }
+    }
+
+    public static class Geometry {
+        /**
+         * 编码方式：WKB / TWKB
+         */
+        private GeometryEncoding encoding = GeometryEncoding.WKB;
+        /**
+         * TWKB 坐标保留的小数位数（-7 ~ 7），WKB 为无损编码不受影响
+         */
+        private int precision = 7;
+        public GeometryEncoding getEncoding() { return encoding; }
+        public void setEncoding(GeometryEncoding encoding) { this.encoding = encoding; }
+        public int getPrecision() { return precision; }
+        public void setPrecision(int precision) { this.precision = precision; }
+    }
+
+    public static class Dispatch {
+        /**
+         * 执行处理器的线程：POOL 有界线程池 / VIRTUAL 虚拟线程
+         * 未配置时跟随 spring.threads.virtual.enabled
+         */
+        private RedisMessageDispatcher.ExecutorType executor;
+        /**
+         * POOL 模式的线程数，默认为 CPU 核数
+         */
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+        /**
+         * 每个处理器的分区数，消息带 partitionKey 时按其哈希分区，同一分区内按顺序处理
+         */
+        private int partitions = 1;
+        /**
+         * 每个分区的待处理消息上限
+         */
+        private int queueCapacity = 1024;
+        /**
+         * 分区队列满时的处理：BLOCK 阻塞监听线程（反压到 redis 连接）/ DROP 直接丢弃
+         */
+        private RedisMessageDispatcher.Overflow overflow = RedisMessageDispatcher.Overflow.BLOCK;
+        /**
+         * BLOCK 时最长等待时间，超时后丢弃
+         */
+        private Duration blockTimeout = Duration.ofSeconds(1);
+        public RedisMessageDispatcher.ExecutorType getExecutor() { return executor; }
+        public void setExecutor(RedisMessageDispatcher.ExecutorType executor) { this.executor = executor; }
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+        public int getPartitions() { return partitions; }
+        public void setPartitions(int partitions) { this.partitions = partitions; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public RedisMessageDispatcher.Overflow getOverflow() { return overflow; }
+        public void setOverflow(RedisMessageDispatcher.Overflow overflow) { this.overflow = overflow; }
+        public Duration getBlockTimeout() { return blockTimeout; }
+        public void setBlockTimeout(Duration blockTimeout) { this.blockTimeout = blockTimeout; }
+    }
+
+    public static class EventStream {
+        /**
+         * 是否启用，启用后 RedisStreamEventBus 可用于发布消息
+         */
+        private boolean enabled = false;
+        /**
+         * 本节点标识，作为消费者名称，重启后需保持不变才能重放未确认的消息，默认为主机名
+         */
+        private String nodeId;
+        /**
+         * 消费组，为空时每个节点一个组（广播）；多个节点配置相同组名时分摊消费
+         */
+        private String group;
+        /**
+         * 每次 XREADGROUP 读取的最大消息数
+         */
+        private int batchSize = 100;
+        /**
+         * 没有新消息时 XREADGROUP 的阻塞时间
+         */
+        private Duration blockTime = Duration.ofSeconds(2);
+        /**
+         * 流的近似最大长度，超出后裁剪最早的消息，节点离线期间超出的部分无法重放
+         */
+        private long maxLength = 100000;
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getNodeId() { return nodeId; }
+        public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+        public String getGroup() { return group; }
+        public void setGroup(String group) { this.group = group; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public Duration getBlockTime() { return blockTime; }
+        public void setBlockTime(Duration blockTime) { this.blockTime = blockTime; }
+        public long getMaxLength() { return maxLength; }
+        public void setMaxLength(long maxLength) { this.maxLength = maxLength; }
+    }
 }
@@ -0,0 +1,204 @@
+package org.gistest.common.modules.redis.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 缓存命令自动流水线
+ * 请求线程提交脚本调用后等待结果，单个刷写线程把队列中已积累的命令放进同一个 pipeline 一次发送：
+ * 空闲时单条命令立即发送，不做定时等待；并发越高，上一批在途期间积累的命令越多，每批摊薄的往返越多
+ * 所有命令共用刷写线程持有的一个连接，请求线程不再各自占用连接池中的连接
+ */
+@Slf4j
+public class RedisCommandPipeline implements AutoCloseable {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * 每批最多发送的命令数
+     */
+    private final int maxBatchSize;
+
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+
+    private final List<Thread> flushers = new ArrayList<>();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param flusherCount 刷写线程数，即同时在途的批次数
+     */
+    public RedisCommandPipeline(RedisConnectionFactory connectionFactory, int maxBatchSize, int flusherCount) {
+        Assert.notNull(connectionFactory, "connectionFactory must not be null");
+        Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+        Assert.isTrue(flusherCount > 0, "Flusher count must be greater than 0");
+        this.connectionFactory = connectionFactory;
+        this.maxBatchSize = maxBatchSize;
+        for (int i = 0; i < flusherCount; i++) {
+            Thread flusher = new Thread(this::flushLoop, "redis-cache-pipeline-" + i);
+            flusher.setDaemon(true);
+            flusher.start();
+            flushers.add(flusher);
+        }
+    }
+
+    /**
+     * 提交一次脚本调用并等待结果
+     * @param script
+     * @param numKeys keysAndArgs 中 key 的个数
+     * @param keysAndArgs
+     * @return 脚本返回值（ReturnType.MULTI）
+     */
+    Object eval(RedisScript<?> script, int numKeys, byte[]... keysAndArgs) {
+        if (!running) {
+            // 关闭后直接执行，避免停机过程中的缓存操作永久等待
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                return evalSha(connection, script, numKeys, keysAndArgs);
+            }
+        }
+        Command command = new Command(script, numKeys, keysAndArgs, new CompletableFuture<>());
+        queue.add(command);
+        if (!running && queue.remove(command)) {
+            // 入队时刷写线程恰好退出
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                return evalSha(connection, script, numKeys, keysAndArgs);
+            }
+        }
+        try {
+            return command.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("Interrupted while waiting for pipelined cache command", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RedisSystemException("Pipelined cache command failed", e.getCause());
+        }
+    }
+
+    private void flushLoop() {
+        List<Command> batch = new ArrayList<>(maxBatchSize);
+        // 每个刷写线程长期持有一个连接，出错时关闭，下一批重新获取
+        RedisConnection connection = null;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            try {
+                if (connection == null) {
+                    connection = connectionFactory.getConnection();
+                }
+                flush(batch, connection);
+            } catch (RuntimeException e) {
+                log.warn("redis cache pipeline flush failed, commands:{}", batch.size(), e);
+                batch.forEach(command -> command.result().completeExceptionally(e));
+                connection = closeQuietly(connection);
+            }
+            batch.clear();
+        }
+        closeQuietly(connection);
+        // 关闭时队列中剩余的命令直接失败，调用方不会永久阻塞
+        queue.drainTo(batch);
+        batch.forEach(command -> command.result().completeExceptionally(new RedisSystemException("Cache pipeline closed", null)));
+    }
+
+    private void flush(List<Command> batch, RedisConnection connection) {
+        if (batch.size() == 1) {
+            Command command = batch.get(0);
+            command.result().complete(evalSha(connection, command.script(), command.numKeys(), command.keysAndArgs()));
+            return;
+        }
+        connection.openPipeline();
+        for (Command command : batch) {
+            connection.scriptingCommands().evalSha(command.script().getSha1(), ReturnType.MULTI, command.numKeys(), command.keysAndArgs());
+        }
+        List<Object> results;
+        try {
+            results = connection.closePipeline();
+        } catch (RedisPipelineException e) {
+            results = e.getPipelineResult();
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Command command = batch.get(i);
+            Object result = i < results.size() ? results.get(i) : null;
+            if (result instanceof Throwable error) {
+                if (isNoScriptError(error)) {
+                    // 脚本缓存被清空（重启、故障转移、SCRIPT FLUSH），单独用 EVAL 重发，同时重新载入脚本
+                    command.result().complete(evalSha(connection, command.script(), command.numKeys(), command.keysAndArgs()));
+                } else {
+                    command.result().completeExceptionally(error);
+                }
+            } else {
+                command.result().complete(result);
+            }
+        }
+    }
+
+    @Nullable
+    private static RedisConnection closeQuietly(@Nullable RedisConnection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (RuntimeException e) {
+                log.debug("redis cache pipeline connection close failed", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 优先 EVALSHA，服务端没有该脚本时退回 EVAL
+     * @param connection
+     * @param script
+     * @param numKeys
+     * @param keysAndArgs
+     * @return
+     */
+    static Object evalSha(RedisConnection connection, RedisScript<?> script, int numKeys, byte[]... keysAndArgs) {
+        try {
+            return connection.scriptingCommands().evalSha(script.getSha1(), ReturnType.MULTI, numKeys, keysAndArgs);
+        } catch (RuntimeException e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            return connection.scriptingCommands().eval(script.getScriptAsString().getBytes(StandardCharsets.UTF_8), ReturnType.MULTI, numKeys, keysAndArgs);
+        }
+    }
+
+    private static boolean isNoScriptError(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        flushers.forEach(Thread::interrupt);
+    }
+
+    private record Command(RedisScript<?> script, int numKeys, byte[][] keysAndArgs, CompletableFuture<Object> result) {
+    }
+}
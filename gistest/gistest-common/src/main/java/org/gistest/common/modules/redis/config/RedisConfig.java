@@ -5,35 +5,74 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.base.TypedMessage;
 import org.gistest.common.constant.CacheConstant;
 import org.gistest.common.constant.GlobalConstants;
+import org.gistest.common.modules.redis.cache.BatchRedisCache;
+import org.gistest.common.modules.redis.cache.EarlyRefresh;
+import org.gistest.common.modules.redis.cache.NearRedisCache;
+import org.gistest.common.modules.redis.lock.CacheLockMode;
+import org.gistest.common.modules.redis.lock.CacheLockNotifier;
+import org.gistest.common.modules.redis.metrics.MicrometerCacheMetricsRecorder;
+import org.gistest.common.modules.redis.metrics.RedisCacheEndpoint;
+import org.gistest.common.modules.redis.listener.RedisListener;
+import org.gistest.common.modules.redis.receiver.RedisMessageDispatcher;
 import org.gistest.common.modules.redis.receiver.RedisReceiver;
-import org.n52.jackson.datatype.jts.JtsModule;
+import org.gistest.common.modules.redis.serializer.CacheValueSerializer;
+import org.gistest.common.modules.redis.serializer.TypedMessageSerializer;
+import org.gistest.common.modules.redis.stream.RedisStreamEventBus;
+import org.gistest.common.modules.redis.serializer.GeometryBinaryModule;
+import org.gistest.common.modules.redis.serializer.GeometryCodec;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.cache.CacheKeyPrefix;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.util.StringUtils;
+import org.springframework.lang.Nullable;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 
 @Slf4j
@@ -44,20 +83,42 @@ public class RedisConfig extends CachingConfigurerSupport {
     @Resource
     private RedisCacheTtls redisCacheProperties;
 
-    private static volatile Jackson2JsonRedisSerializer<Object> cachedJacksonSerializer;
+    @Resource
+    private Environment environment;
 
-    private static Jackson2JsonRedisSerializer<Object> getJacksonSerializer() {
-        if ( cachedJacksonSerializer == null ) {
-            synchronized (RedisConfig.class) {
-                if (cachedJacksonSerializer == null) {
-                    cachedJacksonSerializer = jacksonSerializer();
-                }
-            }
-        }
-        return cachedJacksonSerializer;
+    /**
+     * 缓存值与 redisTemplate 共用的 ObjectMapper，Smile 格式使用其副本，保证两种格式的类型配置一致
+     * Geometry 的编码方式取自配置，因此在属性注入后初始化
+     */
+    private ObjectMapper cacheObjectMapper;
+
+    private ObjectMapper cacheSmileMapper;
+
+    private Jackson2JsonRedisSerializer<Object> jacksonSerializer;
+
+    /**
+     * redis 消息（pub/sub、Streams）与 redisTemplate 的值序列化器，TypedMessage 走二进制格式
+     */
+    private TypedMessageSerializer messageSerializer;
+
+    @PostConstruct
+    public void initSerializers() {
+        cacheObjectMapper = objectMapper(redisCacheProperties.getGeometry());
+        cacheSmileMapper = cacheObjectMapper.copyWith(new SmileFactory());
+        jacksonSerializer = new Jackson2JsonRedisSerializer<>(cacheObjectMapper, Object.class);
+        messageSerializer = new TypedMessageSerializer(jacksonSerializer);
+    }
+
+    private Jackson2JsonRedisSerializer<Object> getJacksonSerializer() {
+        return jacksonSerializer;
     }
 
-    private static Jackson2JsonRedisSerializer<Object> jacksonSerializer() {
+    /**
+     * 缓存值与 redisTemplate 使用的 ObjectMapper，基准测试（gistest-benchmarks）复用同一配置
+     * @param geometry
+     * @return
+     */
+    public static ObjectMapper objectMapper(RedisCacheTtls.Geometry geometry) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
         objectMapper.activateDefaultTyping(
@@ -66,10 +127,21 @@ public class RedisConfig extends CachingConfigurerSupport {
                 JsonTypeInfo.As.PROPERTY
         );
         objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.registerModule(new JtsModule());
+        // Geometry 以 WKB/TWKB 二进制存储；JtsModule 的 GeoJSON 序列化不带类型信息，与上面的默认类型不兼容
+        objectMapper.registerModule(new GeometryBinaryModule(new GeometryCodec(geometry.getEncoding(), geometry.getPrecision())));
         // 忽略未知属性，避免反序列化异常
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        return new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+        return objectMapper;
+    }
+
+    /**
+     * 按配置创建缓存值序列化器
+     * @param serialization
+     * @return
+     */
+    private CacheValueSerializer cacheValueSerializer(RedisCacheTtls.Serialization serialization) {
+        return new CacheValueSerializer(cacheObjectMapper, cacheSmileMapper, serialization.getFormat(),
+                serialization.getCompression(), serialization.getCompressThreshold());
     }
 
     /**
@@ -89,7 +161,8 @@ public class RedisConfig extends CachingConfigurerSupport {
         // key序列化
         template.setKeySerializer(new StringRedisSerializer());
         // value序列化
-        template.setValueSerializer(jackson2JsonRedisSerializer);
+        // TypedMessage 以二进制发布（convertAndSend），其余值仍为 JSON
+        template.setValueSerializer(messageSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
         template.setHashValueSerializer(jackson2JsonRedisSerializer);
 
@@ -105,7 +178,9 @@ public class RedisConfig extends CachingConfigurerSupport {
      * @return
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory factory) {
+    public CacheManager cacheManager(RedisConnectionFactory factory, RedisTemplate<String, Object> redisTemplate, CacheLockNotifier cacheLockNotifier,
+                                     ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<RedisCommandPipeline> redisCommandPipeline,
+                                     ObjectProvider<RedisStreamEventBus> redisStreamEventBus) {
         Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = getJacksonSerializer();
         // 配置序列化（解决乱码的问题）,并且配置缓存默认有效期 6小时
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(6));
@@ -113,7 +188,47 @@ public class RedisConfig extends CachingConfigurerSupport {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jackson2JsonRedisSerializer))
                 .disableCachingNullValues();
 
-        RedisCacheWriter writer = new RCacheWriter(factory, Duration.ofMillis(50L));
+        // 响应式模式下由 Lettuce 的异步连接完成 retrieve/store，多个缓存查询可在同一连接上并发执行
+        boolean reactive = redisCacheProperties.isReactive() && factory instanceof ReactiveRedisConnectionFactory;
+        log.debug("缓存响应式模式:{}", reactive);
+        RCacheWriter writer = new RCacheWriter(factory, Duration.ofMillis(50L), reactive);
+        // 锁粒度按缓存配置，等待方由解锁通知唤醒
+        Map<String, CacheLockMode> lockModes = new HashMap<>(redisCacheProperties.getLockModes());
+        // 瓦片按需生成、结果幂等，不需要锁；按范围失效瓦片时的 clean 不能阻塞瓦片读取
+        lockModes.putIfAbsent(CacheConstant.GIS_TILE_CACHE, CacheLockMode.NONE);
+        // 字典按 key 分段加锁，单条字典的写入和 clean 不阻塞其他字典的读取；全局关闭锁时跟随关闭
+        if (redisCacheProperties.getDefaultLockMode() != CacheLockMode.NONE) {
+            lockModes.putIfAbsent(CacheConstant.SYS_DICT_TABLE_CACHE, CacheLockMode.KEY);
+        }
+        checkLockModes(factory, redisCacheProperties.getDefaultLockMode(), lockModes);
+        writer.setLockModes(lockModes);
+        writer.setDefaultLockMode(redisCacheProperties.getDefaultLockMode());
+        writer.setLockStripes(redisCacheProperties.getLockStripes());
+        writer.setMaxLockWait(redisCacheProperties.getMaxLockWait());
+        writer.setLockNotifier(cacheLockNotifier);
+        writer.setDeleteBatchSize(redisCacheProperties.getDeleteBatchSize());
+        writer.setScanCount(redisCacheProperties.getScanCount());
+        writer.setMultiKeyBatchSize(redisCacheProperties.getMultiKeyBatchSize());
+        writer.setPipeline(redisCommandPipeline.getIfAvailable());
+        // 虚拟线程模式下提前刷新也在虚拟线程上执行，按并发数限流，超出时由 RCacheWriter 跳过本次刷新
+        if (virtualThreads()) {
+            SimpleAsyncTaskExecutor refreshExecutor = virtualThreadExecutor("cache-refresh-");
+            refreshExecutor.setConcurrencyLimit(redisCacheProperties.getVirtualRefreshConcurrency());
+            refreshExecutor.setRejectTasksWhenLimitReached(true);
+            writer.setRefreshExecutor(refreshExecutor);
+        }
+        // 击穿防护按缓存配置，字典表缓存未单独配置时默认开启 XFetch 提前刷新；
+        // 瓦片缓存默认只做单飞加载，同一瓦片并发未命中时由一个节点生成，其余等待结果
+        Map<String, RedisCacheTtls.Stampede> stampedes = new HashMap<>(redisCacheProperties.getStampedes());
+        stampedes.computeIfAbsent(CacheConstant.SYS_DICT_TABLE_CACHE, cacheName -> {
+            RedisCacheTtls.Stampede stampede = new RedisCacheTtls.Stampede();
+            stampede.setEarlyRefresh(EarlyRefresh.XFETCH);
+            return stampede;
+        });
+        stampedes.computeIfAbsent(CacheConstant.GIS_TILE_CACHE, cacheName -> new RedisCacheTtls.Stampede());
+        writer.setStampedes(stampedes);
+        // 接入 Micrometer 时记录各缓存的操作耗时与缓存值大小
+        meterRegistry.ifAvailable(registry -> writer.setMetricsRecorder(new MicrometerCacheMetricsRecorder(registry)));
 
         Map<String, RedisCacheConfiguration> initialCaches = new HashMap<>();
         initialCaches.put(CacheConstant.SYS_DICT_TABLE_CACHE, RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)).disableCachingNullValues()
@@ -121,6 +236,7 @@ public class RedisConfig extends CachingConfigurerSupport {
         initialCaches.put(CacheConstant.TEST_DEMO_CACHE, RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(5)).disableCachingNullValues());
         initialCaches.put(CacheConstant.PLUGIN_MALL_RANKING, RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(24)).disableCachingNullValues());
         initialCaches.put(CacheConstant.PLUGIN_MALL_PAGE_LIST, RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(24)).disableCachingNullValues());
+        initialCaches.put(CacheConstant.GIS_TILE_CACHE, RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(24)).disableCachingNullValues());
 
 
         Map<String, Long> cacheTtls = redisCacheProperties.getCacheTtls();
@@ -134,19 +250,97 @@ public class RedisConfig extends CachingConfigurerSupport {
             });
         }
 
-        RedisCacheManager cacheManager = new RedisConfigCacheManager(writer, redisCacheConfiguration, initialCaches);
+        // 一级缓存失效消息由 NearCacheInvalidateListener 处理：启用 redis Streams 且每个节点一个消费组时走可靠通道，
+        // 节点停顿期间的失效不会丢失；否则走 pub/sub（共享消费组只有一个节点收到，不能用于失效广播）
+        Map<String, RedisCacheTtls.NearCache> nearCaches = new HashMap<>(redisCacheProperties.getNearCaches());
+        // 热点瓦片保存在 L1，命中时不走 Redis；瓦片大小差异大，按字节数（默认 64 MB）淘汰
+        nearCaches.computeIfAbsent(CacheConstant.GIS_TILE_CACHE, cacheName -> {
+            RedisCacheTtls.NearCache nearCache = new RedisCacheTtls.NearCache();
+            nearCache.setMaximumBytes(64L << 20);
+            nearCache.setTtl(300);
+            return nearCache;
+        });
+        boolean typedMessages = redisCacheProperties.isTypedMessages();
+        boolean streamBroadcast = !StringUtils.hasText(redisCacheProperties.getStream().getGroup());
+        RedisConfigCacheManager cacheManager = new RedisConfigCacheManager(writer, redisCacheConfiguration, initialCaches, nearCaches, message -> {
+            RedisStreamEventBus bus = streamBroadcast ? redisStreamEventBus.getIfAvailable() : null;
+            if (bus != null) {
+                bus.publish(message);
+            } else {
+                redisTemplate.convertAndSend(GlobalConstants.REDIS_TOPIC_NAME, typedMessages ? message : message.toBaseMap());
+            }
+        });
+        // 缓存值序列化方式按缓存配置，未配置的使用默认配置（JSON）
+        Map<String, RedisSerializer<Object>> valueSerializers = new HashMap<>();
+        Map<String, RedisCacheTtls.Serialization> serializations = new HashMap<>(redisCacheProperties.getSerializations());
+        // 瓦片已是编码（gzip）后的字节，原样存储
+        serializations.computeIfAbsent(CacheConstant.GIS_TILE_CACHE, cacheName -> {
+            RedisCacheTtls.Serialization serialization = new RedisCacheTtls.Serialization();
+            serialization.setFormat(CacheValueSerializer.Format.BINARY);
+            return serialization;
+        });
+        serializations.forEach((cacheName, serialization) -> {
+            log.debug("缓存序列化配置，cacheKey:{}, 格式:{}, 压缩:{}", cacheName, serialization.getFormat(), serialization.getCompression());
+            valueSerializers.put(cacheName, cacheValueSerializer(serialization));
+        });
+        cacheManager.setValueSerializers(valueSerializers, cacheValueSerializer(redisCacheProperties.getDefaultSerialization()));
         cacheManager.setTransactionAware(true);
         //update-end-author:taoyan date:20210316 for:注解CacheEvict根据key删除redis支持通配符*
         return cacheManager;
     }
 
     public static class RedisConfigCacheManager extends RedisCacheManager {
+        /**
+         * 失效消息字段
+         */
+        public static final String NEAR_CACHE_NAME = "cacheName";
+        public static final String NEAR_CACHE_KEY = "cacheKey";
+        /**
+         * 批量失效的 key，以换行分隔
+         */
+        public static final String NEAR_CACHE_KEYS = "cacheKeys";
+        public static final String NEAR_CACHE_NODE = "nodeId";
+
+        private final Map<String, RedisCacheTtls.NearCache> nearCacheConfigs;
+
+        private final Map<String, NearRedisCache> nearCaches = new ConcurrentHashMap<>();
+
+        private final Consumer<TypedMessage> messagePublisher;
+
+        /**
+         * 当前节点标识，收到自己发出的失效消息时忽略
+         */
+        private final String nodeId = UUID.randomUUID().toString();
+
         public RedisConfigCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration, Map<String, RedisCacheConfiguration> initialCaches) {
+            this(cacheWriter, defaultCacheConfiguration, initialCaches, Collections.emptyMap(), message -> { });
+        }
+
+        public RedisConfigCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration, Map<String, RedisCacheConfiguration> initialCaches,
+                                       Map<String, RedisCacheTtls.NearCache> nearCacheConfigs, Consumer<TypedMessage> messagePublisher) {
             super(cacheWriter, defaultCacheConfiguration, initialCaches, true);
+            this.nearCacheConfigs = nearCacheConfigs == null ? Collections.emptyMap() : nearCacheConfigs;
+            this.messagePublisher = messagePublisher;
         }
 
-        private static final RedisSerializationContext.SerializationPair<Object> DEFAULT_PAIR = RedisSerializationContext.SerializationPair
-                .fromSerializer(jacksonSerializer());
+        /**
+         * 为 null 时沿用缓存配置中的值序列化方式
+         */
+        private RedisSerializationContext.SerializationPair<Object> defaultValuePair;
+
+        private Map<String, RedisSerializationContext.SerializationPair<Object>> valuePairs = Collections.emptyMap();
+
+        /**
+         * 设置各缓存的值序列化方式，需在缓存初始化（afterPropertiesSet）之前调用
+         * @param valueSerializers key: 缓存名称
+         * @param defaultSerializer 未单独配置的缓存使用的序列化器
+         */
+        public void setValueSerializers(Map<String, RedisSerializer<Object>> valueSerializers, RedisSerializer<Object> defaultSerializer) {
+            Map<String, RedisSerializationContext.SerializationPair<Object>> pairs = new HashMap<>();
+            valueSerializers.forEach((cacheName, serializer) -> pairs.put(cacheName, RedisSerializationContext.SerializationPair.fromSerializer(serializer)));
+            this.valuePairs = pairs;
+            this.defaultValuePair = RedisSerializationContext.SerializationPair.fromSerializer(defaultSerializer);
+        }
 
         private static final CacheKeyPrefix DEFAULT_CACHE_KEY_PREFIX = cacheName -> cacheName + "::";
 
@@ -157,32 +351,233 @@ public class RedisConfig extends CachingConfigurerSupport {
                 final String ttl = name.substring(lastIndexOf + 1);
                 final Duration duration = Duration.ofSeconds(Long.parseLong(ttl));
                 cacheConfig = cacheConfig.entryTtl(duration);
-                //修改缓存key和value值的序列化方式
-                cacheConfig = cacheConfig.computePrefixWith(DEFAULT_CACHE_KEY_PREFIX)
-                        .serializeValuesWith(DEFAULT_PAIR);
                 final String cacheName = name.substring(0, lastIndexOf);
-                return super.createRedisCache(cacheName, cacheConfig);
+                return createCache(cacheName, cacheConfig);
             }else{
-                //修改缓存key和value值的序列化方式
-                cacheConfig = cacheConfig.computePrefixWith(DEFAULT_CACHE_KEY_PREFIX)
-                        .serializeValuesWith(DEFAULT_PAIR);
-                return super.createRedisCache(name, cacheConfig);
+                return createCache(name, cacheConfig);
+            }
+        }
+
+        /**
+         * 配置了一级缓存的使用 NearRedisCache，其余使用 BatchRedisCache，两者都支持 getAll/putAll
+         * @param cacheName
+         * @param cacheConfig
+         * @return
+         */
+        private RedisCache createCache(String cacheName, RedisCacheConfiguration cacheConfig) {
+            //修改缓存key和value值的序列化方式
+            cacheConfig = cacheConfig.computePrefixWith(DEFAULT_CACHE_KEY_PREFIX);
+            RedisSerializationContext.SerializationPair<Object> valuePair = valuePairs.getOrDefault(cacheName, defaultValuePair);
+            if (valuePair != null) {
+                cacheConfig = cacheConfig.serializeValuesWith(valuePair);
+            }
+            RedisCacheTtls.NearCache nearCache = nearCacheConfigs.get(cacheName);
+            if (nearCache == null) {
+                return new BatchRedisCache(cacheName, getCacheWriter(), cacheConfig);
+            }
+            log.debug("一级缓存配置，cacheKey:{}, 容量:{}, 字节数:{}, 缓存秒数:{}", cacheName, nearCache.getMaximumSize(), nearCache.getMaximumBytes(),
+                    nearCache.getTtl());
+            NearRedisCache cache = new NearRedisCache(cacheName, getCacheWriter(), cacheConfig, nearCache.getMaximumSize(),
+                    nearCache.getMaximumBytes(), Duration.ofSeconds(nearCache.getTtl()), this::publishInvalidation);
+            nearCaches.put(cacheName, cache);
+            return cache;
+        }
+
+        /**
+         * 取支持 getAll/putAll 的缓存，getCache 在 transactionAware 时返回事务装饰器，不能直接强转
+         * 批量操作不参与事务，putAll 立即写入
+         * @param name
+         * @return
+         */
+        @Nullable
+        public BatchRedisCache getBatchCache(String name) {
+            Cache cache = getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            return cache instanceof BatchRedisCache batchCache ? batchCache : null;
+        }
+
+        private void publishInvalidation(String cacheName, List<String> cacheKeys) {
+            if (cacheKeys.size() > 1 && cacheKeys.stream().anyMatch(cacheKey -> cacheKey.indexOf('\n') >= 0)) {
+                // key 中含分隔符时逐个广播
+                cacheKeys.forEach(cacheKey -> publishInvalidation(cacheName, List.of(cacheKey)));
+                return;
+            }
+            TypedMessage message = new TypedMessage(5)
+                    .putString(GlobalConstants.HANDLER_NAME, GlobalConstants.NEAR_CACHE_INVALIDATE_HANDLER)
+                    .putString(NEAR_CACHE_NAME, cacheName)
+                    .putString(cacheKeys.size() == 1 ? NEAR_CACHE_KEY : NEAR_CACHE_KEYS, String.join("\n", cacheKeys))
+                    .putString(NEAR_CACHE_NODE, nodeId)
+                    // 同一缓存的失效消息按顺序处理，不同缓存之间可并行
+                    .putString(GlobalConstants.PARTITION_KEY, cacheName);
+            messagePublisher.accept(message);
+        }
+
+        /**
+         * 处理其他节点广播的一级缓存失效消息
+         * @param message
+         */
+        public void onNearCacheInvalidation(TypedMessage message) {
+            if (nodeId.equals(message.getString(NEAR_CACHE_NODE))) {
+                return;
+            }
+            String cacheName = message.getString(NEAR_CACHE_NAME);
+            NearRedisCache cache = cacheName == null ? null : nearCaches.get(cacheName);
+            if (cache == null) {
+                return;
+            }
+            String cacheKey = message.getString(NEAR_CACHE_KEY);
+            if (cacheKey != null) {
+                cache.invalidateLocal(cacheKey);
+            }
+            String cacheKeys = message.getString(NEAR_CACHE_KEYS);
+            if (cacheKeys != null) {
+                for (String key : cacheKeys.split("\n")) {
+                    cache.invalidateLocal(key);
+                }
             }
         }
     }
 
+    /**
+     * 缓存命令自动流水线，gistest.redis.pipelining=false 时关闭
+     * @param factory
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "gistest.redis", name = "pipelining", havingValue = "true", matchIfMissing = true)
+    public RedisCommandPipeline redisCommandPipeline(RedisConnectionFactory factory) {
+        return new RedisCommandPipeline(factory, redisCacheProperties.getPipelineBatchSize(), redisCacheProperties.getPipelineFlushers());
+    }
+
+    /**
+     * 缓存统计端点 /actuator/rediscache
+     * @param cacheManager
+     * @return
+     */
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public RedisCacheEndpoint redisCacheEndpoint(CacheManager cacheManager) {
+        return new RedisCacheEndpoint(cacheManager);
+    }
+
+    /**
+     * redis 消息分发，处理器（RedisListener）在创建时一次性解析
+     * @param beanFactory
+     * @param meterRegistry
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    public RedisMessageDispatcher redisMessageDispatcher(ListableBeanFactory beanFactory, ObjectProvider<MeterRegistry> meterRegistry) {
+        RedisCacheTtls.Dispatch dispatch = redisCacheProperties.getDispatch();
+        RedisMessageDispatcher.ExecutorType executorType = dispatch.getExecutor() != null ? dispatch.getExecutor()
+                : virtualThreads() ? RedisMessageDispatcher.ExecutorType.VIRTUAL : RedisMessageDispatcher.ExecutorType.POOL;
+        return new RedisMessageDispatcher(beanFactory.getBeansOfType(RedisListener.class), executorType, dispatch.getPoolSize(),
+                dispatch.getPartitions(), dispatch.getQueueCapacity(), dispatch.getOverflow(), dispatch.getBlockTimeout(),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * redis Streams 可靠消息通道，gistest.redis.stream.enabled=true 时启用
+     * @param factory
+     * @param redisMessageDispatcher
+     * @param meterRegistry
+     * @return
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "gistest.redis.stream", name = "enabled", havingValue = "true")
+    public RedisStreamEventBus redisStreamEventBus(RedisConnectionFactory factory, RedisMessageDispatcher redisMessageDispatcher,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        RedisCacheTtls.EventStream stream = redisCacheProperties.getStream();
+        String nodeId = StringUtils.hasText(stream.getNodeId()) ? stream.getNodeId() : hostName();
+        // 未配置组名时每个节点一个组，每条消息所有节点都会收到
+        String group = StringUtils.hasText(stream.getGroup()) ? stream.getGroup() : "node:" + nodeId;
+        log.info("redis stream 消费组:{}, 消费者:{}", group, nodeId);
+        return new RedisStreamEventBus(factory, messageSerializer, redisMessageDispatcher, GlobalConstants.REDIS_STREAM_NAME,
+                group, nodeId, stream.getBatchSize(), stream.getBlockTime(), stream.getMaxLength(),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * 集群模式下缓存 key 与锁 key 不在同一槽位，脚本同时访问两者会报 CROSSSLOT，配置了锁时启动即失败
+     * @param factory
+     * @param defaultLockMode
+     * @param lockModes
+     */
+    private static void checkLockModes(RedisConnectionFactory factory, CacheLockMode defaultLockMode, Map<String, CacheLockMode> lockModes) {
+        if (!(factory instanceof LettuceConnectionFactory lettuce) || !lettuce.isClusterAware()) {
+            return;
+        }
+        if (defaultLockMode != CacheLockMode.NONE || lockModes.values().stream().anyMatch(mode -> mode != CacheLockMode.NONE)) {
+            throw new IllegalStateException("Cache lock modes are not supported on Redis Cluster, "
+                    + "set gistest.redis.default-lock-mode and gistest.redis.lock-modes to NONE");
+        }
+    }
+
+    /**
+     * 是否开启了虚拟线程模式（spring.threads.virtual.enabled=true），Tomcat 请求与 @Async 由 Spring Boot 切换，
+     * redis 监听、消息分发、缓存提前刷新在此处切换
+     */
+    private boolean virtualThreads() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            log.warn("获取主机名失败，使用随机节点标识，重启后无法重放未确认的消息", e);
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * redis 消息监听适配器，消息体与 redisTemplate 使用同一序列化方式，按反序列化结果调用 RedisReceiver 对应的 onMessage 重载
+     * @param redisReceiver
+     * @return
+     */
+    @Bean
+    public MessageListenerAdapter commonListenerAdapter(RedisReceiver redisReceiver) {
+        MessageListenerAdapter messageListenerAdapter = new MessageListenerAdapter(redisReceiver, "onMessage");
+        messageListenerAdapter.setSerializer(messageSerializer);
+        return messageListenerAdapter;
+    }
+
+    /**
+     * 缓存锁释放通知
+     * @return
+     */
+    @Bean
+    public CacheLockNotifier cacheLockNotifier() {
+        return new CacheLockNotifier();
+    }
+
     /**
      * redis 监听配置
      * @param redisConnectionFactory
      * @param redisReceiver
      * @param commonListenerAdapter
+     * @param cacheLockNotifier
      * @return
      */
     @Bean
-    public RedisMessageListenerContainer redisContainer(RedisConnectionFactory redisConnectionFactory, RedisReceiver redisReceiver, MessageListenerAdapter commonListenerAdapter) {
+    public RedisMessageListenerContainer redisContainer(RedisConnectionFactory redisConnectionFactory, RedisReceiver redisReceiver, MessageListenerAdapter commonListenerAdapter,
+                                                        CacheLockNotifier cacheLockNotifier) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(redisConnectionFactory);
+        // 默认每条消息新建一个平台线程，虚拟线程模式下改为虚拟线程
+        if (virtualThreads()) {
+            container.setTaskExecutor(virtualThreadExecutor("redis-listener-"));
+        }
         container.addMessageListener(commonListenerAdapter, new ChannelTopic(GlobalConstants.REDIS_TOPIC_NAME));
+        container.addMessageListener(cacheLockNotifier, new ChannelTopic(CacheConstant.CACHE_UNLOCK_TOPIC));
         return container;
     }
 }
@@ -0,0 +1,32 @@
+package org.gistest.common.modules.redis.listener;
+
+import jakarta.annotation.Resource;
+import org.gistest.common.base.BaseMap;
+import org.gistest.common.base.TypedMessage;
+import org.gistest.common.constant.GlobalConstants;
+import org.gistest.common.modules.redis.config.RedisConfig;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * 一级缓存（L1）失效广播处理器，其他节点 put/evict/clear 后清理本节点 L1
+ * 失效消息以 TypedMessage 发布；关闭 gistest.redis.typed-messages 或来自旧版本节点时为 BaseMap
+ */
+@Component(GlobalConstants.NEAR_CACHE_INVALIDATE_HANDLER)
+public class NearCacheInvalidateListener implements RedisListener {
+
+    @Resource
+    private CacheManager cacheManager;
+
+    @Override
+    public void onMessage(BaseMap message) {
+        onMessage(TypedMessage.fromMap(message));
+    }
+
+    @Override
+    public void onMessage(TypedMessage message) {
+        if (cacheManager instanceof RedisConfig.RedisConfigCacheManager redisConfigCacheManager) {
+            redisConfigCacheManager.onNearCacheInvalidation(message);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.gistest.common.modules.redis.listener;
 
 import org.gistest.common.base.BaseMap;
+import org.gistest.common.base.TypedMessage;
 
 public interface RedisListener {
     /**
@@ -10,4 +11,14 @@ public interface RedisListener {
      */
     void onMessage(BaseMap message);
 
-}
\ No newline at end of file
+    /**
+     * 接受类型化消息，默认转为 BaseMap 交给 onMessage(BaseMap)
+     * 高频处理器重写该方法，直接用类型化取值，避免装箱与字符串解析
+     *
+     * @param message
+     */
+    default void onMessage(TypedMessage message) {
+        onMessage(message.toBaseMap());
+    }
+
+}
@@ -0,0 +1,20 @@
+package org.gistest.common.modules.redis.lock;
+
+/**
+ * 缓存写入器的加锁粒度
+ */
+public enum CacheLockMode {
+    /**
+     * 不加锁，读写均不做锁检查
+     */
+    NONE,
+    /**
+     * 整个缓存名称共用一把锁（{name}~lock），clean 期间阻塞该缓存的所有读写
+     */
+    CACHE,
+    /**
+     * 按 key 分段加锁（{name}~lock:{stripe}）：put/putIfAbsent/remove 持有所在分段的锁写入，
+     * 读取只检查所在分段，clean 不加锁，不会阻塞其他分段的读写
+     */
+    KEY
+}
@@ -0,0 +1,46 @@
+package org.gistest.common.modules.redis.lock;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存锁释放通知
+ * 解锁脚本在删除锁 key 的同时向 CacheConstant.CACHE_UNLOCK_TOPIC 发布锁 key，
+ * 本类订阅该通道并唤醒等待同一把锁的线程，等待方无需轮询 EXISTS
+ */
+public class CacheLockNotifier implements MessageListener {
+
+    /**
+     * 锁 key -> 等待信号，同一把锁的所有等待方共用一个 future
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 登记等待，需在检查锁是否存在之前调用，避免检查与订阅之间的解锁通知丢失
+     * @param lockKey
+     * @return 锁释放时完成的 future
+     */
+    public CompletableFuture<Void> register(byte[] lockKey) {
+        return waiters.computeIfAbsent(new String(lockKey, StandardCharsets.UTF_8), k -> new CompletableFuture<>());
+    }
+
+    /**
+     * 唤醒等待指定锁的线程
+     * @param lockKey
+     */
+    public void signal(String lockKey) {
+        CompletableFuture<Void> waiter = waiters.remove(lockKey);
+        if (waiter != null) {
+            waiter.complete(null);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        signal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,27 @@
+package org.gistest.common.modules.redis.metrics;
+
+/**
+ * 缓存操作耗时与数据大小的记录，命中/未命中等计数由 CacheStatisticsCollector 负责
+ */
+public interface CacheMetricsRecorder {
+
+    /**
+     * 不记录，未接入 Micrometer 时使用
+     */
+    CacheMetricsRecorder NONE = new CacheMetricsRecorder() {
+        @Override
+        public void recordLatency(String cacheName, CacheOperation operation, long nanos) {
+        }
+
+        @Override
+        public void recordPayload(String cacheName, CacheOperation operation, int bytes) {
+        }
+    };
+
+    void recordLatency(String cacheName, CacheOperation operation, long nanos);
+
+    /**
+     * @param bytes 读取或写入的缓存值字节数（序列化、压缩之后）
+     */
+    void recordPayload(String cacheName, CacheOperation operation, int bytes);
+}
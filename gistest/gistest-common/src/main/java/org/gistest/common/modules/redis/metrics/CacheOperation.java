@@ -0,0 +1,30 @@
+package org.gistest.common.modules.redis.metrics;
+
+/**
+ * 缓存写入器的操作类型，作为指标的 operation 标签
+ */
+public enum CacheOperation {
+    GET("get"),
+    GET_ALL("getAll"),
+    PUT("put"),
+    PUT_ALL("putAll"),
+    PUT_IF_ABSENT("putIfAbsent"),
+    REMOVE("remove"),
+    CLEAN("clean"),
+    RETRIEVE("retrieve"),
+    STORE("store"),
+    /**
+     * 同步加载（@Cacheable(sync = true)）时执行被缓存方法的耗时
+     */
+    LOAD("load");
+
+    private final String tag;
+
+    CacheOperation(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,73 @@
+package org.gistest.common.modules.redis.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 按缓存名称和操作类型记录 Micrometer 指标：
+ * gistest.cache.latency（Timer）与 gistest.cache.payload（DistributionSummary，单位字节），均发布直方图
+ * 指标实例按 缓存名称 -> 操作（EnumMap）缓存，记录时不拼接 key、不经过 MeterRegistry 查找；
+ * EnumMap 只在首次用到某个操作时加锁写入，读取不加锁
+ */
+public class MicrometerCacheMetricsRecorder implements CacheMetricsRecorder {
+
+    public static final String LATENCY_METRIC = "gistest.cache.latency";
+
+    public static final String PAYLOAD_METRIC = "gistest.cache.payload";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, EnumMap<CacheOperation, Timer>> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, EnumMap<CacheOperation, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public MicrometerCacheMetricsRecorder(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void recordLatency(String cacheName, CacheOperation operation, long nanos) {
+        meter(timers, cacheName, operation, () -> Timer.builder(LATENCY_METRIC)
+                .description("Redis cache operation latency")
+                .tag("cache", cacheName)
+                .tag("operation", operation.getTag())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordPayload(String cacheName, CacheOperation operation, int bytes) {
+        meter(summaries, cacheName, operation, () -> DistributionSummary.builder(PAYLOAD_METRIC)
+                .description("Redis cache value size")
+                .baseUnit("bytes")
+                .tag("cache", cacheName)
+                .tag("operation", operation.getTag())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(16.0)
+                .maximumExpectedValue(16.0 * 1024 * 1024)
+                .register(registry))
+                .record(bytes);
+    }
+
+    private static <M> M meter(Map<String, EnumMap<CacheOperation, M>> meters, String cacheName, CacheOperation operation, Supplier<M> factory) {
+        EnumMap<CacheOperation, M> byOperation = meters.computeIfAbsent(cacheName, k -> new EnumMap<>(CacheOperation.class));
+        M meter = byOperation.get(operation);
+        if (meter == null) {
+            synchronized (byOperation) {
+                meter = byOperation.computeIfAbsent(operation, k -> factory.get());
+            }
+        }
+        return meter;
+    }
+}
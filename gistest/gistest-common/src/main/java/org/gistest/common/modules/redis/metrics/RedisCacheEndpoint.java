@@ -0,0 +1,88 @@
+package org.gistest.common.modules.redis.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存统计端点（/actuator/rediscache），按缓存名称查看命中率、读写次数与锁等待时间
+ * DELETE /actuator/rediscache/{name} 重置指定缓存的统计
+ */
+@Endpoint(id = "rediscache")
+public class RedisCacheEndpoint {
+
+    private final CacheManager cacheManager;
+
+    public RedisCacheEndpoint(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, CacheStats> caches() {
+        Map<String, CacheStats> caches = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            CacheStats stats = cache(name);
+            if (stats != null) {
+                caches.put(name, stats);
+            }
+        }
+        return caches;
+    }
+
+    @ReadOperation
+    @Nullable
+    public CacheStats cache(@Selector String name) {
+        RedisCache redisCache = redisCache(name);
+        return redisCache == null ? null : CacheStats.of(redisCache.getStatistics());
+    }
+
+    @DeleteOperation
+    public void reset(@Selector String name) {
+        RedisCache redisCache = redisCache(name);
+        if (redisCache != null) {
+            redisCache.clearStatistics();
+        }
+    }
+
+    @Nullable
+    private RedisCache redisCache(String name) {
+        // getCache 对未知名称会动态创建缓存，查询端点不应产生副作用
+        if (!cacheManager.getCacheNames().contains(name)) {
+            return null;
+        }
+        Cache cache = cacheManager.getCache(name);
+        // transactionAware 的缓存管理器返回的是事务装饰器
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof RedisCache redisCache ? redisCache : null;
+    }
+
+    /**
+     * @param hitRatio 命中次数 / 读取次数，未读取过时为 0
+     */
+    public record CacheStats(long gets, long hits, long misses, double hitRatio, long puts, long deletes,
+                             long lockWaitMillis, Instant since, Instant lastReset) {
+
+        static CacheStats of(CacheStatistics statistics) {
+            long gets = statistics.getGets();
+            return new CacheStats(gets, statistics.getHits(), statistics.getMisses(),
+                    gets == 0 ? 0 : (double) statistics.getHits() / gets,
+                    statistics.getPuts(), statistics.getDeletes(),
+                    statistics.getLockWaitDuration(TimeUnit.MILLISECONDS),
+                    statistics.getSince(), statistics.getLastReset());
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package org.gistest.common.modules.redis.receiver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.base.BaseMap;
+import org.gistest.common.base.TypedMessage;
+import org.gistest.common.constant.GlobalConstants;
+import org.gistest.common.modules.redis.listener.RedisListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * redis 消息分发
+ * 处理器在启动时一次性解析为不可变的 beanName -> RedisListener 映射，不再逐条消息 getBean
+ * 消息按 处理器 + 分区 放入各自的有界队列，由执行器异步处理：同一分区内顺序执行，不同处理器、分区之间并行，
+ * 慢处理器只积压自己的队列，不再阻塞监听容器线程上的其他消息
+ * 消息可以是 BaseMap 或 TypedMessage，TypedMessage 交给处理器的 onMessage(TypedMessage)
+ * 指标：gistest.redis.dispatch.queue 队列积压，gistest.redis.dispatch.latency 入队到处理完成耗时，
+ * gistest.redis.dispatch.dropped 丢弃数，gistest.redis.dispatch.failed 处理异常数
+ */
+@Slf4j
+public class RedisMessageDispatcher implements AutoCloseable {
+
+    public enum ExecutorType {
+        /**
+         * 固定大小线程池
+         */
+        POOL,
+        /**
+         * 每个任务一个虚拟线程
+         */
+        VIRTUAL
+    }
+
+    public enum Overflow {
+        /**
+         * 阻塞监听线程直到队列有空位，超时后丢弃
+         */
+        BLOCK,
+        /**
+         * 立即丢弃
+         */
+        DROP
+    }
+
+    /**
+     * 一次调度最多连续处理的消息数，处理完后让出线程，避免单个分区长期占用
+     */
+    private static final int DRAIN_BATCH = 64;
+
+    private static final String UNKNOWN_HANDLER = "unknown";
+
+    private final Map<String, RedisListener> listeners;
+
+    private final ExecutorService executor;
+
+    private final int partitions;
+
+    private final int queueCapacity;
+
+    private final Overflow overflow;
+
+    private final long blockTimeoutNanos;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Lane[]> lanes = new ConcurrentHashMap<>();
+
+    private final Counter unknownDropped;
+
+    /**
+     * 已告警过的未知处理器名称，每个名称只告警一次
+     */
+    private final Set<String> warnedHandlers = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param listeners key: 处理器 beanName
+     * @param executorType
+     * @param poolSize POOL 模式的线程数
+     * @param partitions 每个处理器的分区数
+     * @param queueCapacity 每个分区的队列容量
+     * @param overflow
+     * @param blockTimeout
+     * @param meterRegistry
+     */
+    public RedisMessageDispatcher(Map<String, RedisListener> listeners, ExecutorType executorType, int poolSize, int partitions,
+                                  int queueCapacity, Overflow overflow, Duration blockTimeout, MeterRegistry meterRegistry) {
+        Assert.isTrue(partitions > 0, "Partitions must be greater than 0");
+        Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+        this.listeners = Map.copyOf(listeners);
+        this.executor = createExecutor(executorType, poolSize);
+        this.partitions = partitions;
+        this.queueCapacity = queueCapacity;
+        this.overflow = overflow;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.unknownDropped = droppedCounter(UNKNOWN_HANDLER);
+        log.debug("redis 消息处理器:{}", this.listeners.keySet());
+    }
+
+    private static ExecutorService createExecutor(ExecutorType executorType, int poolSize) {
+        if (executorType == ExecutorType.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("redis-dispatch-", 0).factory());
+        }
+        Assert.isTrue(poolSize > 0, "Pool size must be greater than 0");
+        AtomicInteger index = new AtomicInteger();
+        // 同一时刻排队的任务数不超过分区总数，无界队列不会无限增长
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "redis-dispatch-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 分发一条消息，在监听容器线程上调用，只做入队
+     * @param message
+     */
+    public void dispatch(BaseMap message) {
+        dispatch(handlerName(message), message.get(GlobalConstants.PARTITION_KEY), message);
+    }
+
+    /**
+     * 分发一条类型化消息，在监听容器线程上调用，只做入队
+     * @param message
+     */
+    public void dispatch(TypedMessage message) {
+        dispatch(message.getString(GlobalConstants.HANDLER_NAME), message.get(GlobalConstants.PARTITION_KEY), message);
+    }
+
+    private void dispatch(@Nullable String handlerName, @Nullable Object partitionKey, Object message) {
+        RedisListener listener = resolve(handlerName);
+        if (listener == null) {
+            return;
+        }
+        if (!running) {
+            log.warn("redis 消息分发已关闭，丢弃消息，handler:{}", handlerName);
+            return;
+        }
+        Lane lane = lane(handlerName, listener, partitionKey);
+        lane.offer(message);
+    }
+
+    /**
+     * 在调用线程上直接执行处理器，用于需要处理完成后再确认的 Streams 消息
+     * @param message
+     * @return 是否找到处理器
+     */
+    public boolean handle(BaseMap message) {
+        RedisListener listener = resolve(handlerName(message));
+        if (listener == null) {
+            return false;
+        }
+        listener.onMessage(message);
+        return true;
+    }
+
+    /**
+     * 在调用线程上直接执行处理器
+     * @param message
+     * @return 是否找到处理器
+     */
+    public boolean handle(TypedMessage message) {
+        RedisListener listener = resolve(message.getString(GlobalConstants.HANDLER_NAME));
+        if (listener == null) {
+            return false;
+        }
+        listener.onMessage(message);
+        return true;
+    }
+
+    @Nullable
+    private static String handlerName(BaseMap message) {
+        Object handlerName = message.get(GlobalConstants.HANDLER_NAME);
+        return handlerName == null ? null : handlerName.toString();
+    }
+
+    @Nullable
+    private RedisListener resolve(@Nullable String handlerName) {
+        RedisListener listener = handlerName == null ? null : listeners.get(handlerName);
+        if (listener == null) {
+            if (handlerName != null && warnedHandlers.add(handlerName)) {
+                log.warn("Customize redis listener handle [ {} ], does not exist！", handlerName);
+            }
+            unknownDropped.increment();
+        }
+        return listener;
+    }
+
+    private Lane lane(String handlerName, RedisListener listener, Object partitionKey) {
+        // 首条消息时一次性创建该处理器的全部分区
+        Lane[] handlerLanes = lanes.computeIfAbsent(handlerName, name -> {
+            Lane[] created = new Lane[partitions];
+            for (int i = 0; i < partitions; i++) {
+                created[i] = new Lane(name, i, listener);
+            }
+            return created;
+        });
+        int partition = partitions == 1 || partitionKey == null ? 0 : Math.floorMod(partitionKey.hashCode(), partitions);
+        return handlerLanes[partition];
+    }
+
+    private Counter droppedCounter(String handlerName) {
+        return Counter.builder("gistest.redis.dispatch.dropped")
+                .description("Redis listener messages dropped because the queue was full or the handler does not exist")
+                .tag("handler", handlerName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 一个处理器分区：有界队列 + 串行执行，同一时刻最多一个任务在执行器中处理该分区
+     */
+    private final class Lane implements Runnable {
+
+        private final String handlerName;
+
+        private final RedisListener listener;
+
+        private final BlockingQueue<Envelope> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicBoolean dropWarned = new AtomicBoolean();
+
+        private final Timer latency;
+
+        private final Counter dropped;
+
+        private final Counter failed;
+
+        Lane(String handlerName, int partition, RedisListener listener) {
+            this.handlerName = handlerName;
+            this.listener = listener;
+            String partitionTag = String.valueOf(partition);
+            Gauge.builder("gistest.redis.dispatch.queue", queue, BlockingQueue::size)
+                    .description("Redis listener messages waiting to be handled")
+                    .tags("handler", handlerName, "partition", partitionTag)
+                    .register(meterRegistry);
+            this.latency = Timer.builder("gistest.redis.dispatch.latency")
+                    .description("Time from receiving a redis listener message to finishing its handler")
+                    .tag("handler", handlerName)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.dropped = droppedCounter(handlerName);
+            this.failed = Counter.builder("gistest.redis.dispatch.failed")
+                    .description("Redis listener messages whose handler threw an exception")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry);
+        }
+
+        void offer(Object message) {
+            Envelope envelope = new Envelope(message, System.nanoTime());
+            boolean accepted = queue.offer(envelope);
+            if (!accepted && overflow == Overflow.BLOCK) {
+                try {
+                    accepted = queue.offer(envelope, blockTimeoutNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (!accepted) {
+                dropped.increment();
+                // 持续积压时只告警一次，丢弃数量看 dropped 指标
+                if (dropWarned.compareAndSet(false, true)) {
+                    log.warn("redis 消息队列已满，开始丢弃消息，handler:{}", handlerName);
+                }
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // 关闭过程中，剩余消息不再处理
+                    scheduled.set(false);
+                    log.warn("redis 消息分发已关闭，handler:{} 剩余消息:{}", handlerName, queue.size());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Envelope envelope;
+            int processed = 0;
+            while (processed < DRAIN_BATCH && (envelope = queue.poll()) != null) {
+                try {
+                    if (envelope.message() instanceof TypedMessage typedMessage) {
+                        listener.onMessage(typedMessage);
+                    } else {
+                        listener.onMessage((BaseMap) envelope.message());
+                    }
+                } catch (Exception e) {
+                    failed.increment();
+                    log.error("redis 消息处理失败，handler:{}", handlerName, e);
+                }
+                latency.record(System.nanoTime() - envelope.receivedNanos(), TimeUnit.NANOSECONDS);
+                processed++;
+            }
+            scheduled.set(false);
+            // 释放调度标记后再检查一次，避免与入队方的竞争漏掉消息
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private record Envelope(Object message, long receivedNanos) {
+    }
+}
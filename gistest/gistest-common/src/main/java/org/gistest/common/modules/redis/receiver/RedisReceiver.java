@@ -1,27 +1,40 @@
 package org.gistest.common.modules.redis.receiver;
 
-import cn.hutool.core.util.ObjectUtil;
 import lombok.Data;
 import org.gistest.common.base.BaseMap;
-import org.gistest.common.constant.GlobalConstants;
-import org.gistest.common.modules.redis.listener.RedisListener;
-import org.gistest.common.util.SpringContextHolder;
+import org.gistest.common.base.TypedMessage;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 @Component
 @Data
 public class RedisReceiver {
+
+    private final RedisMessageDispatcher redisMessageDispatcher;
+
+    /**
+     * 处理器依赖的 bean 可能依赖监听容器，延迟到第一条消息时再解析
+     */
+    public RedisReceiver(@Lazy RedisMessageDispatcher redisMessageDispatcher) {
+        this.redisMessageDispatcher = redisMessageDispatcher;
+    }
+
     /**
-     * 接受消息并调用业务逻辑处理器
+     * 接受消息并交给分发器，业务处理器在分发线程上异步执行
      *
      * @param params
      */
     public void onMessage(BaseMap params) {
-        Object handlerName = params.get(GlobalConstants.HANDLER_NAME);
-        RedisListener messageListener = SpringContextHolder.getHandler(handlerName.toString(), RedisListener.class);
-        if (ObjectUtil.isNotEmpty(messageListener)) {
-            messageListener.onMessage(params);
-        }
+        redisMessageDispatcher.dispatch(params);
+    }
+
+    /**
+     * 接受类型化消息，MessageListenerAdapter 按反序列化结果的类型选择重载
+     *
+     * @param message
+     */
+    public void onMessage(TypedMessage message) {
+        redisMessageDispatcher.dispatch(message);
     }
 
 }
@@ -0,0 +1,138 @@
+package org.gistest.common.modules.redis.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 缓存值序列化器，可按缓存选择 JSON 或 Smile（二进制 JSON）格式，超过阈值时使用 LZ4 压缩
+ * 存储格式：
+ * 1. 未压缩的 JSON 不加头，与原 Jackson2JsonRedisSerializer 写入的数据完全一致
+ * 2. 其余格式首字节为格式头（0x01~0x03，不会与 JSON 的首字符冲突），压缩格式随后 4 字节为原始长度
+ * 3. BINARY 格式只用于 byte[] 值（瓦片等已编码的数据），首字节 0x04 后为原始字节，不经过 JSON/Base64，也不再压缩；
+ *    其他类型的值仍按 JSON 写入
+ * 读取时按首字节识别格式，因此同一缓存切换格式后，旧数据（包括历史 JSON 数据）仍可正常读取
+ */
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    public enum Format {
+        JSON, SMILE, BINARY
+    }
+
+    public enum Compression {
+        NONE, LZ4
+    }
+
+    static final byte HEADER_SMILE = 0x01;
+    static final byte HEADER_SMILE_LZ4 = 0x02;
+    static final byte HEADER_JSON_LZ4 = 0x03;
+    static final byte HEADER_BINARY = 0x04;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final ObjectMapper jsonMapper;
+
+    private final ObjectMapper smileMapper;
+
+    private final Format format;
+
+    private final Compression compression;
+
+    /**
+     * 序列化后达到该字节数才压缩，小对象压缩收益低于开销
+     */
+    private final int compressThreshold;
+
+    /**
+     * @param jsonMapper JSON 读写使用的 ObjectMapper
+     * @param smileMapper Smile 读写使用的 ObjectMapper，需与 jsonMapper 保持相同的模块和类型配置
+     */
+    public CacheValueSerializer(ObjectMapper jsonMapper, ObjectMapper smileMapper, Format format, Compression compression, int compressThreshold) {
+        Assert.notNull(jsonMapper, "Json mapper must not be null");
+        Assert.notNull(smileMapper, "Smile mapper must not be null");
+        Assert.notNull(format, "Format must not be null");
+        Assert.notNull(compression, "Compression must not be null");
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+        this.format = format;
+        this.compression = compression;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (format == Format.BINARY && value instanceof byte[] raw) {
+            byte[] result = new byte[raw.length + 1];
+            result[0] = HEADER_BINARY;
+            System.arraycopy(raw, 0, result, 1, raw.length);
+            return result;
+        }
+        try {
+            byte[] bytes = (format == Format.SMILE ? smileMapper : jsonMapper).writeValueAsBytes(value);
+            if (compression == Compression.LZ4 && bytes.length >= compressThreshold) {
+                return compress(format == Format.SMILE ? HEADER_SMILE_LZ4 : HEADER_JSON_LZ4, bytes);
+            }
+            if (format == Format.SMILE) {
+                byte[] result = new byte[bytes.length + 1];
+                result[0] = HEADER_SMILE;
+                System.arraycopy(bytes, 0, result, 1, bytes.length);
+                return result;
+            }
+            return bytes;
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case HEADER_SMILE -> smileMapper.readValue(bytes, 1, bytes.length - 1, Object.class);
+                case HEADER_SMILE_LZ4 -> smileMapper.readValue(decompress(bytes), Object.class);
+                case HEADER_JSON_LZ4 -> jsonMapper.readValue(decompress(bytes), Object.class);
+                case HEADER_BINARY -> Arrays.copyOfRange(bytes, 1, bytes.length);
+                default -> jsonMapper.readValue(bytes, Object.class);
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 格式：[header][原始长度 4 字节][LZ4 块]
+     */
+    private static byte[] compress(byte header, byte[] bytes) {
+        LZ4Compressor compressor = LZ4.fastCompressor();
+        byte[] result = new byte[5 + compressor.maxCompressedLength(bytes.length)];
+        result[0] = header;
+        ByteBuffer.wrap(result, 1, 4).putInt(bytes.length);
+        int compressedLength = compressor.compress(bytes, 0, bytes.length, result, 5);
+        byte[] trimmed = new byte[5 + compressedLength];
+        System.arraycopy(result, 0, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+
+    private static byte[] decompress(byte[] bytes) {
+        int length = ByteBuffer.wrap(bytes, 1, 4).getInt();
+        LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+        byte[] result = new byte[length];
+        decompressor.decompress(bytes, 5, result, 0, length);
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package org.gistest.common.modules.redis.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.gistest.common.modules.spatial.LazyGeometry;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+
+/**
+ * 以 WKB/TWKB 二进制读写 JTS Geometry 的 Jackson 模块，替代 JtsModule 的 GeoJSON 文本
+ * JSON 中为 base64 字符串，Smile 中为原生二进制；DTO 中嵌套的 Geometry 字段同样生效
+ * 开启默认类型（activateDefaultTyping）时以 ["类名", 数据] 的包装数组形式写出
+ * LazyGeometry 以 WKB 编码头 + EWKB 原样写入、读出，不解析几何
+ */
+public class GeometryBinaryModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public GeometryBinaryModule(GeometryCodec codec) {
+        super("GeometryBinaryModule");
+        addSerializer(Geometry.class, new GeometrySerializer(codec));
+        // 默认类型按具体类名反序列化，需为每个具体类型注册
+        addGeometryDeserializer(Geometry.class, codec);
+        addGeometryDeserializer(Point.class, codec);
+        addGeometryDeserializer(LineString.class, codec);
+        addGeometryDeserializer(LinearRing.class, codec);
+        addGeometryDeserializer(Polygon.class, codec);
+        addGeometryDeserializer(MultiPoint.class, codec);
+        addGeometryDeserializer(MultiLineString.class, codec);
+        addGeometryDeserializer(MultiPolygon.class, codec);
+        addGeometryDeserializer(GeometryCollection.class, codec);
+        addSerializer(LazyGeometry.class, new LazyGeometrySerializer());
+        addDeserializer(LazyGeometry.class, new LazyGeometryDeserializer(codec));
+    }
+
+    private <T extends Geometry> void addGeometryDeserializer(Class<T> type, GeometryCodec codec) {
+        addDeserializer(type, new GeometryDeserializer<>(type, codec));
+    }
+
+    static class GeometrySerializer extends StdSerializer<Geometry> {
+
+        private final GeometryCodec codec;
+
+        GeometrySerializer(GeometryCodec codec) {
+            super(Geometry.class);
+            this.codec = codec;
+        }
+
+        @Override
+        public void serialize(Geometry value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeBinary(codec.encode(value));
+        }
+
+        @Override
+        public void serializeWithType(Geometry value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+            WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.VALUE_EMBEDDED_OBJECT));
+            serialize(value, gen, provider);
+            typeSer.writeTypeSuffix(gen, typeId);
+        }
+    }
+
+    static class LazyGeometrySerializer extends StdSerializer<LazyGeometry> {
+
+        LazyGeometrySerializer() {
+            super(LazyGeometry.class);
+        }
+
+        @Override
+        public void serialize(LazyGeometry value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeBinary(GeometryCodec.encodeWkb(value.getEwkb()));
+        }
+
+        @Override
+        public void serializeWithType(LazyGeometry value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+            WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.VALUE_EMBEDDED_OBJECT));
+            serialize(value, gen, provider);
+            typeSer.writeTypeSuffix(gen, typeId);
+        }
+    }
+
+    static class LazyGeometryDeserializer extends StdDeserializer<LazyGeometry> {
+
+        private final GeometryCodec codec;
+
+        LazyGeometryDeserializer(GeometryCodec codec) {
+            super(LazyGeometry.class);
+            this.codec = codec;
+        }
+
+        @Override
+        public LazyGeometry deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            try {
+                return LazyGeometry.ofEwkb(codec.decodeEwkb(p.getBinaryValue()));
+            } catch (IllegalArgumentException e) {
+                return ctxt.reportInputMismatch(this, "Could not decode geometry: %s", e.getMessage());
+            }
+        }
+    }
+
+    static class GeometryDeserializer<T extends Geometry> extends StdDeserializer<T> {
+
+        private final GeometryCodec codec;
+
+        GeometryDeserializer(Class<T> type, GeometryCodec codec) {
+            super(type);
+            this.codec = codec;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Geometry geometry;
+            try {
+                geometry = codec.decode(p.getBinaryValue());
+            } catch (IllegalArgumentException e) {
+                return ctxt.reportInputMismatch(this, "Could not decode geometry: %s", e.getMessage());
+            }
+            if (!handledType().isInstance(geometry)) {
+                return ctxt.reportInputMismatch(this, "Expected %s but was %s", handledType().getSimpleName(), geometry.getGeometryType());
+            }
+            return (T) geometry;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.gistest.common.modules.redis.serializer;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.InputStreamInStream;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.util.Assert;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * JTS Geometry 二进制编解码
+ * 格式：[编码头 1 字节][数据]，WKB 数据为含 SRID 的 EWKB，TWKB 数据为 [SRID 变长整数][TWKB]
+ * 解码按编码头识别，与当前配置的编码方式无关，切换编码后旧数据仍可读取
+ */
+public class GeometryCodec {
+
+    static final byte HEADER_WKB = 0x01;
+    static final byte HEADER_TWKB = 0x02;
+
+    /**
+     * WKBReader/WKBWriter 非线程安全，按线程复用
+     */
+    private static final ThreadLocal<WKBReader> WKB_READER = ThreadLocal.withInitial(() -> new WKBReader(new GeometryFactory()));
+    private static final ThreadLocal<WKBWriter> WKB_WRITER_2D = ThreadLocal.withInitial(() -> new WKBWriter(2, true));
+    private static final ThreadLocal<WKBWriter> WKB_WRITER_3D = ThreadLocal.withInitial(() -> new WKBWriter(3, true));
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private final GeometryEncoding encoding;
+
+    /**
+     * TWKB 坐标保留的小数位数，如经纬度 7 位约为 1 厘米
+     */
+    private final int precision;
+
+    public GeometryCodec(GeometryEncoding encoding, int precision) {
+        Assert.isTrue(encoding == GeometryEncoding.WKB || encoding == GeometryEncoding.TWKB, "Encoding must be WKB or TWKB");
+        Assert.isTrue(precision >= -7 && precision <= 7, "Precision must be between -7 and 7");
+        this.encoding = encoding;
+        this.precision = precision;
+    }
+
+    public byte[] encode(Geometry geometry) {
+        if (encoding == GeometryEncoding.TWKB) {
+            try {
+                return encodeTwkb(geometry);
+            } catch (IllegalArgumentException e) {
+                // TWKB 无法表示的几何（如多点中含空点）退回 WKB
+            }
+        }
+        return encodeWkb(geometry);
+    }
+
+    public Geometry decode(byte[] bytes) {
+        Assert.isTrue(bytes != null && bytes.length > 1, "Geometry bytes must not be empty");
+        try {
+            return switch (bytes[0]) {
+                case HEADER_WKB -> WKB_READER.get().read(new InputStreamInStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1)));
+                case HEADER_TWKB -> {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+                    int srid = (int) Twkb.readSignedVarint(buffer);
+                    Geometry geometry = new Twkb.Reader(buffer, GEOMETRY_FACTORY).read();
+                    geometry.setSRID(srid);
+                    yield geometry;
+                }
+                default -> throw new IllegalArgumentException("Unknown geometry encoding header: " + bytes[0]);
+            };
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Could not decode geometry: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取 EWKB（也接受不含 SRID 的 WKB），PostGIS 的 geometry 二进制格式
+     * @param ewkb
+     * @return SRID 取自 EWKB，没有时为 0
+     */
+    public static Geometry readEwkb(byte[] ewkb) {
+        try {
+            return WKB_READER.get().read(ewkb);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Could not decode geometry: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写出含 SRID 的 EWKB，有 Z 坐标时写三维
+     */
+    public static byte[] writeEwkb(Geometry geometry) {
+        return (hasZ(geometry) ? WKB_WRITER_3D : WKB_WRITER_2D).get().write(geometry);
+    }
+
+    /**
+     * 解码为 EWKB：WKB 编码的数据直接截取，不解析几何
+     */
+    byte[] decodeEwkb(byte[] bytes) {
+        Assert.isTrue(bytes != null && bytes.length > 1, "Geometry bytes must not be empty");
+        return bytes[0] == HEADER_WKB ? Arrays.copyOfRange(bytes, 1, bytes.length) : writeEwkb(decode(bytes));
+    }
+
+    static byte[] encodeWkb(byte[] ewkb) {
+        byte[] result = new byte[ewkb.length + 1];
+        result[0] = HEADER_WKB;
+        System.arraycopy(ewkb, 0, result, 1, ewkb.length);
+        return result;
+    }
+
+    private static byte[] encodeWkb(Geometry geometry) {
+        return encodeWkb(writeEwkb(geometry));
+    }
+
+    private byte[] encodeTwkb(Geometry geometry) {
+        Twkb.Writer writer = new Twkb.Writer(precision, hasZ(geometry));
+        writer.writeByte(HEADER_TWKB);
+        writer.writeSignedVarint(geometry.getSRID());
+        writer.write(geometry);
+        return writer.toByteArray();
+    }
+
+    private static boolean hasZ(Geometry geometry) {
+        Coordinate coordinate = geometry.getCoordinate();
+        return coordinate != null && !Double.isNaN(coordinate.getZ());
+    }
+}
@@ -0,0 +1,15 @@
+package org.gistest.common.modules.redis.serializer;
+
+/**
+ * 缓存中 JTS Geometry 的编码方式
+ */
+public enum GeometryEncoding {
+    /**
+     * EWKB（含 SRID），坐标无损
+     */
+    WKB,
+    /**
+     * TWKB，坐标按精度取整后差分变长编码，体积最小
+     */
+    TWKB
+}
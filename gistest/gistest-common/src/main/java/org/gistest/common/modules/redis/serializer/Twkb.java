@@ -0,0 +1,370 @@
+package org.gistest.common.modules.redis.serializer;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * TWKB（Tiny Well-known Binary）读写，jts-core 1.19 未提供
+ * 坐标按精度取整后存与上一个坐标的差值，差值做 zigzag 变长编码；支持 XY 与 XYZ，读取时忽略 M
+ * 规范：https://github.com/TWKB/Specification/blob/master/twkb.md
+ */
+final class Twkb {
+
+    private static final int TYPE_POINT = 1;
+    private static final int TYPE_LINESTRING = 2;
+    private static final int TYPE_POLYGON = 3;
+    private static final int TYPE_MULTIPOINT = 4;
+    private static final int TYPE_MULTILINESTRING = 5;
+    private static final int TYPE_MULTIPOLYGON = 6;
+    private static final int TYPE_COLLECTION = 7;
+
+    private static final int META_BBOX = 0x01;
+    private static final int META_SIZE = 0x02;
+    private static final int META_IDLIST = 0x04;
+    private static final int META_EXTENDED_DIMS = 0x08;
+    private static final int META_EMPTY = 0x10;
+
+    /**
+     * Z 坐标保留的小数位数（扩展维度字节中只有 3 位）
+     */
+    private static final int Z_PRECISION = 3;
+
+    private Twkb() {
+    }
+
+    static class Writer {
+        private final int precision;
+        private final double scale;
+        private final boolean hasZ;
+        private final double zScale = Math.pow(10, Z_PRECISION);
+        private final long[] last = new long[3];
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        Writer(int precision, boolean hasZ) {
+            this.precision = precision;
+            this.scale = Math.pow(10, precision);
+            this.hasZ = hasZ;
+        }
+
+        void write(Geometry geometry) {
+            int type = typeOf(geometry);
+            writeByte((zigzag(precision) << 4) | type);
+            boolean empty = geometry.isEmpty();
+            writeByte((empty ? META_EMPTY : 0) | (hasZ ? META_EXTENDED_DIMS : 0));
+            if (hasZ) {
+                writeByte(0x01 | (Z_PRECISION << 2));
+            }
+            if (empty) {
+                return;
+            }
+            // 每个 TWKB 几何的差值都从原点开始
+            Arrays.fill(last, 0);
+            switch (type) {
+                case TYPE_POINT -> writeCoordinates(((Point) geometry).getCoordinateSequence(), false);
+                case TYPE_LINESTRING -> writeCoordinates(((LineString) geometry).getCoordinateSequence(), true);
+                case TYPE_POLYGON -> writePolygon((Polygon) geometry);
+                case TYPE_COLLECTION -> {
+                    writeUnsignedVarint(geometry.getNumGeometries());
+                    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                        write(geometry.getGeometryN(i));
+                    }
+                }
+                default -> {
+                    int count = geometry.getNumGeometries();
+                    writeUnsignedVarint(count);
+                    for (int i = 0; i < count; i++) {
+                        Geometry part = geometry.getGeometryN(i);
+                        if (type == TYPE_MULTIPOINT) {
+                            if (part.isEmpty()) {
+                                throw new IllegalArgumentException("TWKB can not encode empty point in MultiPoint");
+                            }
+                            writeCoordinates(((Point) part).getCoordinateSequence(), false);
+                        } else if (type == TYPE_MULTILINESTRING) {
+                            writeCoordinates(((LineString) part).getCoordinateSequence(), true);
+                        } else {
+                            writePolygon((Polygon) part);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void writePolygon(Polygon polygon) {
+            if (polygon.isEmpty()) {
+                writeUnsignedVarint(0);
+                return;
+            }
+            writeUnsignedVarint(polygon.getNumInteriorRing() + 1);
+            writeCoordinates(polygon.getExteriorRing().getCoordinateSequence(), true);
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                writeCoordinates(polygon.getInteriorRingN(i).getCoordinateSequence(), true);
+            }
+        }
+
+        private void writeCoordinates(CoordinateSequence sequence, boolean withCount) {
+            if (withCount) {
+                writeUnsignedVarint(sequence.size());
+            }
+            for (int i = 0; i < sequence.size(); i++) {
+                writeOrdinate(0, Math.round(sequence.getX(i) * scale));
+                writeOrdinate(1, Math.round(sequence.getY(i) * scale));
+                if (hasZ) {
+                    writeOrdinate(2, Math.round(sequence.getOrdinate(i, CoordinateSequence.Z) * zScale));
+                }
+            }
+        }
+
+        private void writeOrdinate(int dimension, long value) {
+            writeSignedVarint(value - last[dimension]);
+            last[dimension] = value;
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeSignedVarint(long value) {
+            writeUnsignedVarint(zigzag(value));
+        }
+
+        private void writeUnsignedVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    static class Reader {
+        private final ByteBuffer buffer;
+        private final GeometryFactory factory;
+
+        Reader(ByteBuffer buffer, GeometryFactory factory) {
+            this.buffer = buffer;
+            this.factory = factory;
+        }
+
+        Geometry read() {
+            int header = buffer.get() & 0xFF;
+            int type = header & 0x0F;
+            double scale = Math.pow(10, unzigzag(header >>> 4));
+            int metadata = buffer.get() & 0xFF;
+            boolean hasZ = false;
+            boolean hasM = false;
+            double zScale = 1;
+            if ((metadata & META_EXTENDED_DIMS) != 0) {
+                int dims = buffer.get() & 0xFF;
+                hasZ = (dims & 0x01) != 0;
+                hasM = (dims & 0x02) != 0;
+                zScale = Math.pow(10, (dims >>> 2) & 0x07);
+            }
+            if ((metadata & META_EMPTY) != 0) {
+                return createEmpty(type);
+            }
+            if ((metadata & META_SIZE) != 0) {
+                readUnsignedVarint(buffer);
+            }
+            if ((metadata & META_BBOX) != 0) {
+                int dims = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+                for (int i = 0; i < dims * 2; i++) {
+                    readUnsignedVarint(buffer);
+                }
+            }
+            boolean hasIdList = (metadata & META_IDLIST) != 0;
+            State state = new State(scale, hasZ, hasM, zScale);
+            switch (type) {
+                case TYPE_POINT:
+                    return factory.createPoint(readCoordinates(state, 1));
+                case TYPE_LINESTRING:
+                    return factory.createLineString(readCoordinates(state, readCount()));
+                case TYPE_POLYGON:
+                    return readPolygon(state);
+                default:
+                    break;
+            }
+            int count = readCount();
+            if (hasIdList) {
+                for (int i = 0; i < count; i++) {
+                    readUnsignedVarint(buffer);
+                }
+            }
+            switch (type) {
+                case TYPE_MULTIPOINT: {
+                    Point[] points = new Point[count];
+                    for (int i = 0; i < count; i++) {
+                        points[i] = factory.createPoint(readCoordinates(state, 1));
+                    }
+                    return factory.createMultiPoint(points);
+                }
+                case TYPE_MULTILINESTRING: {
+                    LineString[] lines = new LineString[count];
+                    for (int i = 0; i < count; i++) {
+                        lines[i] = factory.createLineString(readCoordinates(state, readCount()));
+                    }
+                    return factory.createMultiLineString(lines);
+                }
+                case TYPE_MULTIPOLYGON: {
+                    Polygon[] polygons = new Polygon[count];
+                    for (int i = 0; i < count; i++) {
+                        polygons[i] = readPolygon(state);
+                    }
+                    return factory.createMultiPolygon(polygons);
+                }
+                case TYPE_COLLECTION: {
+                    Geometry[] geometries = new Geometry[count];
+                    for (int i = 0; i < count; i++) {
+                        geometries[i] = read();
+                    }
+                    return factory.createGeometryCollection(geometries);
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown TWKB geometry type: " + type);
+            }
+        }
+
+        private Polygon readPolygon(State state) {
+            int rings = readCount();
+            if (rings == 0) {
+                return factory.createPolygon();
+            }
+            LinearRing shell = factory.createLinearRing(readCoordinates(state, readCount()));
+            LinearRing[] holes = new LinearRing[rings - 1];
+            for (int i = 0; i < holes.length; i++) {
+                holes[i] = factory.createLinearRing(readCoordinates(state, readCount()));
+            }
+            return factory.createPolygon(shell, holes);
+        }
+
+        private CoordinateSequence readCoordinates(State state, int count) {
+            CoordinateSequence sequence = factory.getCoordinateSequenceFactory().create(count, state.hasZ ? 3 : 2);
+            for (int i = 0; i < count; i++) {
+                state.x += readSignedVarint(buffer);
+                state.y += readSignedVarint(buffer);
+                sequence.setOrdinate(i, CoordinateSequence.X, state.x / state.scale);
+                sequence.setOrdinate(i, CoordinateSequence.Y, state.y / state.scale);
+                if (state.hasZ) {
+                    state.z += readSignedVarint(buffer);
+                    sequence.setOrdinate(i, CoordinateSequence.Z, state.z / state.zScale);
+                }
+                if (state.hasM) {
+                    readSignedVarint(buffer);
+                }
+            }
+            return sequence;
+        }
+
+        private int readCount() {
+            return (int) readUnsignedVarint(buffer);
+        }
+
+        private Geometry createEmpty(int type) {
+            return switch (type) {
+                case TYPE_POINT -> factory.createPoint();
+                case TYPE_LINESTRING -> factory.createLineString();
+                case TYPE_POLYGON -> factory.createPolygon();
+                case TYPE_MULTIPOINT -> factory.createMultiPoint();
+                case TYPE_MULTILINESTRING -> factory.createMultiLineString();
+                case TYPE_MULTIPOLYGON -> factory.createMultiPolygon();
+                default -> factory.createGeometryCollection();
+            };
+        }
+    }
+
+    /**
+     * 读取过程中的差值基准
+     */
+    private static class State {
+        final double scale;
+        final boolean hasZ;
+        final boolean hasM;
+        final double zScale;
+        long x;
+        long y;
+        long z;
+
+        State(double scale, boolean hasZ, boolean hasM, double zScale) {
+            this.scale = scale;
+            this.hasZ = hasZ;
+            this.hasM = hasM;
+            this.zScale = zScale;
+        }
+    }
+
+    private static int typeOf(Geometry geometry) {
+        // 子类需在父类之前判断（LinearRing extends LineString）
+        if (geometry instanceof Point) {
+            return TYPE_POINT;
+        } else if (geometry instanceof LineString) {
+            return TYPE_LINESTRING;
+        } else if (geometry instanceof Polygon) {
+            return TYPE_POLYGON;
+        } else if (geometry instanceof MultiPoint) {
+            return TYPE_MULTIPOINT;
+        } else if (geometry instanceof MultiLineString) {
+            return TYPE_MULTILINESTRING;
+        } else if (geometry instanceof MultiPolygon) {
+            return TYPE_MULTIPOLYGON;
+        } else if (geometry instanceof GeometryCollection) {
+            return TYPE_COLLECTION;
+        }
+        throw new IllegalArgumentException("Unsupported geometry type: " + geometry.getGeometryType());
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readSignedVarint(ByteBuffer buffer) {
+        return unzigzag(readUnsignedVarint(buffer));
+    }
+
+    private static long readUnsignedVarint(ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+}
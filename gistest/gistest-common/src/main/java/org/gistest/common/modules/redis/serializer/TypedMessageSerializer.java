@@ -0,0 +1,41 @@
+package org.gistest.common.modules.redis.serializer;
+
+import org.gistest.common.base.TypedMessage;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * redis 消息序列化器，TypedMessage 使用其二进制格式，其余对象交给 delegate（Jackson）
+ * 读取时按首字节识别，TypedMessage 的魔数不会出现在 JSON 开头，两种消息可在同一频道、流中混用
+ */
+public class TypedMessageSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+
+    public TypedMessageSerializer(RedisSerializer<Object> delegate) {
+        Assert.notNull(delegate, "Delegate serializer must not be null");
+        this.delegate = delegate;
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value instanceof TypedMessage message) {
+            return message.encode();
+        }
+        return delegate.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (TypedMessage.isEncoded(bytes)) {
+            try {
+                return TypedMessage.decode(bytes);
+            } catch (IllegalArgumentException e) {
+                throw new SerializationException("Could not read typed message", e);
+            }
+        }
+        return delegate.deserialize(bytes);
+    }
+}
@@ -0,0 +1,277 @@
+package org.gistest.common.modules.redis.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.base.BaseMap;
+import org.gistest.common.base.TypedMessage;
+import org.gistest.common.modules.redis.receiver.RedisMessageDispatcher;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 redis Streams 的可靠消息通道，与 pub/sub 通道（GlobalConstants.REDIS_TOPIC_NAME）并存
+ * 消息体与 pub/sub 相同（带 handlerName 的 BaseMap 或 TypedMessage），由同一批 RedisListener 处理，处理器无需改动
+ * 消费组默认按节点划分（每个节点一个组），每条消息每个节点都会收到；配置共享组名时为多节点分摊消费
+ * 每批 XREADGROUP 读取后逐条处理，整批一次 XACK；重启后先重放本节点已投递未确认的消息，再从组的位置继续读，
+ * 停机、GC 停顿期间发布的消息不会丢失
+ * 需要可靠送达的消息（路由刷新、配置变更等）调用 publish，低延迟、允许丢失的消息仍走 pub/sub
+ */
+@Slf4j
+public class RedisStreamEventBus implements AutoCloseable {
+
+    /**
+     * 消息体字段名
+     */
+    private static final byte[] PAYLOAD_FIELD = "m".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final RedisSerializer<Object> serializer;
+
+    private final RedisMessageDispatcher dispatcher;
+
+    private final byte[] streamKey;
+
+    private final String group;
+
+    private final Consumer consumer;
+
+    private final int batchSize;
+
+    private final Duration blockTime;
+
+    private final RedisStreamCommands.XAddOptions addOptions;
+
+    /**
+     * 读取本消费者已投递未确认的消息（ID 0）
+     */
+    private final StreamOffset<byte[]>[] pendingOffsets;
+
+    /**
+     * 读取新消息（>）
+     */
+    private final StreamOffset<byte[]>[] newOffsets;
+
+    private final Counter consumed;
+
+    private final Counter failed;
+
+    private volatile boolean running;
+
+    @Nullable
+    private Thread worker;
+
+    /**
+     * @param streamKey 流名称
+     * @param group 消费组
+     * @param consumerName 本节点的消费者名称，重启后需保持不变才能重放未确认的消息
+     * @param batchSize 每次 XREADGROUP 的 COUNT
+     * @param blockTime 每次 XREADGROUP 的 BLOCK 时间
+     * @param maxLength 流的近似最大长度（XADD MAXLEN ~），小于等于 0 时不裁剪
+     */
+    public RedisStreamEventBus(RedisConnectionFactory connectionFactory, RedisSerializer<Object> serializer, RedisMessageDispatcher dispatcher,
+                               String streamKey, String group, String consumerName, int batchSize, Duration blockTime, long maxLength,
+                               MeterRegistry meterRegistry) {
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+        this.connectionFactory = connectionFactory;
+        this.serializer = serializer;
+        this.dispatcher = dispatcher;
+        this.streamKey = streamKey.getBytes(StandardCharsets.UTF_8);
+        this.group = group;
+        this.consumer = Consumer.from(group, consumerName);
+        this.batchSize = batchSize;
+        this.blockTime = blockTime;
+        this.addOptions = maxLength > 0 ? RedisStreamCommands.XAddOptions.maxlen(maxLength).approximateTrimming(true) : RedisStreamCommands.XAddOptions.none();
+        this.pendingOffsets = offsets(this.streamKey, ReadOffset.from("0"));
+        this.newOffsets = offsets(this.streamKey, ReadOffset.lastConsumed());
+        this.consumed = Counter.builder("gistest.redis.stream.consumed")
+                .description("Redis stream messages handled and acknowledged")
+                .tag("stream", streamKey)
+                .register(meterRegistry);
+        this.failed = Counter.builder("gistest.redis.stream.failed")
+                .description("Redis stream messages whose handler threw an exception")
+                .tag("stream", streamKey)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 发布一条消息
+     * @param message 需包含 GlobalConstants.HANDLER_NAME
+     * @return 消息 ID
+     */
+    public RecordId publish(BaseMap message) {
+        return add(serializer.serialize(message));
+    }
+
+    /**
+     * 发布一条类型化消息
+     * @param message 需包含 GlobalConstants.HANDLER_NAME
+     * @return 消息 ID
+     */
+    public RecordId publish(TypedMessage message) {
+        return add(message.encode());
+    }
+
+    private RecordId add(byte[] payload) {
+        ByteRecord record = StreamRecords.rawBytes(Map.of(PAYLOAD_FIELD, payload)).withStreamKey(streamKey);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return connection.streamCommands().xAdd(record, addOptions);
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::consumeLoop, "redis-stream-" + consumer.getName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    private void consumeLoop() {
+        // 长期持有一个连接，阻塞读取在其专用连接上进行，不占用共享连接
+        RedisConnection connection = null;
+        // 先读本消费者已投递未确认的消息（ID 0），读完后切换为新消息（>）
+        boolean pending = true;
+        while (running) {
+            try {
+                if (connection == null) {
+                    connection = connectionFactory.getConnection();
+                    createGroup(connection);
+                }
+                StreamReadOptions options = pending ? StreamReadOptions.empty().count(batchSize)
+                        : StreamReadOptions.empty().count(batchSize).block(blockTime);
+                List<ByteRecord> records = connection.streamCommands().xReadGroup(consumer, options, pending ? pendingOffsets : newOffsets);
+                if (records == null || records.isEmpty()) {
+                    pending = false;
+                    continue;
+                }
+                RecordId[] ids = new RecordId[records.size()];
+                for (int i = 0; i < records.size(); i++) {
+                    ByteRecord record = records.get(i);
+                    handle(record);
+                    ids[i] = record.getId();
+                }
+                connection.streamCommands().xAck(streamKey, group, ids);
+                consumed.increment(ids.length);
+            } catch (RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                // 连接异常时重连，并重新读取未确认的消息，处理器需能容忍重复消息
+                log.warn("redis stream 读取失败，1 秒后重试", e);
+                connection = closeQuietly(connection);
+                pending = true;
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+        closeQuietly(connection);
+    }
+
+    /**
+     * 处理单条消息，处理器异常只记录不重试，避免一条坏消息阻塞整个流
+     */
+    private void handle(ByteRecord record) {
+        byte[] payload = null;
+        for (Map.Entry<byte[], byte[]> entry : record.getValue().entrySet()) {
+            if (Arrays.equals(entry.getKey(), PAYLOAD_FIELD)) {
+                payload = entry.getValue();
+            }
+        }
+        // 未确认期间被 MAXLEN 裁剪掉的消息只剩 ID
+        if (payload == null) {
+            return;
+        }
+        try {
+            Object message = serializer.deserialize(payload);
+            if (message instanceof TypedMessage typedMessage) {
+                dispatcher.handle(typedMessage);
+            } else if (message instanceof BaseMap baseMap) {
+                dispatcher.handle(baseMap);
+            } else {
+                log.warn("redis stream 消息格式错误，id:{}", record.getId());
+            }
+        } catch (Exception e) {
+            failed.increment();
+            log.error("redis stream 消息处理失败，id:{}", record.getId(), e);
+        }
+    }
+
+    /**
+     * xReadGroup 的参数为泛型可变参数，直接传单个 StreamOffset 会产生 unchecked 警告，这里预先建好数组
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static StreamOffset<byte[]>[] offsets(byte[] streamKey, ReadOffset readOffset) {
+        StreamOffset<byte[]>[] offsets = new StreamOffset[1];
+        offsets[0] = StreamOffset.create(streamKey, readOffset);
+        return offsets;
+    }
+
+    /**
+     * 创建消费组，新建的组从当前最新位置开始消费；组已存在时忽略
+     */
+    private void createGroup(RedisConnection connection) {
+        try {
+            connection.streamCommands().xGroupCreate(streamKey, group, ReadOffset.latest(), true);
+            log.info("创建 redis stream 消费组，group:{}", group);
+        } catch (RuntimeException e) {
+            if (!isBusyGroup(e)) {
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isBusyGroup(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("BUSYGROUP")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static RedisConnection closeQuietly(@Nullable RedisConnection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (RuntimeException e) {
+                log.debug("redis stream connection close failed", e);
+            }
+        }
+        return null;
+    }
+}
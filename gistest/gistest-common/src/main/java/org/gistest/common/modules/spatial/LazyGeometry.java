@@ -0,0 +1,131 @@
+package org.gistest.common.modules.spatial;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.gistest.common.modules.redis.serializer.GeometryCodec;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * 延迟解析的几何：保存 PostGIS 的 EWKB，首次调用 getGeometry 时才解析为 JTS Geometry
+ * 只是读出后写入缓存或响应的几何不需要解析：缓存（GeometryBinaryModule）直接写入 EWKB，JSON 中为十六进制 EWKB 字符串（OpenLayers 的 WKB 格式可直接读取），
+ * 作为 SQL 参数时原样传回数据库
+ * 从 Geometry 创建时同样延迟编码
+ */
+public final class LazyGeometry implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final int SRID_FLAG = 0x20000000;
+
+    private volatile byte[] ewkb;
+
+    private transient volatile Geometry geometry;
+
+    private LazyGeometry(byte[] ewkb, Geometry geometry) {
+        this.ewkb = ewkb;
+        this.geometry = geometry;
+    }
+
+    /**
+     * @param ewkb EWKB 或 WKB，不复制，之后不要修改
+     */
+    public static LazyGeometry ofEwkb(byte[] ewkb) {
+        Assert.isTrue(ewkb != null && ewkb.length >= 5, "Geometry bytes must not be empty");
+        return new LazyGeometry(ewkb, null);
+    }
+
+    /**
+     * @param hex 十六进制 EWKB，PostGIS geometry 的文本格式
+     */
+    @JsonCreator
+    public static LazyGeometry ofHex(String hex) {
+        return ofEwkb(HexFormat.of().parseHex(hex));
+    }
+
+    public static LazyGeometry of(Geometry geometry) {
+        Assert.notNull(geometry, "Geometry must not be null");
+        return new LazyGeometry(null, geometry);
+    }
+
+    /**
+     * @return 解析后的几何，结果会缓存，不要修改
+     */
+    public Geometry getGeometry() {
+        Geometry result = geometry;
+        if (result == null) {
+            result = GeometryCodec.readEwkb(ewkb);
+            geometry = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return EWKB，不要修改
+     */
+    public byte[] getEwkb() {
+        byte[] result = ewkb;
+        if (result == null) {
+            result = GeometryCodec.writeEwkb(geometry);
+            ewkb = result;
+        }
+        return result;
+    }
+
+    /**
+     * 从 EWKB 头部读取 SRID，不解析几何
+     * @return 没有 SRID 时为 0
+     */
+    public int getSrid() {
+        Geometry parsed = geometry;
+        if (parsed != null) {
+            return parsed.getSRID();
+        }
+        byte[] bytes = ewkb;
+        boolean littleEndian = bytes[0] == 1;
+        return (readInt(bytes, 1, littleEndian) & SRID_FLAG) != 0 && bytes.length >= 9 ? readInt(bytes, 5, littleEndian) : 0;
+    }
+
+    public boolean isDecoded() {
+        return geometry != null;
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getEwkb();
+        out.defaultWriteObject();
+    }
+
+    @JsonValue
+    public String toHex() {
+        return HexFormat.of().withUpperCase().formatHex(getEwkb());
+    }
+
+    private static int readInt(byte[] bytes, int offset, boolean littleEndian) {
+        int b0 = bytes[offset] & 0xFF, b1 = bytes[offset + 1] & 0xFF, b2 = bytes[offset + 2] & 0xFF, b3 = bytes[offset + 3] & 0xFF;
+        return littleEndian ? b0 | b1 << 8 | b2 << 16 | b3 << 24 : b3 | b2 << 8 | b1 << 16 | b0 << 24;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof LazyGeometry other && Arrays.equals(getEwkb(), other.getEwkb());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(getEwkb());
+    }
+
+    @Override
+    public String toString() {
+        return isDecoded() ? geometry.toString() : "LazyGeometry[" + getEwkb().length + " bytes, srid=" + getSrid() + "]";
+    }
+}
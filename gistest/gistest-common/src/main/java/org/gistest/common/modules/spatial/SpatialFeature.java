@@ -0,0 +1,14 @@
+package org.gistest.common.modules.spatial;
+
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Map;
+
+/**
+ * 空间索引中的要素
+ * @param id 要素 id，变更消息按 id 增量刷新
+ * @param geometry 几何，WGS84 经纬度
+ * @param attributes 属性，不要修改
+ */
+public record SpatialFeature(long id, Geometry geometry, Map<String, Object> attributes) {
+}
@@ -0,0 +1,31 @@
+package org.gistest.common.modules.spatial;
+
+import jakarta.annotation.Resource;
+import org.gistest.common.base.BaseMap;
+import org.gistest.common.base.TypedMessage;
+import org.gistest.common.constant.GlobalConstants;
+import org.gistest.common.modules.redis.listener.RedisListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 空间索引变更处理器：数据更新的节点调用 SpatialIndexService.publishChange，每个节点据此增量刷新本节点的索引
+ */
+@Component(GlobalConstants.SPATIAL_INDEX_CHANGE_HANDLER)
+public class SpatialIndexChangeListener implements RedisListener {
+
+    @Resource
+    private SpatialIndexService spatialIndexService;
+
+    @Override
+    public void onMessage(BaseMap message) {
+        onMessage(TypedMessage.fromMap(message));
+    }
+
+    @Override
+    public void onMessage(TypedMessage message) {
+        String layer = message.getString(SpatialIndexService.LAYER);
+        if (layer != null) {
+            spatialIndexService.applyChanges(layer, message.getLongs(SpatialIndexService.IDS));
+        }
+    }
+}
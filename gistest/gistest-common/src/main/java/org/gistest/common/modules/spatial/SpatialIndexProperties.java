@@ -0,0 +1,52 @@
+package org.gistest.common.modules.spatial;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "gistest.spatial")
+public class SpatialIndexProperties {
+    /**
+     * 加载到内存空间索引的图层名称，由 SpatialLayerSource 提供数据
+     */
+    private List<String> layers = new ArrayList<>();
+    public List<String> getLayers() { return layers; }
+    public void setLayers(List<String> layers) { this.layers = layers; }
+
+    /**
+     * 索引类型：HPR（Hilbert 打包 R 树，构建快、内存小）或 STR（Sort-Tile-Recursive 打包 R 树）
+     */
+    private IndexType indexType = IndexType.HPR;
+    public IndexType getIndexType() { return indexType; }
+    public void setIndexType(IndexType indexType) { this.indexType = indexType; }
+
+    /**
+     * 索引节点容量
+     */
+    private int nodeCapacity = 16;
+    public int getNodeCapacity() { return nodeCapacity; }
+    public void setNodeCapacity(int nodeCapacity) { this.nodeCapacity = nodeCapacity; }
+
+    /**
+     * 收到变更后等待的时间，期间的变更合并为一次重建
+     */
+    private Duration refreshDelay = Duration.ofMillis(500);
+    public Duration getRefreshDelay() { return refreshDelay; }
+    public void setRefreshDelay(Duration refreshDelay) { this.refreshDelay = refreshDelay; }
+
+    /**
+     * 定期全量重建的间隔，兜底 pub/sub 丢失的变更消息；为 0 时不定期重建（变更消息走 redis Streams 时无需开启）
+     */
+    private Duration fullRefreshInterval = Duration.ZERO;
+    public Duration getFullRefreshInterval() { return fullRefreshInterval; }
+    public void setFullRefreshInterval(Duration fullRefreshInterval) { this.fullRefreshInterval = fullRefreshInterval; }
+
+    public enum IndexType {
+        HPR,
+        STR
+    }
+}
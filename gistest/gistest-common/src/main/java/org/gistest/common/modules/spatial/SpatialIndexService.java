@@ -0,0 +1,376 @@
+package org.gistest.common.modules.spatial;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.base.TypedMessage;
+import org.gistest.common.constant.GlobalConstants;
+import org.gistest.common.modules.redis.config.RedisCacheTtls;
+import org.gistest.common.modules.redis.stream.RedisStreamEventBus;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.hprtree.HPRtree;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存空间索引：变化不频繁的图层（行政区划、地块等）加载到打包 R 树（HPRtree / STRtree），
+ * 范围查询与点落区查询不访问数据库
+ * 索引构建后只读，查询无锁；刷新时复制要素表、应用变更、重新打包，再整体替换（copy-on-write），
+ * 查询始终看到完整的旧索引或新索引；未变化的要素复用 PreparedGeometry，已建立的内部索引不丢失
+ * 变更通过 publishChange 广播（启用 redis Streams 时走可靠通道，否则走 pub/sub），refreshDelay 内的变更合并为一次重建
+ * 指标：gistest.spatial.features、gistest.spatial.memory（估算字节数）、gistest.spatial.query（查询耗时）、gistest.spatial.rebuild（重建耗时）
+ */
+@Slf4j
+@Service
+public class SpatialIndexService {
+
+    static final String LAYER = "layer";
+
+    static final String IDS = "ids";
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    /**
+     * 重建失败后的重试间隔
+     */
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    @Resource
+    private SpatialIndexProperties spatialIndexProperties;
+
+    @Autowired
+    private ObjectProvider<SpatialLayerSource> sources;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private ObjectProvider<RedisStreamEventBus> redisStreamEventBus;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private RedisCacheTtls redisCacheTtls;
+
+    private final Map<String, LayerIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 待重建的图层，由 pending 自身加锁
+     */
+    private final Map<String, Pending> pending = new HashMap<>();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private MeterRegistry registry;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        if (spatialIndexProperties.getLayers().isEmpty()) {
+            return;
+        }
+        // 单线程重建，同一图层的变更按顺序应用
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("spatial-index").daemon().factory());
+        for (String layer : spatialIndexProperties.getLayers()) {
+            Gauge.builder("gistest.spatial.features", indexes, m -> m.containsKey(layer) ? m.get(layer).entries.size() : 0)
+                    .description("Features in the in-memory spatial index")
+                    .tag(LAYER, layer)
+                    .register(registry);
+            Gauge.builder("gistest.spatial.memory", indexes, m -> m.containsKey(layer) ? m.get(layer).memoryBytes : 0)
+                    .description("Estimated heap used by the in-memory spatial index")
+                    .baseUnit("bytes")
+                    .tag(LAYER, layer)
+                    .register(registry);
+            refresh(layer);
+        }
+        long interval = spatialIndexProperties.getFullRefreshInterval().toMillis();
+        if (interval > 0) {
+            executor.scheduleWithFixedDelay(() -> spatialIndexProperties.getLayers().forEach(this::refresh), interval, interval, TimeUnit.MILLISECONDS);
+        }
+        log.info("内存空间索引图层:{}，索引类型:{}", spatialIndexProperties.getLayers(), spatialIndexProperties.getIndexType());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return 图层索引是否已加载完成，未完成时 query/locate 抛出 IllegalStateException，调用方可改为查询数据库
+     */
+    public boolean isReady(String layer) {
+        return indexes.containsKey(layer);
+    }
+
+    /**
+     * 范围查询
+     * @param layer 图层名称
+     * @param envelope 范围，WGS84 经纬度
+     * @return 与范围相交的要素
+     */
+    public List<SpatialFeature> query(String layer, Envelope envelope) {
+        long start = System.nanoTime();
+        LayerIndex index = index(layer);
+        Geometry rectangle = GEOMETRY_FACTORY.toGeometry(envelope);
+        List<SpatialFeature> result = new ArrayList<>();
+        index.tree.query(envelope, item -> {
+            Entry entry = (Entry) item;
+            // 外包矩形在范围内的要素必然相交，跳过精确判断
+            if (envelope.covers(entry.envelope) || entry.prepared.intersects(rectangle)) {
+                result.add(entry.feature);
+            }
+        });
+        timer(layer, "query").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * 点落区查询
+     * @param layer 图层名称
+     * @param lon 经度
+     * @param lat 纬度
+     * @return 包含该点的要素，点在边界上时相邻的要素都会返回
+     */
+    public List<SpatialFeature> locate(String layer, double lon, double lat) {
+        long start = System.nanoTime();
+        LayerIndex index = index(layer);
+        Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(lon, lat));
+        List<SpatialFeature> result = new ArrayList<>(1);
+        index.tree.query(new Envelope(lon, lon, lat, lat), item -> {
+            Entry entry = (Entry) item;
+            if (entry.prepared.covers(point)) {
+                result.add(entry.feature);
+            }
+        });
+        timer(layer, "locate").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * 广播图层数据变更，所有节点（包括本节点）收到后增量刷新
+     * @param layer 图层名称
+     * @param ids 变更（新增、修改、删除）的要素 id，为空时全量重建
+     */
+    public void publishChange(String layer, long... ids) {
+        TypedMessage message = new TypedMessage()
+                .putString(GlobalConstants.HANDLER_NAME, GlobalConstants.SPATIAL_INDEX_CHANGE_HANDLER)
+                .putString(GlobalConstants.PARTITION_KEY, layer)
+                .putString(LAYER, layer)
+                .putLongs(IDS, ids);
+        RedisStreamEventBus bus = redisStreamEventBus.getIfAvailable();
+        if (bus != null) {
+            bus.publish(message);
+        } else {
+            redisTemplate.convertAndSend(GlobalConstants.REDIS_TOPIC_NAME, redisCacheTtls.isTypedMessages() ? message : message.toBaseMap());
+        }
+    }
+
+    /**
+     * 全量重建图层索引（异步）
+     */
+    public void refresh(String layer) {
+        applyChanges(layer, null);
+    }
+
+    /**
+     * 增量刷新图层索引（异步），refreshDelay 内的多次变更合并为一次重建；本节点未加载该图层时忽略
+     * @param layer 图层名称
+     * @param ids 变更的要素 id，为 null 或空时全量重建
+     */
+    public void applyChanges(String layer, @Nullable long[] ids) {
+        if (executor == null || !spatialIndexProperties.getLayers().contains(layer)) {
+            return;
+        }
+        schedule(layer, ids == null || ids.length == 0, ids, spatialIndexProperties.getRefreshDelay());
+    }
+
+    private void schedule(String layer, boolean full, @Nullable long[] ids, Duration delay) {
+        synchronized (pending) {
+            Pending changes = pending.get(layer);
+            boolean scheduled = changes != null;
+            if (changes == null) {
+                changes = new Pending();
+                pending.put(layer, changes);
+            }
+            changes.add(full, ids);
+            if (!scheduled) {
+                executor.schedule(() -> rebuild(layer), delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void rebuild(String layer) {
+        Pending changes;
+        synchronized (pending) {
+            changes = pending.remove(layer);
+        }
+        if (changes == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        LayerIndex current = indexes.get(layer);
+        boolean full = changes.full || current == null;
+        try {
+            SpatialLayerSource source = source(layer);
+            Map<Long, Entry> entries;
+            if (full) {
+                entries = new HashMap<>();
+                source.load(layer, null, feature -> entries.put(feature.id(), new Entry(feature)));
+            } else {
+                // copy-on-write：在副本上应用变更，旧索引继续服务查询
+                entries = new HashMap<>(current.entries);
+                long[] ids = changes.ids.stream().mapToLong(Long::longValue).toArray();
+                for (long id : ids) {
+                    entries.remove(id);
+                }
+                source.load(layer, ids, feature -> entries.put(feature.id(), new Entry(feature)));
+            }
+            LayerIndex index = build(entries);
+            indexes.put(layer, index);
+            long nanos = System.nanoTime() - start;
+            Timer.builder("gistest.spatial.rebuild")
+                    .description("In-memory spatial index rebuild time")
+                    .tag(LAYER, layer)
+                    .tag("type", full ? "full" : "incremental")
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            log.info("空间索引{}，图层:{}，要素:{}，变更:{}，估算内存:{}KB，耗时 {}ms", full ? "全量重建" : "增量刷新", layer,
+                    entries.size(), full ? "全部" : changes.ids.size(), index.memoryBytes / 1024, nanos / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("空间索引重建失败，图层:{}，{}s 后重试", layer, RETRY_DELAY.toSeconds(), e);
+            schedule(layer, full, changes.ids.stream().mapToLong(Long::longValue).toArray(), RETRY_DELAY);
+        }
+    }
+
+    private LayerIndex build(Map<Long, Entry> entries) {
+        int nodeCapacity = spatialIndexProperties.getNodeCapacity();
+        SpatialIndex tree;
+        long memory = 0;
+        if (spatialIndexProperties.getIndexType() == SpatialIndexProperties.IndexType.STR) {
+            STRtree strTree = new STRtree(nodeCapacity);
+            for (Entry entry : entries.values()) {
+                strTree.insert(entry.envelope, entry);
+                memory += entry.memoryBytes;
+            }
+            // 查询前必须完成打包，首次查询时再构建不是线程安全的
+            strTree.build();
+            tree = strTree;
+        } else {
+            HPRtree hprTree = new HPRtree(nodeCapacity);
+            for (Entry entry : entries.values()) {
+                hprTree.insert(entry.envelope, entry);
+                memory += entry.memoryBytes;
+            }
+            hprTree.build();
+            tree = hprTree;
+        }
+        return new LayerIndex(Collections.unmodifiableMap(entries), tree, memory);
+    }
+
+    private SpatialLayerSource source(String layer) {
+        return sources.orderedStream()
+                .filter(source -> source.supports(layer))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No SpatialLayerSource for layer: " + layer));
+    }
+
+    private LayerIndex index(String layer) {
+        LayerIndex index = indexes.get(layer);
+        if (index == null) {
+            throw new IllegalStateException("Spatial index is not ready: " + layer);
+        }
+        return index;
+    }
+
+    private Timer timer(String layer, String operation) {
+        return timers.computeIfAbsent(layer + '|' + operation, k -> Timer.builder("gistest.spatial.query")
+                .description("In-memory spatial index query latency")
+                .tag(LAYER, layer)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(registry));
+    }
+
+    /**
+     * 构建完成后只读
+     */
+    private record LayerIndex(Map<Long, Entry> entries, SpatialIndex tree, long memoryBytes) {
+    }
+
+    private static final class Entry {
+
+        final SpatialFeature feature;
+
+        final Envelope envelope;
+
+        final PreparedGeometry prepared;
+
+        /**
+         * 估算：每个坐标 40 字节，几何、外包矩形、索引条目等固定开销 256 字节；PreparedGeometry 按需建立的内部索引未计入
+         */
+        final long memoryBytes;
+
+        Entry(SpatialFeature feature) {
+            this.feature = feature;
+            this.envelope = feature.geometry().getEnvelopeInternal();
+            this.prepared = PreparedGeometryFactory.prepare(feature.geometry());
+            this.memoryBytes = feature.geometry().getNumPoints() * 40L + 256;
+        }
+    }
+
+    /**
+     * 合并中的变更
+     */
+    private static final class Pending {
+
+        boolean full;
+
+        final Set<Long> ids = new HashSet<>();
+
+        void add(boolean full, @Nullable long[] ids) {
+            this.full |= full;
+            if (ids != null) {
+                for (long id : ids) {
+                    this.ids.add(id);
+                }
+            }
+        }
+    }
+}
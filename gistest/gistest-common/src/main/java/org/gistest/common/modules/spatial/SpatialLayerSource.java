@@ -0,0 +1,24 @@
+package org.gistest.common.modules.spatial;
+
+import org.springframework.lang.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * 空间索引的数据来源，由业务模块实现（通常查询数据库）
+ */
+public interface SpatialLayerSource {
+
+    /**
+     * @return 是否提供该图层
+     */
+    boolean supports(String layer);
+
+    /**
+     * 读取图层要素，逐个交给 sink，无需先放进 List
+     * @param layer 图层名称
+     * @param ids 为 null 时读取全部要素；否则只读取这些 id，不存在的 id 视为已删除
+     * @param sink 要素接收方
+     */
+    void load(String layer, @Nullable long[] ids, Consumer<SpatialFeature> sink);
+}
@@ -0,0 +1,28 @@
+package org.gistest.common.util;
+
+/**
+ * HTTP 请求头工具
+ */
+public final class HttpUtils {
+
+    private HttpUtils() {
+    }
+
+    /**
+     * 客户端是否接受 gzip 编码
+     * @param acceptEncoding Accept-Encoding 请求头
+     * @return 列出 gzip 且 q 不为 0 时返回 true
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @ConfigurationProperties("gistest.redis")
@@ -37,8 +38,39 @@ public class RedisUtil {
         return null;
     }
 
+    /**
+     * 写入并设置过期时间，单条 SET EX，已存在时直接覆盖
+     * @param key
+     * @param value
+     * @param time 过期秒数，小于等于 0 时不过期
+     * @return 是否成功
+     */
+    public boolean set(String key, Object value, long time) {
+        try {
+            if (time > 0) {
+                redisTemplate.opsForValue().set(key, value, time, TimeUnit.SECONDS);
+            } else {
+                redisTemplate.opsForValue().set(key, value);
+            }
+            return true;
+        } catch (Throwable e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 读取并删除，单条 GETDEL 原子完成（需 Redis 6.2+），用于验证码等一次性凭据
+     * @param key
+     * @return 删除前的值，不存在时为 null
+     */
+    public Object getAndDelete(String key) {
+        return key == null ? null : redisTemplate.opsForValue().getAndDelete(key);
+    }
+
     /**
      * 删除指定前缀的一系列key
+     * 需 SCAN 整个 keyspace，耗时随 key 总数增长，不要在请求路径上调用
      * @param keyPrefix
      */
     public void removeAll(String keyPrefix) {
@@ -0,0 +1,227 @@
+package org.gistest.common.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypedMessageTest {
+
+    /**
+     * 单个 long 条目的编码长度：魔数 + 版本 + 条目数 + key（长度 + 1 字节）+ 类型 + zigzag 变长值
+     */
+    @Test
+    void varintLengthFollowsZigzagValue() {
+        long[][] cases = {
+                {0, 1}, {-1, 1}, {63, 1}, {-64, 1},
+                {64, 2}, {-65, 2}, {8191, 2}, {-8192, 2},
+                {8192, 3}, {(1L << 20) - 1, 3}, {1L << 20, 4},
+                {Integer.MAX_VALUE, 5}, {Integer.MIN_VALUE, 5},
+                {(1L << 55) - 1, 8}, {1L << 55, 9},
+                {(1L << 62) - 1, 9}, {1L << 62, 10},
+                {Long.MAX_VALUE, 10}, {Long.MIN_VALUE, 10}
+        };
+        for (long[] c : cases) {
+            byte[] bytes = new TypedMessage().putLong("k", c[0]).encode();
+            assertEquals(2 + 1 + 2 + 1 + c[1], bytes.length, "value " + c[0]);
+            assertEquals(c[0], TypedMessage.decode(bytes).getLong("k", 0));
+        }
+    }
+
+    @Test
+    void countAndStringLengthUseVarints() {
+        TypedMessage message = new TypedMessage(1);
+        for (int i = 0; i < 200; i++) {
+            message.putInt("k" + i, i);
+        }
+        String longText = "x".repeat(300);
+        message.putString("text", longText);
+        TypedMessage decoded = TypedMessage.decode(message.encode());
+        assertEquals(201, decoded.size());
+        assertEquals(199, decoded.getInt("k199", -1));
+        assertEquals(longText, decoded.getString("text"));
+    }
+
+    @Test
+    void primitivesRoundTrip() {
+        TypedMessage message = new TypedMessage()
+                .putLong("long", Long.MIN_VALUE)
+                .putInt("int", Integer.MIN_VALUE)
+                .putInt("intMax", Integer.MAX_VALUE)
+                .putDouble("double", -1.5e300)
+                .putDouble("nan", Double.NaN)
+                .putDouble("negativeZero", -0.0)
+                .putBoolean("yes", true)
+                .putBoolean("no", false)
+                .putString("null", null)
+                .putLongs("nullIds", null);
+        TypedMessage decoded = TypedMessage.decode(message.encode());
+
+        assertEquals(10, decoded.size());
+        assertEquals(Long.MIN_VALUE, decoded.get("long"));
+        assertEquals(Integer.MIN_VALUE, decoded.get("int"));
+        assertEquals(Integer.MAX_VALUE, decoded.getInt("intMax", 0));
+        assertEquals(-1.5e300, decoded.getDouble("double", 0));
+        assertTrue(Double.isNaN(decoded.getDouble("nan", 0)));
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(decoded.getDouble("negativeZero", 1)));
+        assertEquals(Boolean.TRUE, decoded.get("yes"));
+        assertEquals(Boolean.FALSE, decoded.get("no"));
+        assertTrue(decoded.containsKey("null"));
+        assertNull(decoded.get("null"));
+        assertNull(decoded.getLongs("nullIds"));
+    }
+
+    @Test
+    void stringsRoundTripAsUtf8() {
+        String text = "aé中😀z";
+        TypedMessage decoded = TypedMessage.decode(new TypedMessage()
+                .putString("text", text)
+                .putString("empty", "")
+                .putString("lone", "a\uD800b")
+                .putString("键", "key")
+                .encode());
+        assertEquals(text, decoded.getString("text"));
+        assertEquals("", decoded.getString("empty"));
+        // 非法的单个代理字符与 String.getBytes(UTF_8) 一致写为 '?'
+        assertEquals(new String("a\uD800b".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), decoded.getString("lone"));
+        assertEquals("key", decoded.getString("键"));
+    }
+
+    @Test
+    void longArraysRoundTrip() {
+        long[][] cases = {
+                {},
+                {42},
+                {1, 2, 3, 1000, 1001},
+                {5, -5, 3, 3, 0},
+                {Long.MAX_VALUE, Long.MIN_VALUE, 0, Long.MIN_VALUE, Long.MAX_VALUE}
+        };
+        for (long[] ids : cases) {
+            TypedMessage decoded = TypedMessage.decode(new TypedMessage().putLongs("ids", ids).encode());
+            assertArrayEquals(ids, decoded.getLongs("ids"), Arrays.toString(ids));
+        }
+    }
+
+    @Test
+    void fromMapAndToBaseMapRoundTrip() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("long", 7L);
+        map.put("int", 8);
+        map.put("short", (short) 9);
+        map.put("double", 1.25);
+        map.put("float", 2.5f);
+        map.put("flag", true);
+        map.put("text", "abc");
+        map.put("nothing", null);
+        map.put("ids", new Long[]{3L, 1L, 2L});
+        map.put("idList", List.of(4L, 5));
+        map.put("other", new StringBuilder("sb"));
+
+        TypedMessage decoded = TypedMessage.decode(TypedMessage.fromMap(map).encode());
+        BaseMap baseMap = decoded.toBaseMap();
+
+        assertEquals(map.size(), baseMap.size());
+        assertEquals(7L, (Long) baseMap.get("long"));
+        assertEquals(8, (Integer) baseMap.get("int"));
+        assertEquals(9, (Integer) baseMap.get("short"));
+        assertEquals(1.25, (Double) baseMap.get("double"));
+        assertEquals(2.5, (Double) baseMap.get("float"));
+        assertEquals(true, (Boolean) baseMap.get("flag"));
+        assertEquals("abc", baseMap.get("text"));
+        // BaseMap 把 null 存为空串，get 时按空值返回 null
+        assertTrue(baseMap.containsKey("nothing"));
+        assertNull(baseMap.get("nothing"));
+        assertArrayEquals(new Long[]{3L, 1L, 2L}, (Long[]) baseMap.get("ids"));
+        assertArrayEquals(new Long[]{4L, 5L}, (Long[]) baseMap.get("idList"));
+        assertEquals("sb", baseMap.get("other"));
+
+        TypedMessage again = TypedMessage.fromMap(baseMap);
+        assertArrayEquals(new long[]{3, 1, 2}, again.getLongs("ids"));
+        assertEquals(7L, again.getLong("long", 0));
+    }
+
+    @Test
+    void rejectsForeignInput() {
+        assertFalse(TypedMessage.isEncoded(null));
+        assertFalse(TypedMessage.isEncoded("{\"a\":1}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(new byte[]{(byte) 0xB7}));
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode("{}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(new byte[]{(byte) 0xB7, 2, 0}));
+        // 未知类型
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(new byte[]{(byte) 0xB7, 1, 1, 1, 'k', 99}));
+    }
+
+    @Test
+    void rejectsEveryTruncatedPrefix() {
+        byte[] bytes = new TypedMessage()
+                .putLong("long", -123456789L)
+                .putDouble("double", 3.5)
+                .putBoolean("flag", true)
+                .putString("text", "中文")
+                .putLongs("ids", new long[]{1, 100, 10_000})
+                .putString("null", null)
+                .encode();
+        assertEquals(6, TypedMessage.decode(bytes).size());
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] prefix = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(prefix), "length " + length);
+        }
+    }
+
+    @Test
+    void rejectsOversizedLengthsBeforeAllocating() {
+        // 条目数
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(varint(Integer.MAX_VALUE))));
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(varint(1L << 40))));
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(varint(-1L))));
+        // ID 数组长度
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(varint(1), key("ids"), new byte[]{6}, varint(Integer.MAX_VALUE))));
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(varint(1), key("ids"), new byte[]{6}, varint(1L << 33), new byte[]{0})));
+        // 字符串长度（int 溢出后为负数或小值）
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(varint(1), varint(1L << 32), new byte[]{'k', 5, 0})));
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(varint(1), key("s"), new byte[]{5}, varint(0xFFFFFFFFL), new byte[]{'a'})));
+        // 超过 10 字节的变长整数
+        byte[] malformed = new byte[11];
+        Arrays.fill(malformed, (byte) 0x80);
+        assertThrows(IllegalArgumentException.class, () -> TypedMessage.decode(message(malformed)));
+    }
+
+    private static byte[] message(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xB7);
+        out.write(1);
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] key(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(varint(bytes.length));
+        out.writeBytes(bytes);
+        return out.toByteArray();
+    }
+
+    private static byte[] varint(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+        return out.toByteArray();
+    }
+}
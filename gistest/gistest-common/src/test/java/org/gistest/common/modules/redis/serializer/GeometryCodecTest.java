@@ -0,0 +1,129 @@
+package org.gistest.common.modules.redis.serializer;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeometryCodecTest {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    private static final String[] GEOMETRIES = {
+            "POINT EMPTY",
+            "POLYGON EMPTY",
+            "GEOMETRYCOLLECTION EMPTY",
+            "POINT (116.3974 39.9093)",
+            "MULTIPOINT ((1 1), (2 2))",
+            "MULTILINESTRING ((0 0, 1 1), (2 2, 3 3))",
+            "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5)))",
+            "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (3 4, 5 6))"
+    };
+
+    @Test
+    void wkbRoundTripKeepsGeometryAndSrid() throws ParseException {
+        GeometryCodec codec = new GeometryCodec(GeometryEncoding.WKB, 7);
+        for (String wkt : GEOMETRIES) {
+            Geometry geometry = wkt(wkt, 4326);
+            byte[] bytes = codec.encode(geometry);
+            assertEquals(GeometryCodec.HEADER_WKB, bytes[0], wkt);
+            Geometry decoded = codec.decode(bytes);
+            assertTrue(geometry.equalsExact(decoded), wkt);
+            assertEquals(4326, decoded.getSRID(), wkt);
+        }
+    }
+
+    @Test
+    void twkbRoundTripKeepsGeometryAndSrid() throws ParseException {
+        GeometryCodec codec = new GeometryCodec(GeometryEncoding.TWKB, 7);
+        for (int srid : new int[]{0, 4326, 3857, 900913}) {
+            for (String wkt : GEOMETRIES) {
+                Geometry geometry = wkt(wkt, srid);
+                byte[] bytes = codec.encode(geometry);
+                assertEquals(GeometryCodec.HEADER_TWKB, bytes[0], wkt);
+                Geometry decoded = codec.decode(bytes);
+                assertTrue(geometry.equalsExact(decoded, 1e-9), wkt);
+                assertEquals(geometry.getGeometryType(), decoded.getGeometryType(), wkt);
+                assertEquals(srid, decoded.getSRID(), wkt);
+            }
+        }
+    }
+
+    @Test
+    void zCoordinatesRoundTrip() throws ParseException {
+        Geometry geometry = wkt("POLYGON Z ((0 0 1, 1 0 2, 1 1 3.25, 0 0 1))", 4490);
+        for (GeometryEncoding encoding : GeometryEncoding.values()) {
+            GeometryCodec codec = new GeometryCodec(encoding, 7);
+            Geometry decoded = codec.decode(codec.encode(geometry));
+            assertEquals(4490, decoded.getSRID(), encoding.name());
+            Coordinate[] coordinates = decoded.getCoordinates();
+            assertEquals(3.25, coordinates[2].getZ(), encoding.name());
+            assertTrue(geometry.equalsExact(decoded, 1e-9), encoding.name());
+        }
+    }
+
+    @Test
+    void negativePrecisionRoundsCoordinates() throws ParseException {
+        GeometryCodec codec = new GeometryCodec(GeometryEncoding.TWKB, -3);
+        Geometry decoded = codec.decode(codec.encode(wkt("POINT (12345678 -2499)", 3857)));
+        assertEquals(12346000, decoded.getCoordinate().getX());
+        assertEquals(-2000, decoded.getCoordinate().getY());
+        assertEquals(3857, decoded.getSRID());
+    }
+
+    @Test
+    void unencodableTwkbFallsBackToWkb() throws ParseException {
+        GeometryCodec codec = new GeometryCodec(GeometryEncoding.TWKB, 7);
+        Geometry geometry = wkt("MULTIPOINT ((1 1), EMPTY)", 4326);
+        byte[] bytes = codec.encode(geometry);
+        assertEquals(GeometryCodec.HEADER_WKB, bytes[0]);
+        Geometry decoded = codec.decode(bytes);
+        assertEquals(2, decoded.getNumGeometries());
+        assertTrue(decoded.getGeometryN(1).isEmpty());
+        assertEquals(4326, decoded.getSRID());
+    }
+
+    @Test
+    void decodesEitherHeaderRegardlessOfConfiguredEncoding() throws ParseException {
+        Geometry geometry = wkt("LINESTRING (1 2, 3 4)", 4326);
+        byte[] wkb = new GeometryCodec(GeometryEncoding.WKB, 7).encode(geometry);
+        byte[] twkb = new GeometryCodec(GeometryEncoding.TWKB, 7).encode(geometry);
+        GeometryCodec codec = new GeometryCodec(GeometryEncoding.TWKB, 2);
+        assertTrue(geometry.equalsExact(codec.decode(wkb)));
+        assertTrue(geometry.equalsExact(codec.decode(twkb)));
+    }
+
+    @Test
+    void decodeEwkbStripsWkbHeader() throws ParseException {
+        Geometry geometry = wkt("POINT (1 2)", 4326);
+        GeometryCodec codec = new GeometryCodec(GeometryEncoding.WKB, 7);
+        byte[] bytes = codec.encode(geometry);
+        assertArrayEquals(Arrays.copyOfRange(bytes, 1, bytes.length), codec.decodeEwkb(bytes));
+        assertArrayEquals(GeometryCodec.writeEwkb(geometry), codec.decodeEwkb(new GeometryCodec(GeometryEncoding.TWKB, 7).encode(geometry)));
+        assertEquals(4326, GeometryCodec.readEwkb(codec.decodeEwkb(bytes)).getSRID());
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        GeometryCodec codec = new GeometryCodec(GeometryEncoding.WKB, 7);
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[]{GeometryCodec.HEADER_WKB}));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[]{0x7F, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new GeometryCodec(GeometryEncoding.TWKB, 8));
+        assertThrows(IllegalArgumentException.class, () -> new GeometryCodec(GeometryEncoding.TWKB, -8));
+    }
+
+    private static Geometry wkt(String wkt, int srid) throws ParseException {
+        Geometry geometry = new WKTReader(FACTORY).read(wkt);
+        geometry.setSRID(srid);
+        return geometry;
+    }
+}
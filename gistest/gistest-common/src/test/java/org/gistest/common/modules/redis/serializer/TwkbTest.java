@@ -0,0 +1,129 @@
+package org.gistest.common.modules.redis.serializer;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TwkbTest {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    @Test
+    void emptyGeometriesRoundTrip() throws ParseException {
+        for (String wkt : new String[]{
+                "POINT EMPTY", "LINESTRING EMPTY", "POLYGON EMPTY",
+                "MULTIPOINT EMPTY", "MULTILINESTRING EMPTY", "MULTIPOLYGON EMPTY", "GEOMETRYCOLLECTION EMPTY"}) {
+            Geometry geometry = wkt(wkt);
+            byte[] bytes = write(geometry, 7, false);
+            // 空几何只有类型字节与元数据字节
+            assertEquals(2, bytes.length, wkt);
+            Geometry decoded = read(bytes);
+            assertTrue(decoded.isEmpty(), wkt);
+            assertEquals(geometry.getGeometryType(), decoded.getGeometryType(), wkt);
+        }
+    }
+
+    @Test
+    void singleAndMultiGeometriesRoundTrip() throws ParseException {
+        for (String wkt : new String[]{
+                "POINT (116.3974 39.9093)",
+                "LINESTRING (0 0, 1.5 1.5, -2.25 3)",
+                "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 3, 3 3, 2 2))",
+                "MULTIPOINT ((1 1), (-1 -1), (1 1))",
+                "MULTILINESTRING ((0 0, 1 1), EMPTY, (2 2, 3 3, 4 2))",
+                "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), EMPTY, ((5 5, 6 5, 6 6, 5 5), (5.2 5.1, 5.8 5.1, 5.8 5.7, 5.2 5.1)))",
+                "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (3 4, 5 6), GEOMETRYCOLLECTION (POINT EMPTY, POLYGON ((0 0, 1 0, 1 1, 0 0))))"}) {
+            Geometry geometry = wkt(wkt);
+            Geometry decoded = read(write(geometry, 7, false));
+            assertTrue(geometry.equalsExact(decoded, 1e-9), wkt + " -> " + decoded);
+        }
+    }
+
+    @Test
+    void zCoordinatesKeepThreeDecimals() throws ParseException {
+        Geometry geometry = wkt("MULTILINESTRING Z ((0 0 10.1234, 1 1 -5.5), (2 2 0.0005, 3 3 1000000))");
+        Geometry decoded = read(write(geometry, 6, true));
+        assertTrue(geometry.equalsExact(decoded, 1e-9));
+        double[] expected = {10.123, -5.5, 0.001, 1000000};
+        Coordinate[] coordinates = decoded.getCoordinates();
+        for (int i = 0; i < coordinates.length; i++) {
+            assertEquals(expected[i], coordinates[i].getZ(), 1e-9);
+        }
+    }
+
+    @Test
+    void zCoordinatesInCollections() throws ParseException {
+        Geometry geometry = wkt("GEOMETRYCOLLECTION Z (POINT Z (1 2 3), LINESTRING Z (4 5 6, 7 8 9))");
+        Geometry decoded = read(write(geometry, 5, true));
+        Coordinate[] coordinates = decoded.getCoordinates();
+        assertEquals(3, coordinates.length);
+        assertEquals(3, coordinates[0].getZ());
+        assertEquals(9, coordinates[2].getZ());
+    }
+
+    @Test
+    void negativePrecisionRoundsToTensAndHundreds() {
+        Geometry geometry = FACTORY.createLineString(new Coordinate[]{
+                new Coordinate(123456, -98765), new Coordinate(123449, 50)});
+        CoordinateSequence decoded = ((LineString) read(write(geometry, -2, false))).getCoordinateSequence();
+        assertEquals(123500, decoded.getX(0));
+        assertEquals(-98800, decoded.getY(0));
+        assertEquals(123400, decoded.getX(1));
+        assertEquals(100, decoded.getY(1));
+    }
+
+    @Test
+    void precisionIsAppliedBeforeDelta() {
+        Geometry geometry = FACTORY.createLineString(new Coordinate[]{
+                new Coordinate(0.123456789, 0.987654321), new Coordinate(0.123456789, 0.987654321)});
+        CoordinateSequence decoded = ((LineString) read(write(geometry, 3, false))).getCoordinateSequence();
+        assertEquals(0.123, decoded.getX(1));
+        assertEquals(0.988, decoded.getY(1));
+    }
+
+    @Test
+    void emptyPointInMultiPointIsRejected() throws ParseException {
+        Geometry geometry = wkt("MULTIPOINT ((1 1), EMPTY)");
+        assertThrows(IllegalArgumentException.class, () -> write(geometry, 7, false));
+    }
+
+    @Test
+    void signedVarintRoundTrip() {
+        for (long value : new long[]{0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Twkb.Writer writer = new Twkb.Writer(0, false);
+            writer.writeSignedVarint(value);
+            ByteBuffer buffer = ByteBuffer.wrap(writer.toByteArray());
+            assertEquals(value, Twkb.readSignedVarint(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    private static byte[] write(Geometry geometry, int precision, boolean hasZ) {
+        Twkb.Writer writer = new Twkb.Writer(precision, hasZ);
+        writer.write(geometry);
+        return writer.toByteArray();
+    }
+
+    private static Geometry read(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Geometry geometry = new Twkb.Reader(buffer, FACTORY).read();
+        assertFalse(buffer.hasRemaining());
+        return geometry;
+    }
+
+    private static Geometry wkt(String wkt) throws ParseException {
+        return new WKTReader(FACTORY).read(wkt);
+    }
+}
@@ -0,0 +1,40 @@
+package org.gistest.modules.feature.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 要素导出配置
+ * 可导出的图层与矢量瓦片共用 gistest.tile.layers（表名、几何字段、id 字段、属性字段）
+ */
+@Component
+@ConfigurationProperties(prefix = "gistest.feature")
+public class FeatureProperties {
+    /**
+     * 响应缓冲区大小（字节），写满后发送给客户端，内存占用与图层大小无关
+     */
+    private int bufferSize = 64 * 1024;
+    public int getBufferSize() { return bufferSize; }
+    public void setBufferSize(int bufferSize) { this.bufferSize = bufferSize; }
+
+    /**
+     * 每写出多少个要素主动 flush 一次，客户端能尽早收到数据，断开连接也能尽早发现
+     */
+    private int flushInterval = 1000;
+    public int getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(int flushInterval) { this.flushInterval = flushInterval; }
+
+    /**
+     * 坐标保留的小数位数（ST_AsGeoJSON 的 maxdecimaldigits），7 位约为 1 厘米
+     */
+    private int maxDecimalDigits = 7;
+    public int getMaxDecimalDigits() { return maxDecimalDigits; }
+    public void setMaxDecimalDigits(int maxDecimalDigits) { this.maxDecimalDigits = maxDecimalDigits; }
+
+    /**
+     * 单次导出的最大要素数，0 表示不限制
+     */
+    private long maxFeatures = 0;
+    public long getMaxFeatures() { return maxFeatures; }
+    public void setMaxFeatures(long maxFeatures) { this.maxFeatures = maxFeatures; }
+}
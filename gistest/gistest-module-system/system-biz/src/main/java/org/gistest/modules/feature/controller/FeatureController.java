@@ -0,0 +1,108 @@
+package org.gistest.modules.feature.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.util.HttpUtils;
+import org.gistest.modules.feature.config.FeatureProperties;
+import org.gistest.modules.feature.service.FeatureExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@Tag(name="要素导出")
+@RestController
+@Slf4j
+public class FeatureController {
+
+    @Autowired
+    private FeatureExportService featureExportService;
+    @Autowired
+    private FeatureProperties featureProperties;
+
+    /**
+     * 流式导出图层要素，边查询边写入响应，不返回 Content-Length（分块传输）
+     * format: geojson 为一个 FeatureCollection，ndjson 为每行一个 Feature
+     * 客户端支持 gzip 且 gzip=true 时压缩输出
+     * 传 zoom 时按显示层级使用预计算的简化几何（图层配置了 lodZooms）
+     */
+    @Operation(summary = "导出图层要素（GeoJSON / NDJSON）")
+    @GetMapping(value = "/features/{layer}")
+    public void export(@PathVariable("layer") String layer,
+                       @RequestParam(value = "format", defaultValue = "geojson") String format,
+                       @RequestParam(value = "minLon", required = false) Double minLon, @RequestParam(value = "minLat", required = false) Double minLat,
+                       @RequestParam(value = "maxLon", required = false) Double maxLon, @RequestParam(value = "maxLat", required = false) Double maxLat,
+                       @RequestParam(value = "limit", defaultValue = "0") long limit,
+                       @RequestParam(value = "zoom", required = false) Integer zoom,
+                       @RequestParam(value = "gzip", defaultValue = "true") boolean gzip,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FeatureExportService.Format outputFormat;
+        try {
+            outputFormat = FeatureExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown format: " + format);
+            return;
+        }
+        double[] bbox = null;
+        if (minLon != null || minLat != null || maxLon != null || maxLat != null) {
+            if (minLon == null || minLat == null || maxLon == null || maxLat == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Incomplete bounding box");
+                return;
+            }
+            if (minLon > maxLon || minLat > maxLat) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid bounding box");
+                return;
+            }
+            bbox = new double[]{minLon, minLat, maxLon, maxLat};
+        }
+        if (limit < 0) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid limit: " + limit);
+            return;
+        }
+        if (!featureExportService.hasLayer(layer)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown layer: " + layer);
+            return;
+        }
+
+        // 响应缓冲区写满即发送，内存占用固定
+        response.setBufferSize(featureProperties.getBufferSize());
+        response.setContentType(outputFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream out = response.getOutputStream();
+        GZIPOutputStream gzipOut = null;
+        if (gzip && HttpUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            // syncFlush：定期 flush 时压缩数据同样发给客户端
+            out = gzipOut = new GZIPOutputStream(out, 8192, true);
+        }
+        try {
+            featureExportService.export(layer, bbox, limit, zoom, outputFormat, out);
+            if (gzipOut != null) {
+                gzipOut.finish();
+            }
+        } catch (IOException e) {
+            // 客户端断开（ClientAbortException）：游标已停止，连接已释放，无需再响应
+            log.debug("要素导出写入失败，图层:{}", layer, e);
+        } finally {
+            if (gzipOut != null) {
+                // 释放 Deflater 的本地内存
+                try {
+                    gzipOut.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
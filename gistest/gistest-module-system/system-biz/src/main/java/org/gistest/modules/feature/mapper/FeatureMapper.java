@@ -0,0 +1,29 @@
+package org.gistest.modules.feature.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import org.gistest.modules.tile.config.TileProperties;
+
+import java.util.Map;
+
+@Mapper
+public interface FeatureMapper {
+
+    /**
+     * 逐行查询图层要素，每行交给 handler 处理后即可丢弃，不会把结果集放进 List
+     * 需要在事务中调用：PostgreSQL 只有关闭自动提交时才按 fetchSize 使用服务端游标分批读取，否则一次读完整个结果集
+     * 表名、字段名直接拼入 SQL，只能来自 TileProperties 中校验过的配置
+     *
+     * @param name 图层名称
+     * @param layer 图层配置
+     * @param bbox 范围过滤 [minLon, minLat, maxLon, maxLat]，WGS84 经纬度，为 null 时不过滤
+     * @param limit 最大行数，0 表示不限制
+     * @param maxDecimalDigits 坐标小数位数
+     * @param lodZoom 简化几何的档位，为 null 时使用原始几何
+     * @param handler 行处理器，行数据 key 为 __geometry（GeoJSON 文本）、__id 与各属性字段
+     */
+    void selectFeatures(@Param("name") String name, @Param("layer") TileProperties.Layer layer, @Param("bbox") double[] bbox,
+                        @Param("limit") long limit, @Param("maxDecimalDigits") int maxDecimalDigits, @Param("lodZoom") Integer lodZoom,
+                        ResultHandler<Map<String, Object>> handler);
+}
@@ -0,0 +1,222 @@
+package org.gistest.modules.feature.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.modules.feature.config.FeatureProperties;
+import org.gistest.modules.feature.mapper.FeatureMapper;
+import org.gistest.modules.lod.service.LodService;
+import org.gistest.modules.tile.config.TileProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * 图层要素流式导出
+ * 通过服务端游标逐批读取（FeatureMapper.selectFeatures），每行读出后立即写入输出流，不在内存中保留结果集，
+ * 内存占用只有一批行数据与输出缓冲区，与图层大小无关
+ */
+@Slf4j
+@Service
+public class FeatureExportService {
+
+    static final String GEOMETRY = "__geometry";
+
+    static final String ID = "__id";
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            // 出错时不自动补全括号，客户端收到的是不完整的 JSON，不会误当作完整结果
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+            .build();
+
+    @Resource
+    private TileProperties tileProperties;
+
+    @Resource
+    private FeatureProperties featureProperties;
+
+    @Resource
+    private FeatureMapper featureMapper;
+
+    @Resource
+    private LodService lodService;
+
+    public enum Format {
+        /**
+         * 一个 GeoJSON FeatureCollection
+         */
+        GEOJSON("application/geo+json"),
+        /**
+         * 每行一个 GeoJSON Feature（newline-delimited GeoJSON）
+         */
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    public boolean hasLayer(String layerName) {
+        return tileProperties.getLayers().containsKey(layerName);
+    }
+
+    /**
+     * 把图层要素写入输出流，输出流由调用方关闭
+     * 写入失败（通常是客户端断开）时停止读取游标并抛出异常，事务结束时释放数据库连接
+     * @param layerName 图层名称，gistest.tile.layers 中的 key
+     * @param bbox 范围过滤 [minLon, minLat, maxLon, maxLat]，WGS84 经纬度，为 null 时导出全部
+     * @param limit 最大要素数，0 表示不限制（仍受 gistest.feature.max-features 限制）
+     * @param zoom 显示层级，图层配置了 lodZooms 时按层级使用简化几何，为 null 时导出原始几何
+     * @param format 输出格式
+     * @param out 输出流
+     * @return 写出的要素数
+     * @throws IllegalArgumentException 图层不存在或参数不合法，此时尚未写出任何数据
+     * @throws IOException 写入输出流失败
+     */
+    @Transactional(readOnly = true)
+    public long export(String layerName, @Nullable double[] bbox, long limit, @Nullable Integer zoom, Format format, OutputStream out) throws IOException {
+        TileProperties.Layer layer = tileProperties.getLayers().get(layerName);
+        if (layer == null) {
+            throw new IllegalArgumentException("Unknown layer: " + layerName);
+        }
+        if (bbox != null && (bbox.length != 4 || bbox[0] > bbox[2] || bbox[1] > bbox[3])) {
+            throw new IllegalArgumentException("Invalid bounding box");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        long maxFeatures = featureProperties.getMaxFeatures();
+        if (maxFeatures > 0 && (limit == 0 || limit > maxFeatures)) {
+            limit = maxFeatures;
+        }
+        Integer lodZoom = zoom == null ? null : lodService.lodZoom(layerName, layer, zoom);
+        long start = System.nanoTime();
+        try (JsonGenerator generator = OBJECT_MAPPER.createGenerator(out)) {
+            FeatureWriter writer = new FeatureWriter(generator, format, featureProperties.getFlushInterval());
+            writer.begin();
+            featureMapper.selectFeatures(layerName, layer, bbox, limit, featureProperties.getMaxDecimalDigits(), lodZoom, context -> {
+                try {
+                    writer.write(context.getResultObject());
+                } catch (IOException e) {
+                    // 停止读取剩余的行，MyBatis 随后关闭结果集与游标
+                    writer.failure = e;
+                    context.stop();
+                }
+            });
+            if (writer.failure != null) {
+                log.info("要素导出中断，图层:{}，已写出:{}，原因:{}", layerName, writer.count, writer.failure.toString());
+                throw writer.failure;
+            }
+            writer.end();
+            log.info("要素导出完成，图层:{}，要素数:{}，耗时 {}ms", layerName, writer.count, (System.nanoTime() - start) / 1_000_000);
+            return writer.count;
+        }
+    }
+
+    private static final class FeatureWriter {
+
+        private final JsonGenerator generator;
+
+        private final Format format;
+
+        private final int flushInterval;
+
+        private long count;
+
+        private IOException failure;
+
+        FeatureWriter(JsonGenerator generator, Format format, int flushInterval) {
+            this.generator = generator;
+            this.format = format;
+            this.flushInterval = Math.max(flushInterval, 1);
+            // NDJSON 的分隔由 write 自己输出换行
+            generator.setRootValueSeparator(null);
+        }
+
+        void begin() throws IOException {
+            if (format == Format.GEOJSON) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "FeatureCollection");
+                generator.writeArrayFieldStart("features");
+            }
+        }
+
+        void write(Map<String, Object> row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "Feature");
+            Object id = row.get(ID);
+            if (id instanceof Number) {
+                generator.writeFieldName("id");
+                generator.writeObject(id);
+            } else if (id != null) {
+                generator.writeStringField("id", id.toString());
+            }
+            // ST_AsGeoJSON 的结果已是 GeoJSON，原样写入
+            Object geometry = row.get(GEOMETRY);
+            generator.writeFieldName("geometry");
+            if (geometry == null) {
+                generator.writeNull();
+            } else {
+                generator.writeRawValue(geometry.toString());
+            }
+            generator.writeObjectFieldStart("properties");
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                String name = entry.getKey();
+                if (GEOMETRY.equals(name) || ID.equals(name)) {
+                    continue;
+                }
+                generator.writeFieldName(name);
+                writeValue(entry.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+            if (++count % flushInterval == 0) {
+                generator.flush();
+            }
+        }
+
+        /**
+         * 数字、布尔、字符串、时间按 JSON 类型写出，其他 JDBC 类型（PGobject、数组等）写为字符串
+         */
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Number || value instanceof Boolean || value instanceof String
+                    || value instanceof Date || value instanceof Temporal) {
+                generator.writeObject(value);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        void end() throws IOException {
+            if (format == Format.GEOJSON) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.gistest.modules.ingest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 批量数据导入配置
+ */
+@Component
+@ConfigurationProperties(prefix = "gistest.ingest")
+public class IngestProperties {
+    /**
+     * 数据文件所在目录，导入任务的 source 为该目录下的相对路径，不能访问目录之外的文件
+     */
+    private String directory = "data/ingest";
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+
+    /**
+     * 每批要素数：一批并行解析、编码为一段 COPY 二进制数据，在一个事务中写入并记录检查点
+     */
+    private int chunkSize = 10000;
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    /**
+     * 解析、编码的并行度，为 0 时使用全部 CPU
+     */
+    private int parallelism = 0;
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+
+    /**
+     * 已读取未写入的最大批数，读取快于写入时读线程等待，内存占用不超过 (该值 × chunkSize) 个要素
+     */
+    private int maxChunksInFlight = 0;
+    public int getMaxChunksInFlight() { return maxChunksInFlight; }
+    public void setMaxChunksInFlight(int maxChunksInFlight) { this.maxChunksInFlight = maxChunksInFlight; }
+
+    /**
+     * 写入事务关闭 synchronous_commit：数据与检查点在同一事务中提交，宕机时一起丢失最后几批，续传结果仍然正确
+     */
+    private boolean asyncCommit = true;
+    public boolean isAsyncCommit() { return asyncCommit; }
+    public void setAsyncCommit(boolean asyncCommit) { this.asyncCommit = asyncCommit; }
+}
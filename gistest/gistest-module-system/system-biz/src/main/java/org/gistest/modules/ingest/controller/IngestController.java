@@ -0,0 +1,73 @@
+package org.gistest.modules.ingest.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.api.vo.Result;
+import org.gistest.modules.ingest.service.IngestService;
+import org.gistest.modules.ingest.vo.IngestProgress;
+import org.gistest.modules.ingest.vo.IngestSpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name="数据导入")
+@RestController
+@Slf4j
+public class IngestController {
+
+    @Autowired
+    private IngestService ingestService;
+
+    /**
+     * source 为 gistest.ingest.directory 下的相对路径，未指定 format 时按扩展名判断
+     * 任务排队执行，立即返回任务 id，通过 /ingest/jobs/{id} 查询进度
+     */
+    @Operation(summary = "创建导入任务")
+    @PostMapping(value = "/ingest/jobs")
+    public Result<IngestProgress> submit(@RequestBody IngestSpec spec) {
+        try {
+            return Result.OK(ingestService.submit(spec));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "导入任务列表")
+    @GetMapping(value = "/ingest/jobs")
+    public Result<List<IngestProgress>> list() {
+        return Result.OK(ingestService.listProgress());
+    }
+
+    @Operation(summary = "导入任务进度与速度")
+    @GetMapping(value = "/ingest/jobs/{id}")
+    public Result<IngestProgress> progress(@PathVariable("id") String id) {
+        IngestProgress progress = ingestService.getProgress(id);
+        return progress == null ? Result.error("Unknown ingest job: " + id) : Result.OK(progress);
+    }
+
+    /**
+     * 从检查点继续，进程重启后同样可以续传
+     */
+    @Operation(summary = "续传导入任务")
+    @PostMapping(value = "/ingest/jobs/{id}/resume")
+    public Result<IngestProgress> resume(@PathVariable("id") String id) {
+        try {
+            IngestProgress progress = ingestService.resume(id);
+            return progress == null ? Result.error("Unknown ingest job: " + id) : Result.OK(progress);
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "取消导入任务")
+    @PostMapping(value = "/ingest/jobs/{id}/cancel")
+    public Result<Boolean> cancel(@PathVariable("id") String id) {
+        return Result.OK(ingestService.cancel(id));
+    }
+}
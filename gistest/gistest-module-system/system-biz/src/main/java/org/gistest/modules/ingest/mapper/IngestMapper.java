@@ -0,0 +1,36 @@
+package org.gistest.modules.ingest.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.gistest.modules.ingest.vo.IngestSpec;
+
+import java.util.Map;
+
+/**
+ * 导入任务表 gis_ingest_job 与目标表 DDL
+ * 表名、字段名直接拼入 SQL，只能来自 IngestService 校验过的 IngestSpec
+ */
+@Mapper
+public interface IngestMapper {
+
+    void createJobTable();
+
+    void insertJob(@Param("id") String id, @Param("spec") String spec, @Param("source") String source, @Param("target") String target);
+
+    /**
+     * 更新检查点，与该批数据在同一事务中执行
+     */
+    void updateJob(@Param("id") String id, @Param("state") String state, @Param("committed") long committed, @Param("errors") long errors,
+                   @Param("message") String message);
+
+    /**
+     * @return spec、state、committed、errors，任务不存在时为 null
+     */
+    Map<String, Object> selectJob(@Param("id") String id);
+
+    void createTargetTable(@Param("spec") IngestSpec spec);
+
+    void createSpatialIndex(@Param("spec") IngestSpec spec, @Param("indexName") String indexName);
+
+    void analyze(@Param("table") String table);
+}
@@ -0,0 +1,252 @@
+package org.gistest.modules.ingest.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gistest.modules.ingest.vo.IngestSpec;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 把一批记录编码为 COPY BINARY 的元组数据（不含文件头与结束标记），在工作线程中执行
+ * 几何写为 EWKB（二维，带 SRID），由 PostGIS 的 geometry_recv 直接接收；属性按 IngestSpec.ColumnType 写为二进制
+ * 无法解析的记录跳过并计数，不影响同批其他记录
+ * 非线程安全（WKTReader、WKBWriter），每个任务创建一个
+ */
+final class CopyEncoder {
+
+    /**
+     * COPY BINARY 文件头：签名、标志位、扩展区长度
+     */
+    static final byte[] HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    /**
+     * 结束标记：字段数 -1
+     */
+    static final byte[] TRAILER = {(byte) 0xFF, (byte) 0xFF};
+
+    private final IngestSpec spec;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<IngestSpec.Column> columns;
+
+    /**
+     * CSV：各属性字段与几何在行中的下标
+     */
+    private final int[] csvIndexes;
+
+    private final int wktIndex;
+
+    private final WKTReader wktReader = new WKTReader();
+
+    private final WKBWriter wkbWriter = new WKBWriter(2, true);
+
+    CopyEncoder(IngestSpec spec, ObjectMapper objectMapper, @Nullable List<String> header) {
+        this.spec = spec;
+        this.objectMapper = objectMapper;
+        this.columns = spec.getColumns();
+        this.csvIndexes = new int[columns.size()];
+        if (header == null) {
+            wktIndex = -1;
+            return;
+        }
+        wktIndex = header.indexOf(spec.getWktColumn());
+        if (wktIndex < 0) {
+            throw new IllegalArgumentException("CSV column not found: " + spec.getWktColumn());
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            csvIndexes[i] = header.indexOf(property(columns.get(i)));
+        }
+    }
+
+    /**
+     * @param records 一批记录
+     * @return 编码结果
+     */
+    Chunk encode(List<Object> records) {
+        ChunkBuffer buffer = new ChunkBuffer(records.size() * 256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        Object[] values = new Object[columns.size()];
+        int errors = 0;
+        String firstError = null;
+        try {
+            for (Object record : records) {
+                Geometry geometry;
+                // 先完成所有转换再写入，出错的记录不会留下半个元组
+                try {
+                    geometry = convert(record, values);
+                } catch (Exception e) {
+                    errors++;
+                    if (firstError == null) {
+                        firstError = e.toString();
+                    }
+                    continue;
+                }
+                writeTuple(out, geometry, values);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Chunk(records.size(), errors, firstError, buffer);
+    }
+
+    @Nullable
+    private Geometry convert(Object record, Object[] values) throws Exception {
+        Geometry geometry;
+        if (record instanceof String[] row) {
+            String wkt = row.length > wktIndex ? row[wktIndex] : null;
+            geometry = wkt == null || wkt.isBlank() ? null : wktReader.read(wkt);
+            for (int i = 0; i < values.length; i++) {
+                int index = csvIndexes[i];
+                values[i] = index < 0 || index >= row.length ? null : parse(row[index], columns.get(i).getType());
+            }
+        } else {
+            JsonNode feature = record instanceof JsonNode node ? node : objectMapper.readTree((String) record);
+            JsonNode geometryNode = feature.get("geometry");
+            geometry = geometryNode == null || geometryNode.isNull() ? null : objectMapper.treeToValue(geometryNode, Geometry.class);
+            JsonNode properties = feature.get("properties");
+            for (int i = 0; i < values.length; i++) {
+                JsonNode value = properties == null ? null : properties.get(property(columns.get(i)));
+                values[i] = convert(value, columns.get(i).getType());
+            }
+        }
+        if (geometry != null) {
+            geometry.setSRID(spec.getSrid());
+        }
+        return geometry;
+    }
+
+    private static String property(IngestSpec.Column column) {
+        return column.getProperty() == null || column.getProperty().isEmpty() ? column.getName() : column.getProperty();
+    }
+
+    @Nullable
+    private static Object convert(@Nullable JsonNode node, IngestSpec.ColumnType type) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isTextual()) {
+            return parse(node.textValue(), type);
+        }
+        return switch (type) {
+            case TEXT -> node.isValueNode() ? node.asText() : node.toString();
+            case INT4 -> {
+                if (!node.canConvertToInt()) {
+                    throw new IllegalArgumentException("Not an integer: " + node);
+                }
+                yield node.intValue();
+            }
+            case INT8 -> {
+                if (!node.canConvertToLong()) {
+                    throw new IllegalArgumentException("Not a bigint: " + node);
+                }
+                yield node.longValue();
+            }
+            case FLOAT8 -> {
+                if (!node.isNumber()) {
+                    throw new IllegalArgumentException("Not a number: " + node);
+                }
+                yield node.doubleValue();
+            }
+            case BOOL -> {
+                if (!node.isBoolean()) {
+                    throw new IllegalArgumentException("Not a boolean: " + node);
+                }
+                yield node.booleanValue();
+            }
+        };
+    }
+
+    @Nullable
+    private static Object parse(@Nullable String text, IngestSpec.ColumnType type) {
+        if (text == null || (type != IngestSpec.ColumnType.TEXT && text.isBlank())) {
+            return null;
+        }
+        return switch (type) {
+            case TEXT -> text;
+            case INT4 -> Integer.parseInt(text.trim());
+            case INT8 -> Long.parseLong(text.trim());
+            case FLOAT8 -> Double.parseDouble(text.trim());
+            case BOOL -> switch (text.trim().toLowerCase()) {
+                case "true", "t", "1", "yes", "y" -> true;
+                case "false", "f", "0", "no", "n" -> false;
+                default -> throw new IllegalArgumentException("Not a boolean: " + text);
+            };
+        };
+    }
+
+    private void writeTuple(DataOutputStream out, @Nullable Geometry geometry, Object[] values) throws IOException {
+        out.writeShort(1 + values.length);
+        if (geometry == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] ewkb = wkbWriter.write(geometry);
+            out.writeInt(ewkb.length);
+            out.write(ewkb);
+        }
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                out.writeInt(-1);
+                continue;
+            }
+            switch (columns.get(i).getType()) {
+                case TEXT -> {
+                    byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                case INT4 -> {
+                    out.writeInt(4);
+                    out.writeInt((Integer) value);
+                }
+                case INT8 -> {
+                    out.writeInt(8);
+                    out.writeLong((Long) value);
+                }
+                case FLOAT8 -> {
+                    out.writeInt(8);
+                    out.writeDouble((Double) value);
+                }
+                case BOOL -> {
+                    out.writeInt(1);
+                    out.writeByte((Boolean) value ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * 编码后的一批数据
+     * @param records 记录数（含错误记录）
+     * @param errors 跳过的错误记录数
+     * @param firstError 第一条错误记录的原因
+     * @param buffer 元组数据
+     */
+    record Chunk(int records, int errors, @Nullable String firstError, ChunkBuffer buffer) {
+    }
+
+    /**
+     * 直接暴露内部数组，写入 COPY 时无需再复制一次
+     */
+    static final class ChunkBuffer extends ByteArrayOutputStream {
+
+        ChunkBuffer(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.gistest.modules.ingest.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.modules.ingest.vo.IngestProgress;
+import org.gistest.modules.ingest.vo.IngestSpec;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * 命令行导入：启动参数带 --ingest.spec=任务描述文件（IngestSpec 的 JSON）时执行一次导入后退出，
+ * 带 --ingest.resume=任务id 时续传该任务；退出码 0 表示完成
+ * 例：java -jar gistest-system-start.jar --ingest.spec=roads.json --spring.main.web-application-type=none
+ */
+@Slf4j
+@Component
+public class IngestCommandLineRunner implements ApplicationRunner {
+
+    private static final String SPEC_OPTION = "ingest.spec";
+
+    private static final String RESUME_OPTION = "ingest.resume";
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 10_000;
+
+    @Resource
+    private IngestService ingestService;
+
+    @Resource
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> spec = args.getOptionValues(SPEC_OPTION);
+        List<String> resume = args.getOptionValues(RESUME_OPTION);
+        if ((spec == null || spec.isEmpty()) && (resume == null || resume.isEmpty())) {
+            return;
+        }
+        IngestProgress progress;
+        if (spec != null && !spec.isEmpty()) {
+            IngestSpec ingestSpec = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                    .readValue(new File(spec.get(0)), IngestSpec.class);
+            progress = ingestService.submit(ingestSpec);
+        } else {
+            progress = ingestService.resume(resume.get(0));
+            if (progress == null) {
+                throw new IllegalArgumentException("Unknown ingest job: " + resume.get(0));
+            }
+        }
+        log.info("命令行导入任务:{}", progress.id());
+        IngestProgress result;
+        while (!IngestService.isFinished(result = ingestService.await(progress.id(), PROGRESS_INTERVAL_MILLIS))) {
+            log.info("导入进度 {}%，已提交:{}，错误:{}，{} 条/秒，{} MB/秒", result.percent(), result.recordsCommitted(), result.errors(),
+                    (long) result.recordsPerSecond(), result.megabytesPerSecond());
+        }
+        int exitCode = "COMPLETED".equals(result.state()) ? 0 : 1;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+}
@@ -0,0 +1,104 @@
+package org.gistest.modules.ingest.service;
+
+import org.gistest.modules.ingest.vo.IngestProgress;
+import org.gistest.modules.ingest.vo.IngestSpec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+
+/**
+ * 导入任务的运行状态，只由任务线程修改
+ */
+final class IngestJob {
+
+    static final String QUEUED = "QUEUED";
+    static final String RUNNING = "RUNNING";
+    static final String INDEXING = "INDEXING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+    static final String CANCELLED = "CANCELLED";
+
+    final String id;
+
+    final IngestSpec spec;
+
+    final Path path;
+
+    final long totalBytes;
+
+    final long createdAt = System.currentTimeMillis();
+
+    volatile String state = QUEUED;
+
+    volatile String message;
+
+    volatile long read;
+
+    /**
+     * 检查点：已提交的记录数（含错误记录）
+     */
+    volatile long committed;
+
+    volatile long errors;
+
+    volatile boolean cancelled;
+
+    volatile IngestService.CountingInputStream input;
+
+    Future<?> future;
+
+    /**
+     * 本次运行开始时的检查点与时间，用于计算速度
+     */
+    private volatile long startCommitted;
+
+    private volatile long startNanos;
+
+    private volatile long endNanos;
+
+    IngestJob(String id, IngestSpec spec, Path path, long committed, long errors) {
+        this.id = id;
+        this.spec = spec;
+        this.path = path;
+        this.committed = committed;
+        this.errors = errors;
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            size = -1;
+        }
+        this.totalBytes = size;
+    }
+
+    void start() {
+        startCommitted = committed;
+        startNanos = System.nanoTime();
+        state = RUNNING;
+    }
+
+    void finish(String state, String message) {
+        endNanos = System.nanoTime();
+        this.message = message;
+        this.state = state;
+    }
+
+    boolean isFinished() {
+        return COMPLETED.equals(state) || FAILED.equals(state) || CANCELLED.equals(state);
+    }
+
+    IngestProgress progress() {
+        IngestService.CountingInputStream in = input;
+        long bytesRead = in == null ? 0 : in.getCount();
+        long elapsedNanos = startNanos == 0 ? 0 : (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+        double seconds = elapsedNanos / 1e9;
+        double percent = COMPLETED.equals(state) ? 100 : totalBytes > 0 ? Math.min(100.0, bytesRead * 100.0 / totalBytes) : 0;
+        return new IngestProgress(id, state, spec.getSource(), spec.getTable(), read, committed, errors, bytesRead, totalBytes,
+                Math.round(percent * 10) / 10.0,
+                seconds > 0 ? Math.round((committed - startCommitted) / seconds) : 0,
+                seconds > 0 ? Math.round(bytesRead / seconds / (1 << 20) * 100) / 100.0 : 0,
+                elapsedNanos / 1_000_000, message);
+    }
+}
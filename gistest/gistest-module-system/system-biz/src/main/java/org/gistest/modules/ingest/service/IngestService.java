@@ -0,0 +1,510 @@
+package org.gistest.modules.ingest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.modules.ingest.config.IngestProperties;
+import org.gistest.modules.ingest.mapper.IngestMapper;
+import org.gistest.modules.ingest.vo.IngestProgress;
+import org.gistest.modules.ingest.vo.IngestSpec;
+import org.gistest.modules.lod.service.LodService;
+import org.gistest.modules.tile.config.TileProperties;
+import org.n52.jackson.datatype.jts.JtsModule;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 批量数据导入：GeoJSON、GeoJSONSeq、CSV（WKT）文件经 COPY BINARY 写入 PostGIS
+ * 流程：任务线程顺序读取并切分记录，每 chunkSize 条交给工作线程并行解析、转换为 EWKB 并编码为 COPY 元组，
+ * 再按读取顺序逐批在独立事务中写入，同一事务更新 gis_ingest_job 的检查点（已提交记录数）
+ * 已读取未写入的批数不超过 maxChunksInFlight，内存占用与文件大小无关
+ * 中断后的任务可以续传：跳过检查点之前的记录，从下一批继续
+ * 全部写入后创建空间索引并执行 ANALYZE，以该表为源的瓦片图层配置了 lodZooms 时在后台增量重新简化
+ * 任务逐个执行，同时只有一个任务占用工作线程与数据库连接
+ */
+@Slf4j
+@Service
+public class IngestService {
+
+    /**
+     * 表名、字段名只允许标识符，这些值会直接拼入 SQL
+     */
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private static final Pattern COLUMN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * 记录日志的错误记录数上限，避免脏数据刷屏
+     */
+    private static final int MAX_LOGGED_ERRORS = 20;
+
+    private static final ObjectMapper SPEC_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * GeoJSON 几何解析，线程安全
+     */
+    private static final ObjectMapper GEOJSON_MAPPER = new ObjectMapper().registerModule(new JtsModule());
+
+    @Resource
+    private IngestProperties ingestProperties;
+
+    @Resource
+    private IngestMapper ingestMapper;
+
+    @Resource
+    private TileProperties tileProperties;
+
+    @Resource
+    private LodService lodService;
+
+    @Resource
+    private DataSource dataSource;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, IngestJob> jobs = new ConcurrentHashMap<>();
+
+    private TransactionTemplate writeTransaction;
+
+    private ExecutorService jobExecutor;
+
+    private ExecutorService workers;
+
+    private Path directory;
+
+    private int parallelism;
+
+    private volatile boolean jobTableCreated;
+
+    @PostConstruct
+    public void init() {
+        if (ingestProperties.getChunkSize() <= 0) {
+            throw new IllegalStateException("gistest.ingest.chunk-size must be positive");
+        }
+        directory = Paths.get(ingestProperties.getDirectory()).toAbsolutePath().normalize();
+        parallelism = ingestProperties.getParallelism() > 0 ? ingestProperties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingest-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "ingest-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("数据导入目录:{}，并行度:{}", directory, parallelism);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        jobExecutor.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * 创建导入任务并排队执行
+     * @param spec
+     * @return 任务进度
+     * @throws IllegalArgumentException 参数不合法或文件不存在
+     */
+    public IngestProgress submit(IngestSpec spec) {
+        Path path = validate(spec);
+        String specJson;
+        try {
+            specJson = SPEC_MAPPER.writeValueAsString(spec);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        createJobTable();
+        String id = UUID.randomUUID().toString();
+        ingestMapper.insertJob(id, specJson, spec.getSource(), spec.getTable());
+        return start(new IngestJob(id, spec, path, 0, 0)).progress();
+    }
+
+    /**
+     * 续传中断（失败、取消或进程退出）的任务，从检查点之后继续
+     * @param id
+     * @return 任务进度，任务不存在时返回 null
+     * @throws IllegalArgumentException 任务正在执行或已完成
+     */
+    @Nullable
+    public IngestProgress resume(String id) {
+        IngestJob current = jobs.get(id);
+        if (current != null && !current.isFinished()) {
+            throw new IllegalArgumentException("Ingest job is running: " + id);
+        }
+        createJobTable();
+        Map<String, Object> row = ingestMapper.selectJob(id);
+        if (row == null) {
+            return null;
+        }
+        if (IngestJob.COMPLETED.equals(row.get("state"))) {
+            throw new IllegalArgumentException("Ingest job is already completed: " + id);
+        }
+        IngestSpec spec;
+        try {
+            spec = SPEC_MAPPER.readValue((String) row.get("spec"), IngestSpec.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid spec of ingest job: " + id, e);
+        }
+        Path path = validate(spec);
+        IngestJob job = new IngestJob(id, spec, path, ((Number) row.get("committed")).longValue(), ((Number) row.get("errors")).longValue());
+        return start(job).progress();
+    }
+
+    /**
+     * 取消任务，已提交的批次保留，之后可以续传
+     * @param id
+     * @return 任务不存在或已结束时返回 false
+     */
+    public boolean cancel(String id) {
+        IngestJob job = jobs.get(id);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    @Nullable
+    public IngestProgress getProgress(String id) {
+        IngestJob job = jobs.get(id);
+        return job == null ? null : job.progress();
+    }
+
+    /**
+     * @return 本进程中的任务，按创建时间排序
+     */
+    public List<IngestProgress> listProgress() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong(job -> job.createdAt))
+                .map(IngestJob::progress)
+                .toList();
+    }
+
+    /**
+     * 等待任务结束，命令行导入使用
+     * @param id
+     * @param timeoutMillis 最长等待时间
+     * @return 当前进度，任务未结束时 state 不是终态
+     */
+    public IngestProgress await(String id, long timeoutMillis) throws InterruptedException {
+        IngestJob job = jobs.get(id);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown ingest job: " + id);
+        }
+        try {
+            job.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 返回当前进度
+        } catch (ExecutionException e) {
+            // run 内部已处理异常，这里不会发生
+            log.error("导入任务异常结束:{}", id, e.getCause());
+        }
+        return job.progress();
+    }
+
+    /**
+     * @return 任务状态是否为终态（完成、失败、取消）
+     */
+    public static boolean isFinished(IngestProgress progress) {
+        return IngestJob.COMPLETED.equals(progress.state()) || IngestJob.FAILED.equals(progress.state())
+                || IngestJob.CANCELLED.equals(progress.state());
+    }
+
+    private synchronized IngestJob start(IngestJob job) {
+        IngestJob current = jobs.get(job.id);
+        if (current != null && !current.isFinished()) {
+            throw new IllegalArgumentException("Ingest job is running: " + job.id);
+        }
+        jobs.put(job.id, job);
+        job.future = jobExecutor.submit(() -> run(job));
+        return job;
+    }
+
+    private void createJobTable() {
+        if (!jobTableCreated) {
+            ingestMapper.createJobTable();
+            jobTableCreated = true;
+        }
+    }
+
+    private Path validate(IngestSpec spec) {
+        if (spec.getSource() == null || spec.getSource().isEmpty()) {
+            throw new IllegalArgumentException("source is required");
+        }
+        Path path = directory.resolve(spec.getSource()).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IllegalArgumentException("source must be inside the ingest directory");
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("source not found: " + spec.getSource());
+        }
+        if (spec.getFormat() == null) {
+            spec.setFormat(detectFormat(path));
+        }
+        check(IDENTIFIER, spec.getTable());
+        check(COLUMN, spec.getGeometryColumn());
+        if (spec.getSrid() < 0) {
+            throw new IllegalArgumentException("Invalid srid: " + spec.getSrid());
+        }
+        Set<String> names = new HashSet<>();
+        names.add("id");
+        names.add(spec.getGeometryColumn().toLowerCase(Locale.ROOT));
+        for (IngestSpec.Column column : spec.getColumns()) {
+            check(COLUMN, column.getName());
+            if (column.getType() == null) {
+                throw new IllegalArgumentException("Column type is required: " + column.getName());
+            }
+            if (!names.add(column.getName().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Duplicate or reserved column: " + column.getName());
+            }
+        }
+        if (spec.getFormat() == IngestSpec.Format.CSV && (spec.getWktColumn() == null || spec.getWktColumn().isEmpty())) {
+            throw new IllegalArgumentException("wktColumn is required for CSV");
+        }
+        if (spec.getMaxErrors() < 0) {
+            throw new IllegalArgumentException("Invalid maxErrors: " + spec.getMaxErrors());
+        }
+        return path;
+    }
+
+    private static void check(Pattern pattern, @Nullable String value) {
+        if (value == null || !pattern.matcher(value).matches()) {
+            throw new IllegalArgumentException("Invalid identifier: " + value);
+        }
+    }
+
+    private static IngestSpec.Format detectFormat(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".geojsonl") || name.endsWith(".geojsons") || name.endsWith(".ndjson") || name.endsWith(".geojsonseq")) {
+            return IngestSpec.Format.GEOJSONSEQ;
+        }
+        if (name.endsWith(".geojson") || name.endsWith(".json")) {
+            return IngestSpec.Format.GEOJSON;
+        }
+        if (name.endsWith(".csv") || name.endsWith(".tsv")) {
+            return IngestSpec.Format.CSV;
+        }
+        throw new IllegalArgumentException("Unknown format of source: " + path.getFileName());
+    }
+
+    private void run(IngestJob job) {
+        IngestSpec spec = job.spec;
+        job.start();
+        Deque<Future<CopyEncoder.Chunk>> inFlight = new ArrayDeque<>();
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(job.path));
+             RecordReader reader = RecordReader.open(spec.getFormat(), in, spec, GEOJSON_MAPPER)) {
+            job.input = in;
+            if (spec.isCreateTable()) {
+                ingestMapper.createTargetTable(spec);
+            }
+            ingestMapper.updateJob(job.id, IngestJob.RUNNING, job.committed, job.errors, null);
+            log.info("开始导入 {} -> {}，任务:{}，检查点:{}", spec.getSource(), spec.getTable(), job.id, job.committed);
+            // 续传：跳过已提交的记录（只切分不解析）
+            for (long i = 0; i < job.committed; i++) {
+                if (reader.next() == null) {
+                    break;
+                }
+            }
+            job.read = job.committed;
+            String copySql = copySql(spec);
+            int maxInFlight = ingestProperties.getMaxChunksInFlight() > 0 ? ingestProperties.getMaxChunksInFlight() : parallelism + 2;
+            int chunkSize = ingestProperties.getChunkSize();
+            while (!job.cancelled) {
+                List<Object> records = new ArrayList<>(chunkSize);
+                Object record;
+                while (records.size() < chunkSize && (record = reader.next()) != null) {
+                    records.add(record);
+                }
+                if (records.isEmpty()) {
+                    break;
+                }
+                job.read += records.size();
+                // 表头在读取第一行后才可用，编码器在提交时创建
+                CopyEncoder encoder = new CopyEncoder(spec, GEOJSON_MAPPER, reader.header());
+                inFlight.add(workers.submit(() -> encoder.encode(records)));
+                if (inFlight.size() >= maxInFlight) {
+                    write(job, copySql, inFlight.poll().get());
+                }
+            }
+            while (!inFlight.isEmpty() && !job.cancelled) {
+                write(job, copySql, inFlight.poll().get());
+            }
+            if (job.cancelled) {
+                finish(job, IngestJob.CANCELLED, "Cancelled");
+                return;
+            }
+            job.state = IngestJob.INDEXING;
+            ingestMapper.updateJob(job.id, IngestJob.INDEXING, job.committed, job.errors, null);
+            ingestMapper.createSpatialIndex(spec, indexName(spec));
+            ingestMapper.analyze(spec.getTable());
+            finish(job, IngestJob.COMPLETED, null);
+            tileProperties.getLayers().forEach((name, layer) -> {
+                if (spec.getTable().equals(layer.getTable())) {
+                    lodService.generalizeAsync(name, null);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, IngestJob.CANCELLED, "Interrupted");
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("导入失败，任务:{}，已提交:{}", job.id, job.committed, cause);
+            finish(job, IngestJob.FAILED, cause.toString());
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void finish(IngestJob job, String state, @Nullable String message) {
+        job.finish(state, message);
+        try {
+            ingestMapper.updateJob(job.id, state, job.committed, job.errors, message);
+        } catch (Exception e) {
+            log.warn("更新导入任务状态失败:{}", job.id, e);
+        }
+        IngestProgress progress = job.progress();
+        log.info("导入结束，任务:{}，状态:{}，提交:{}，错误:{}，耗时:{}ms，{} 条/秒", job.id, state, progress.recordsCommitted(),
+                progress.errors(), progress.elapsedMillis(), (long) progress.recordsPerSecond());
+    }
+
+    /**
+     * 一批数据与检查点在同一事务中提交
+     */
+    private void write(IngestJob job, String copySql, CopyEncoder.Chunk chunk) {
+        long errors = job.errors + chunk.errors();
+        if (chunk.errors() > 0 && job.errors < MAX_LOGGED_ERRORS) {
+            log.warn("导入任务 {} 跳过 {} 条无法解析的记录，如:{}", job.id, chunk.errors(), chunk.firstError());
+        }
+        if (errors > job.spec.getMaxErrors()) {
+            throw new IllegalStateException("Too many invalid records: " + errors + ", first: " + chunk.firstError());
+        }
+        long committed = job.committed + chunk.records();
+        writeTransaction.executeWithoutResult(status -> {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                if (ingestProperties.isAsyncCommit()) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SET LOCAL synchronous_commit TO OFF");
+                    }
+                }
+                CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+                try {
+                    copy.writeToCopy(CopyEncoder.HEADER, 0, CopyEncoder.HEADER.length);
+                    copy.writeToCopy(chunk.buffer().array(), 0, chunk.buffer().size());
+                    copy.writeToCopy(CopyEncoder.TRAILER, 0, CopyEncoder.TRAILER.length);
+                    copy.endCopy();
+                } finally {
+                    if (copy.isActive()) {
+                        copy.cancelCopy();
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("COPY failed: " + e.getMessage(), e);
+            }
+            ingestMapper.updateJob(job.id, IngestJob.RUNNING, committed, errors, null);
+        });
+        job.committed = committed;
+        job.errors = errors;
+    }
+
+    private static String copySql(IngestSpec spec) {
+        StringBuilder sql = new StringBuilder("COPY ").append(spec.getTable()).append(" (").append(spec.getGeometryColumn());
+        spec.getColumns().forEach(column -> sql.append(", ").append(column.getName()));
+        return sql.append(") FROM STDIN (FORMAT binary)").toString();
+    }
+
+    private static String indexName(IngestSpec spec) {
+        String table = spec.getTable();
+        return table.substring(table.lastIndexOf('.') + 1) + "_" + spec.getGeometryColumn() + "_gist";
+    }
+
+    /**
+     * 记录已读取的字节数，用于计算进度
+     */
+    static final class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
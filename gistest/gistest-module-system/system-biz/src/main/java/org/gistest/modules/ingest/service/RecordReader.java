@@ -0,0 +1,149 @@
+package org.gistest.modules.ingest.service;
+
+import cn.hutool.core.text.csv.CsvParser;
+import cn.hutool.core.text.csv.CsvReadConfig;
+import cn.hutool.core.text.csv.CsvRow;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gistest.modules.ingest.vo.IngestSpec;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 顺序读取数据文件中的记录，只做切分，解析交给 CopyEncoder 在工作线程中完成
+ * 记录类型：GEOJSON 为 JsonNode（FeatureCollection 需要分词才能切分出要素），GEOJSONSEQ 为一行文本，CSV 为 String[]
+ */
+abstract class RecordReader implements Closeable {
+
+    /**
+     * @return 下一条记录，读完时返回 null
+     */
+    @Nullable
+    abstract Object next() throws IOException;
+
+    /**
+     * @return CSV 表头，其他格式为 null
+     */
+    @Nullable
+    List<String> header() {
+        return null;
+    }
+
+    static RecordReader open(IngestSpec.Format format, InputStream in, IngestSpec spec, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case GEOJSON -> new FeatureCollectionReader(objectMapper.getFactory().createParser(in));
+            case GEOJSONSEQ -> new LineReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16));
+            case CSV -> new CsvRecordReader(new CsvParser(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16),
+                    CsvReadConfig.defaultConfig().setContainsHeader(true).setSkipEmptyRows(true).setFieldSeparator(spec.getDelimiter())));
+        };
+    }
+
+    /**
+     * 流式读取 FeatureCollection 的 features 数组，每次只保留一个要素的树
+     */
+    private static final class FeatureCollectionReader extends RecordReader {
+
+        private final JsonParser parser;
+
+        private boolean started;
+
+        FeatureCollectionReader(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        Object next() throws IOException {
+            if (!started) {
+                started = true;
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Not a GeoJSON FeatureCollection");
+                }
+                while (true) {
+                    if (parser.nextToken() != JsonToken.FIELD_NAME) {
+                        throw new IOException("GeoJSON FeatureCollection without features");
+                    }
+                    String field = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if ("features".equals(field) && token == JsonToken.START_ARRAY) {
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            return parser.readValueAsTree();
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    /**
+     * 每行一个要素，跳过空行与 GeoJSON Text Sequences 的记录分隔符（0x1E）
+     */
+    private static final class LineReader extends RecordReader {
+
+        private final BufferedReader reader;
+
+        LineReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        Object next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && line.charAt(0) == '\u001e') {
+                    line = line.substring(1);
+                }
+                if (!line.isBlank()) {
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class CsvRecordReader extends RecordReader {
+
+        private final CsvParser parser;
+
+        CsvRecordReader(CsvParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        Object next() {
+            CsvRow row = parser.nextRow();
+            return row == null ? null : row.getRawList().toArray(new String[0]);
+        }
+
+        @Override
+        List<String> header() {
+            return parser.getHeader();
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.gistest.modules.ingest.vo;
+
+/**
+ * 导入任务进度
+ * @param id 任务 id
+ * @param state 任务状态
+ * @param source 数据文件
+ * @param table 目标表
+ * @param recordsRead 已读取的记录数
+ * @param recordsCommitted 已提交的记录数（含跳过的错误记录），即检查点
+ * @param errors 跳过的错误记录数
+ * @param bytesRead 已读取的文件字节数
+ * @param totalBytes 文件大小
+ * @param percent 按字节计算的进度
+ * @param recordsPerSecond 本次运行的提交速度
+ * @param megabytesPerSecond 本次运行的读取速度
+ * @param elapsedMillis 本次运行耗时
+ * @param message 失败原因
+ */
+public record IngestProgress(String id, String state, String source, String table, long recordsRead, long recordsCommitted, long errors,
+                             long bytesRead, long totalBytes, double percent, double recordsPerSecond, double megabytesPerSecond,
+                             long elapsedMillis, String message) {
+}
@@ -0,0 +1,115 @@
+package org.gistest.modules.ingest.vo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导入任务参数，同时保存在任务表中用于续传
+ */
+public class IngestSpec {
+    /**
+     * 数据文件，gistest.ingest.directory 下的相对路径
+     */
+    private String source;
+    /**
+     * 文件格式，为空时按扩展名判断：.geojson/.json 为 GEOJSON，.geojsonl/.geojsons/.ndjson 为 GEOJSONSEQ，.csv 为 CSV
+     */
+    private Format format;
+    /**
+     * 目标表，可带 schema
+     */
+    private String table;
+    private String geometryColumn = "geom";
+    /**
+     * 数据的坐标系，几何按此 SRID 写入（不做转换）
+     */
+    private int srid = 4326;
+    /**
+     * 属性字段映射
+     */
+    private List<Column> columns = new ArrayList<>();
+    /**
+     * CSV 中 WKT 几何所在的列名
+     */
+    private String wktColumn = "wkt";
+    private char delimiter = ',';
+    /**
+     * 目标表不存在时创建（id bigserial 主键、几何字段与属性字段）
+     */
+    private boolean createTable = true;
+    /**
+     * 允许跳过的错误记录数，超过时任务失败
+     */
+    private long maxErrors = 0;
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public Format getFormat() { return format; }
+    public void setFormat(Format format) { this.format = format; }
+    public String getTable() { return table; }
+    public void setTable(String table) { this.table = table; }
+    public String getGeometryColumn() { return geometryColumn; }
+    public void setGeometryColumn(String geometryColumn) { this.geometryColumn = geometryColumn; }
+    public int getSrid() { return srid; }
+    public void setSrid(int srid) { this.srid = srid; }
+    public List<Column> getColumns() { return columns; }
+    public void setColumns(List<Column> columns) { this.columns = columns; }
+    public String getWktColumn() { return wktColumn; }
+    public void setWktColumn(String wktColumn) { this.wktColumn = wktColumn; }
+    public char getDelimiter() { return delimiter; }
+    public void setDelimiter(char delimiter) { this.delimiter = delimiter; }
+    public boolean isCreateTable() { return createTable; }
+    public void setCreateTable(boolean createTable) { this.createTable = createTable; }
+    public long getMaxErrors() { return maxErrors; }
+    public void setMaxErrors(long maxErrors) { this.maxErrors = maxErrors; }
+
+    public enum Format {
+        /**
+         * GeoJSON FeatureCollection
+         */
+        GEOJSON,
+        /**
+         * 每行一个 GeoJSON Feature
+         */
+        GEOJSONSEQ,
+        /**
+         * 带表头的 CSV，几何为 WKT
+         */
+        CSV
+    }
+
+    public enum ColumnType {
+        TEXT("text"),
+        INT4("integer"),
+        INT8("bigint"),
+        FLOAT8("double precision"),
+        BOOL("boolean");
+
+        private final String sqlType;
+
+        ColumnType(String sqlType) {
+            this.sqlType = sqlType;
+        }
+
+        public String getSqlType() {
+            return sqlType;
+        }
+    }
+
+    public static class Column {
+        /**
+         * 目标字段名
+         */
+        private String name;
+        /**
+         * GeoJSON 属性名或 CSV 列名，为空时与 name 相同
+         */
+        private String property;
+        private ColumnType type = ColumnType.TEXT;
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getProperty() { return property; }
+        public void setProperty(String property) { this.property = property; }
+        public ColumnType getType() { return type; }
+        public void setType(ColumnType type) { this.type = type; }
+    }
+}
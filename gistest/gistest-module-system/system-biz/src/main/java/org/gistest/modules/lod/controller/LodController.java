@@ -0,0 +1,36 @@
+package org.gistest.modules.lod.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.api.vo.Result;
+import org.gistest.modules.lod.service.LodService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name="几何简化")
+@RestController
+@Slf4j
+public class LodController {
+
+    @Autowired
+    private LodService lodService;
+
+    /**
+     * 默认只处理新增、变化的要素；ids 指定要素时只处理这些要素；force=true 时全部重新计算
+     * 完成后按数据变化范围调用 /tiles/{layer}/invalidate 失效瓦片缓存
+     */
+    @Operation(summary = "计算图层的分级简化几何")
+    @PostMapping(value = "/lod/{layer}/generalize")
+    public Result<LodService.Summary> generalize(@PathVariable("layer") String layer, @RequestParam(value = "ids", required = false) long[] ids,
+                                                 @RequestParam(value = "force", defaultValue = "false") boolean force) {
+        try {
+            return Result.OK(lodService.generalize(layer, ids, force));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.gistest.modules.lod.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import org.gistest.modules.lod.service.LodService;
+import org.gistest.modules.tile.config.TileProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 简化几何表 gis_feature_lod：每个要素每一档一行，几何与原表坐标系相同
+ * 表名、字段名、图层名直接拼入 SQL，只能来自 TileProperties 中校验过的配置
+ */
+@Mapper
+public interface LodMapper {
+
+    void createTables();
+
+    /**
+     * 每档一个部分索引，查询按 图层+层级 的常量条件命中
+     */
+    void createIndex(@Param("name") String name, @Param("zoom") int zoom);
+
+    /**
+     * 逐行读取需要简化的要素，需要在事务中调用才会按 fetchSize 分批读取
+     *
+     * @param name 图层名称
+     * @param layer 图层配置
+     * @param zoom 任一档层级，用于判断简化结果是否存在、是否过期
+     * @param ids 只读取这些 id，为 null 时读取全部
+     * @param changedOnly 只读取没有简化结果或原几何已变化（md5 不同）的要素
+     * @param signature 档位与容差的签名，参与 md5 计算
+     * @param handler 行处理器，行数据 key 为 __id、__hash（原几何 EWKB 加签名的 md5）、__wkb（EPSG:3857 的 WKB）
+     */
+    void selectSources(@Param("name") String name, @Param("layer") TileProperties.Layer layer, @Param("zoom") int zoom,
+                       @Param("ids") Long[] ids, @Param("changedOnly") boolean changedOnly, @Param("signature") String signature,
+                       ResultHandler<Map<String, Object>> handler);
+
+    int upsert(@Param("name") String name, @Param("srid") int srid, @Param("rows") List<LodService.LodRow> rows);
+
+    /**
+     * 删除已不存在的要素、已不在配置中的层级
+     * @param ids 只处理这些 id，为 null 时处理整个图层
+     */
+    int deleteStale(@Param("name") String name, @Param("layer") TileProperties.Layer layer, @Param("zooms") Integer[] zooms, @Param("ids") Long[] ids);
+
+    void upsertState(@Param("name") String name, @Param("signature") String signature);
+
+    String selectSignature(@Param("name") String name);
+}
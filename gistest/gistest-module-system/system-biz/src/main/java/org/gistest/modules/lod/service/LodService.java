@@ -0,0 +1,373 @@
+package org.gistest.modules.lod.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.modules.lod.mapper.LodMapper;
+import org.gistest.modules.tile.config.TileProperties;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 几何分级简化（LOD）
+ * 按图层配置的 lodZooms 为每个要素预计算各档的简化几何，存入 gis_feature_lod；瓦片与要素导出按请求层级自动选用
+ * 简化在 EPSG:3857 下用 TopologyPreservingSimplifier 计算，容差为该档最大层级的 lodTolerance 个像素，
+ * 由细到粗逐档简化（每档在上一档结果上继续简化）；每批要素在 ForkJoinPool 中并行计算，再在独立事务中写入
+ * 增量：默认只处理没有简化结果或原几何已变化（EWKB 加配置签名的 md5 不同）的要素，中断后重新运行从未完成的要素继续；也可以指定 id
+ * 一次完整运行结束后写入配置签名，签名与当前配置一致时查询才使用简化几何，配置变化后需重新运行
+ * 要素变更（数据变更通知、导入完成）后由 generalizeAsync 在后台重新简化；尚未简化的要素查询时使用原始几何
+ */
+@Slf4j
+@Service
+public class LodService {
+
+    /**
+     * 256 像素瓦片在 0 级的分辨率（米/像素）
+     */
+    private static final double ZOOM0_RESOLUTION = 2 * Math.PI * 6378137 / 256;
+
+    private static final int MAX_LEVELS = 8;
+
+    /**
+     * 每个 fork-join 子任务至少处理的要素数
+     */
+    private static final int SPLIT_THRESHOLD = 16;
+
+    /**
+     * 简化结果是否可用的缓存时间，其他节点完成简化后最迟在该时间后生效
+     */
+    private static final long STATE_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(60);
+
+    @Resource
+    private TileProperties tileProperties;
+
+    @Resource
+    private LodMapper lodMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate writeTransaction;
+
+    private TransactionTemplate readTransaction;
+
+    private ForkJoinPool pool;
+
+    private ExecutorService changeExecutor;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        tileProperties.getLayers().forEach((name, layer) -> {
+            List<Integer> zooms = layer.getLodZooms();
+            if (zooms.isEmpty()) {
+                return;
+            }
+            if (layer.getIdColumn() == null || layer.getIdColumn().isEmpty()) {
+                throw new IllegalStateException("LOD requires id-column of tile layer: " + name);
+            }
+            if (zooms.size() > MAX_LEVELS) {
+                throw new IllegalStateException("Too many lod-zooms of tile layer: " + name);
+            }
+            for (int i = 0; i < zooms.size(); i++) {
+                if (zooms.get(i) < 0 || zooms.get(i) > 30 || (i > 0 && zooms.get(i) <= zooms.get(i - 1))) {
+                    throw new IllegalStateException("lod-zooms must be ascending zoom levels of tile layer: " + name);
+                }
+            }
+        });
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        int parallelism = tileProperties.getLodParallelism() > 0 ? tileProperties.getLodParallelism() : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(parallelism);
+        changeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lod-change");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        changeExecutor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * 请求层级使用的简化档位
+     * @param name 图层名称
+     * @param layer 图层配置
+     * @param z 请求层级
+     * @return 档位（该档的最大层级）；未配置、超出最后一档或简化结果不可用时返回 null，使用原始几何
+     */
+    @Nullable
+    public Integer lodZoom(String name, TileProperties.Layer layer, int z) {
+        for (int zoom : layer.getLodZooms()) {
+            if (z <= zoom) {
+                return isReady(name, layer) ? zoom : null;
+            }
+        }
+        return null;
+    }
+
+    private boolean isReady(String name, TileProperties.Layer layer) {
+        State state = states.get(name);
+        long now = System.nanoTime();
+        if (state == null || now - state.checkedAt > STATE_CHECK_INTERVAL) {
+            boolean ready;
+            try {
+                ready = signature(layer).equals(lodMapper.selectSignature(name));
+            } catch (DataAccessException e) {
+                // 简化表尚未创建
+                log.debug("读取简化状态失败，图层:{}", name, e);
+                ready = false;
+            }
+            state = new State(ready, now);
+            states.put(name, state);
+        }
+        return state.ready;
+    }
+
+    private String signature(TileProperties.Layer layer) {
+        return layer.getLodZooms().stream().map(String::valueOf).collect(Collectors.joining(","))
+                + "@" + tileProperties.getLodTolerance();
+    }
+
+    /**
+     * 计算图层的简化几何
+     * 读取在只读事务中通过服务端游标进行，每批结果在独立事务中写入，中断后重新运行只处理剩余的要素
+     * @param name 图层名称
+     * @param ids 只处理这些 id（不论原几何是否变化），为 null 时处理整个图层
+     * @param force 为 true 时重新计算全部要素，否则只处理没有简化结果或原几何已变化的要素
+     * @return 处理结果
+     */
+    @Transactional(readOnly = true)
+    public Summary generalize(String name, @Nullable long[] ids, boolean force) {
+        TileProperties.Layer layer = tileProperties.getLayers().get(name);
+        if (layer == null) {
+            throw new IllegalArgumentException("Unknown tile layer: " + name);
+        }
+        List<Integer> zooms = layer.getLodZooms();
+        if (zooms.isEmpty()) {
+            throw new IllegalArgumentException("lod-zooms is not configured for tile layer: " + name);
+        }
+        long start = System.nanoTime();
+        writeTransaction.executeWithoutResult(status -> {
+            lodMapper.createTables();
+            zooms.forEach(zoom -> lodMapper.createIndex(name, zoom));
+        });
+
+        // 由细到粗
+        int[] levels = new int[zooms.size()];
+        double[] tolerances = new double[zooms.size()];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = zooms.get(zooms.size() - 1 - i);
+            tolerances[i] = ZOOM0_RESOLUTION / (1L << levels[i]) * tileProperties.getLodTolerance();
+        }
+        Long[] boxedIds = null;
+        if (ids != null) {
+            boxedIds = new Long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxedIds[i] = ids[i];
+            }
+        }
+        int batchSize = Math.max(tileProperties.getLodBatchSize(), 1);
+        List<Source> batch = new ArrayList<>(batchSize);
+        Counters counters = new Counters();
+        String signature = signature(layer);
+        lodMapper.selectSources(name, layer, levels[0], boxedIds, !force && ids == null, signature, context -> {
+            Map<String, Object> row = context.getResultObject();
+            if (row.get("__id") instanceof Number id && row.get("__wkb") instanceof byte[] wkb) {
+                batch.add(new Source(id.longValue(), (String) row.get("__hash"), wkb));
+            }
+            if (batch.size() >= batchSize) {
+                process(name, layer.getSrid(), levels, tolerances, batch, counters);
+                batch.clear();
+            }
+        });
+        process(name, layer.getSrid(), levels, tolerances, batch, counters);
+
+        Integer[] boxedZooms = zooms.toArray(new Integer[0]);
+        Long[] staleIds = boxedIds;
+        int deleted = writeTransaction.execute(status -> {
+            int count = lodMapper.deleteStale(name, layer, boxedZooms, staleIds);
+            if (staleIds == null) {
+                lodMapper.upsertState(name, signature);
+            }
+            return count;
+        });
+        states.remove(name);
+        Summary summary = new Summary(counters.features.get(), deleted, counters.sourcePoints.get(), counters.generalizedPoints.get(),
+                (System.nanoTime() - start) / 1_000_000);
+        log.info("几何简化完成，图层:{}，档位:{}，{}", name, zooms, summary);
+        return summary;
+    }
+
+    /**
+     * 要素变更后在后台重新简化，任务逐个执行；图层不存在或未配置 lodZooms 时忽略
+     * @param name 图层名称
+     * @param ids 变更的要素 id，为空时增量处理整个图层
+     */
+    public void generalizeAsync(String name, @Nullable long[] ids) {
+        TileProperties.Layer layer = tileProperties.getLayers().get(name);
+        if (layer == null || layer.getLodZooms().isEmpty()) {
+            return;
+        }
+        long[] changed = ids == null || ids.length == 0 ? null : ids;
+        changeExecutor.execute(() -> {
+            try {
+                readTransaction.executeWithoutResult(status -> generalize(name, changed, false));
+            } catch (RuntimeException e) {
+                log.warn("重新简化失败，图层:{}", name, e);
+            }
+        });
+    }
+
+    private void process(String name, int srid, int[] levels, double[] tolerances, List<Source> batch, Counters counters) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LodRow[][] results = new LodRow[batch.size()][];
+        pool.invoke(new SimplifyTask(batch, results, 0, batch.size(), levels, tolerances, counters));
+        List<LodRow> rows = new ArrayList<>(batch.size() * levels.length);
+        for (LodRow[] result : results) {
+            if (result != null) {
+                rows.addAll(List.of(result));
+            }
+        }
+        if (!rows.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> lodMapper.upsert(name, srid, rows));
+        }
+        counters.features.addAndGet(batch.size());
+    }
+
+    /**
+     * 二分拆分一批要素，子任务各自创建 WKBReader/WKBWriter（非线程安全）
+     * ForkJoinTask 实现了 Serializable，任务不会被序列化，引用的批次与结果字段为 transient
+     */
+    private static final class SimplifyTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Source> sources;
+
+        private final transient LodRow[][] results;
+
+        private final int from;
+
+        private final int to;
+
+        private final int[] levels;
+
+        private final double[] tolerances;
+
+        private final transient Counters counters;
+
+        SimplifyTask(List<Source> sources, LodRow[][] results, int from, int to, int[] levels, double[] tolerances, Counters counters) {
+            this.sources = sources;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.levels = levels;
+            this.tolerances = tolerances;
+            this.counters = counters;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SimplifyTask(sources, results, from, mid, levels, tolerances, counters),
+                        new SimplifyTask(sources, results, mid, to, levels, tolerances, counters));
+                return;
+            }
+            WKBReader reader = new WKBReader();
+            WKBWriter writer = new WKBWriter();
+            long sourcePoints = 0;
+            long generalizedPoints = 0;
+            for (int i = from; i < to; i++) {
+                Source source = sources.get(i);
+                Geometry geometry;
+                try {
+                    geometry = reader.read(source.wkb);
+                } catch (ParseException e) {
+                    log.warn("几何无法解析，跳过要素:{}，{}", source.id, e.getMessage());
+                    continue;
+                }
+                sourcePoints += geometry.getNumPoints();
+                LodRow[] rows = new LodRow[levels.length];
+                for (int level = 0; level < levels.length; level++) {
+                    geometry = TopologyPreservingSimplifier.simplify(geometry, tolerances[level]);
+                    generalizedPoints += geometry.getNumPoints();
+                    rows[level] = new LodRow(levels[level], source.id, source.hash, writer.write(geometry));
+                }
+                results[i] = rows;
+            }
+            counters.sourcePoints.addAndGet(sourcePoints);
+            counters.generalizedPoints.addAndGet(generalizedPoints);
+        }
+    }
+
+    /**
+     * 待简化的要素
+     * @param wkb EPSG:3857 的 WKB
+     */
+    private record Source(long id, String hash, byte[] wkb) {
+    }
+
+    /**
+     * gis_feature_lod 的一行
+     * @param wkb EPSG:3857 的 WKB，写入时转回图层坐标系
+     */
+    public record LodRow(int zoom, long featureId, String sourceHash, byte[] wkb) {
+    }
+
+    /**
+     * @param features 简化的要素数
+     * @param deleted 删除的过期简化结果行数
+     * @param sourcePoints 原始几何顶点数
+     * @param generalizedPoints 各档简化几何顶点数之和
+     * @param millis 耗时
+     */
+    public record Summary(long features, int deleted, long sourcePoints, long generalizedPoints, long millis) {
+    }
+
+    private record State(boolean ready, long checkedAt) {
+    }
+
+    private static final class Counters {
+
+        final AtomicLong features = new AtomicLong();
+
+        final AtomicLong sourcePoints = new AtomicLong();
+
+        final AtomicLong generalizedPoints = new AtomicLong();
+    }
+}
@@ -0,0 +1,76 @@
+package org.gistest.modules.spatial.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.api.vo.Result;
+import org.gistest.common.modules.spatial.SpatialFeature;
+import org.gistest.common.modules.spatial.SpatialIndexService;
+import org.gistest.modules.lod.service.LodService;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@Tag(name="空间索引")
+@RestController
+@Slf4j
+public class SpatialController {
+
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    @Autowired
+    private LodService lodService;
+
+    @Operation(summary = "范围查询（内存索引）")
+    @GetMapping(value = "/spatial/{layer}/query")
+    public Result<List<Hit>> query(@PathVariable("layer") String layer, @RequestParam("minLon") double minLon, @RequestParam("minLat") double minLat,
+                                   @RequestParam("maxLon") double maxLon, @RequestParam("maxLat") double maxLat) {
+        if (!spatialIndexService.isReady(layer)) {
+            return Result.error("Spatial index is not ready: " + layer);
+        }
+        if (minLon > maxLon || minLat > maxLat) {
+            return Result.error("Invalid bounding box");
+        }
+        return Result.OK(hits(spatialIndexService.query(layer, new Envelope(minLon, maxLon, minLat, maxLat))));
+    }
+
+    @Operation(summary = "点落区查询（内存索引）")
+    @GetMapping(value = "/spatial/{layer}/locate")
+    public Result<List<Hit>> locate(@PathVariable("layer") String layer, @RequestParam("lon") double lon, @RequestParam("lat") double lat) {
+        if (!spatialIndexService.isReady(layer)) {
+            return Result.error("Spatial index is not ready: " + layer);
+        }
+        return Result.OK(hits(spatialIndexService.locate(layer, lon, lat)));
+    }
+
+    /**
+     * 数据更新后调用，各节点按 id 增量刷新；不传 ids 时全量重建
+     * 同名瓦片图层配置了 lodZooms 时，本节点在后台重新简化变更的要素
+     */
+    @Operation(summary = "通知图层数据变更")
+    @PostMapping(value = "/spatial/{layer}/changes")
+    public Result<Integer> changes(@PathVariable("layer") String layer, @RequestParam(value = "ids", required = false) long[] ids) {
+        long[] changed = ids == null ? new long[0] : ids;
+        spatialIndexService.publishChange(layer, changed);
+        lodService.generalizeAsync(layer, changed);
+        return Result.OK(changed.length);
+    }
+
+    private static List<Hit> hits(List<SpatialFeature> features) {
+        return features.stream().map(feature -> new Hit(feature.id(), feature.attributes())).toList();
+    }
+
+    /**
+     * 查询结果，不含几何
+     */
+    public record Hit(long id, Map<String, Object> attributes) {
+    }
+}
@@ -0,0 +1,22 @@
+package org.gistest.modules.spatial.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import org.gistest.modules.tile.config.TileProperties;
+
+import java.util.Map;
+
+@Mapper
+public interface SpatialMapper {
+
+    /**
+     * 逐行读取图层要素，加载内存空间索引用，需要在事务中调用才会按 fetchSize 分批读取
+     * 表名、字段名直接拼入 SQL，只能来自 TileProperties 中校验过的配置
+     *
+     * @param layer 图层配置，必须配置数值类型的 idColumn
+     * @param ids 为 null 时读取全部要素，否则只读取这些 id（以 bigint 数组绑定）
+     * @param handler 行处理器，行数据 key 为 __id、__wkb（WGS84 的 WKB）与各属性字段
+     */
+    void selectFeatures(@Param("layer") TileProperties.Layer layer, @Param("ids") Long[] ids, ResultHandler<Map<String, Object>> handler);
+}
@@ -0,0 +1,85 @@
+package org.gistest.modules.spatial.service;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.modules.spatial.SpatialFeature;
+import org.gistest.common.modules.spatial.SpatialLayerSource;
+import org.gistest.modules.spatial.mapper.SpatialMapper;
+import org.gistest.modules.tile.config.TileProperties;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 内存空间索引的数据来源：gistest.spatial.layers 中的图层按 gistest.tile.layers 的表与字段从 PostGIS 读取
+ */
+@Slf4j
+@Service
+public class LayerSpatialSource implements SpatialLayerSource {
+
+    private static final String ID = "__id";
+
+    private static final String WKB = "__wkb";
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Resource
+    private TileProperties tileProperties;
+
+    @Resource
+    private SpatialMapper spatialMapper;
+
+    @Override
+    public boolean supports(String layer) {
+        return tileProperties.getLayers().containsKey(layer);
+    }
+
+    /**
+     * 在只读事务中读取，PostgreSQL 才会使用服务端游标分批返回，全量加载时不会一次读入整个结果集
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void load(String layerName, @Nullable long[] ids, Consumer<SpatialFeature> sink) {
+        TileProperties.Layer layer = tileProperties.getLayers().get(layerName);
+        if (layer == null) {
+            throw new IllegalArgumentException("Unknown layer: " + layerName);
+        }
+        if (layer.getIdColumn() == null || layer.getIdColumn().isEmpty()) {
+            throw new IllegalStateException("Spatial index layer requires id-column: " + layerName);
+        }
+        Long[] boxedIds = null;
+        if (ids != null) {
+            boxedIds = new Long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxedIds[i] = ids[i];
+            }
+        }
+        WKBReader reader = new WKBReader(GEOMETRY_FACTORY);
+        spatialMapper.selectFeatures(layer, boxedIds, context -> {
+            Map<String, Object> row = context.getResultObject();
+            Object id = row.remove(ID);
+            Object wkb = row.remove(WKB);
+            if (!(id instanceof Number number) || !(wkb instanceof byte[] bytes)) {
+                log.warn("空间索引跳过要素，图层:{}，id:{}", layerName, id);
+                return;
+            }
+            Geometry geometry;
+            try {
+                geometry = reader.read(bytes);
+            } catch (ParseException e) {
+                log.warn("空间索引跳过要素，图层:{}，id:{}，几何无法解析:{}", layerName, id, e.getMessage());
+                return;
+            }
+            sink.accept(new SpatialFeature(number.longValue(), geometry, Collections.unmodifiableMap(row)));
+        });
+    }
+}
@@ -4,16 +4,24 @@ import cn.hutool.core.util.RandomUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.extern.slf4j.Slf4j;
 import org.gistest.common.api.vo.Result;
+import org.gistest.common.constant.CacheConstant;
+import org.gistest.common.util.RedisUtil;
 import org.gistest.config.BaseConfig;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
 import org.gistest.common.util.Md5Util;
+import org.gistest.modules.system.system.captcha.CaptchaImagePool;
 import org.gistest.modules.system.system.util.RandImageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 @Tag(name="用户登录")
 @RestController
 @Slf4j
@@ -23,24 +31,43 @@ public class LoginController {
     private RedisUtil redisUtil;
     @Autowired
     private BaseConfig baseConfig;
+    @Autowired
+    private CaptchaImagePool captchaImagePool;
 
-    private final String BASE_CHECK_CODES = "qwertyuiplkjhgfdsazxcvbnmQWERTYUPLKJHGFDSAZXCVBNM1234567890";
+    /**
+     * 验证码有效期（秒）
+     */
+    private static final long CAPTCHA_EXPIRE_SECONDS = 60;
 
 
+    @Operation(summary = "获取验证码")
     @GetMapping(value = "/randomImage/{key}")
     public Result<String> randomImage(HttpServletResponse response, @PathVariable("key") String key) {
         Result<String> res = new Result<String>();
         try {
-            String code = RandomUtil.randomString(BASE_CHECK_CODES, 4);
-            //存到redis中
+            // 优先取预渲染的验证码，池被取空时现场渲染
+            CaptchaImagePool.Captcha captcha = captchaImagePool.poll();
+            String code;
+            String base64;
+            if (captcha != null) {
+                code = captcha.code();
+                base64 = captcha.image();
+            } else {
+                code = RandomUtil.randomString(RandImageUtil.BASE_CHECK_CODES, CaptchaImagePool.CODE_LENGTH);
+                base64 = RandImageUtil.generate(code);
+            }
+            //存到redis中，同一个客户端 key 固定对应一个 redis key，SET EX 直接覆盖上一次的验证码，无需按前缀扫描删除
             String lowerCaseCode = code.toLowerCase();
-            String keyPrefix = Md5Util.md5Encode(key + baseConfig.getSignatureSecret(), "utf-8");
-            String realKey = keyPrefix + lowerCaseCode;
-
-            redisUtil.removeAll(keyPrefix);
-            redisUtil.set(realKey, lowerCaseCode, 60);
-            log.info("获取验证码，Redis key = {}，checkCode = {}", realKey, code);
-            String base64 = RandImageUtil.generate(code);
+            String realKey = captchaKey(key);
+            // RedisUtil.set 吞掉异常只返回 false，写入失败时验证码无法校验，不能返回给客户端
+            if (!redisUtil.set(realKey, captchaHash(key, lowerCaseCode), CAPTCHA_EXPIRE_SECONDS)) {
+                log.error("验证码写入 Redis 失败，Redis key = {}", realKey);
+                res.error500("获取验证码失败,请检查redis配置!");
+                return res;
+            }
+            log.info("获取验证码，Redis key = {}", realKey);
+            res.setResult(base64);
+            res.success("获取验证码成功");
         }  catch (Exception e) {
             log.error(e.getMessage(), e);
             res.error500("获取验证码失败,请检查redis配置!");
@@ -48,4 +75,42 @@ public class LoginController {
         }
         return res;
     }
+
+    @Operation(summary = "校验验证码")
+    @PostMapping(value = "/checkCaptcha")
+    public Result<String> checkCaptcha(@RequestParam("checkKey") String checkKey, @RequestParam("captcha") String captcha) {
+        if (!verifyCaptcha(checkKey, captcha)) {
+            return Result.error("验证码错误或已失效");
+        }
+        return new Result<String>().success("验证码正确");
+    }
+
+    /**
+     * 校验并消费验证码，GETDEL 一次往返取出并删除，无论对错都只能校验一次
+     * @param key 客户端 key
+     * @param code 用户输入的验证码
+     * @return 是否正确
+     */
+    private boolean verifyCaptcha(String key, String code) {
+        if (key == null || code == null) {
+            return false;
+        }
+        Object stored = redisUtil.getAndDelete(captchaKey(key));
+        if (!(stored instanceof String storedHash)) {
+            return false;
+        }
+        String inputHash = captchaHash(key, code.toLowerCase());
+        return MessageDigest.isEqual(storedHash.getBytes(StandardCharsets.UTF_8), inputHash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String captchaKey(String key) {
+        return CacheConstant.SYS_CAPTCHA_KEY + Md5Util.md5Encode(key + baseConfig.getSignatureSecret(), "utf-8");
+    }
+
+    /**
+     * redis 中只保存验证码的摘要，加入客户端 key 与签名密钥，不能从 redis 中直接读出验证码
+     */
+    private String captchaHash(String key, String lowerCaseCode) {
+        return Md5Util.md5Encode(lowerCaseCode + key + baseConfig.getSignatureSecret(), "utf-8");
+    }
 }
@@ -0,0 +1,126 @@
+package org.gistest.modules.system.system.captcha;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.modules.system.system.util.RandImageUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预渲染验证码池
+ * 后台线程提前生成（验证码, base64 图片）放入有界队列，请求线程直接取用，不在请求线程上绘图和 JPEG 编码
+ * 队列满时后台线程阻塞等待，登录高峰把池取空时由调用方现场渲染
+ * 指标：gistest.captcha.pool.size 池内数量，gistest.captcha.pool.rendered 后台生成数（补充速率），gistest.captcha.pool.misses 取空次数
+ */
+@Slf4j
+@Component
+public class CaptchaImagePool {
+
+    /**
+     * 验证码长度
+     */
+    public static final int CODE_LENGTH = 4;
+
+    private final BlockingQueue<Captcha> pool;
+
+    private final int refillThreads;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter rendered;
+
+    private final Counter misses;
+
+    private volatile boolean running = true;
+
+    public CaptchaImagePool(@Value("${gistest.captcha.pool-size:256}") int poolSize,
+                            @Value("${gistest.captcha.refill-threads:1}") int refillThreads,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        this.refillThreads = refillThreads;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("gistest.captcha.pool.size", pool, BlockingQueue::size)
+                .description("Pre-rendered captchas waiting in the pool")
+                .register(registry);
+        this.rendered = Counter.builder("gistest.captcha.pool.rendered")
+                .description("Captchas rendered by the refill workers")
+                .register(registry);
+        this.misses = Counter.builder("gistest.captcha.pool.misses")
+                .description("Captcha requests that found the pool empty")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < refillThreads; i++) {
+            Thread worker = new Thread(this::refillLoop, "captcha-refill-" + i);
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * 取出一个预渲染验证码，每个验证码只会被取出一次
+     * @return 池为空时返回 null
+     */
+    @Nullable
+    public Captcha poll() {
+        Captcha captcha = pool.poll();
+        if (captcha == null) {
+            misses.increment();
+        }
+        return captcha;
+    }
+
+    private void refillLoop() {
+        // 每个线程复用自己的随机数、图片缓冲和编码器
+        try (RandImageUtil.Renderer renderer = new RandImageUtil.Renderer(new SecureRandom())) {
+            while (running) {
+                try {
+                    String code = renderer.randomCode(CODE_LENGTH);
+                    Captcha captcha = new Captcha(code, renderer.render(code));
+                    pool.put(captcha);
+                    rendered.increment();
+                } catch (InterruptedException e) {
+                    break;
+                } catch (Exception e) {
+                    log.error("captcha render failed", e);
+                    try {
+                        TimeUnit.SECONDS.sleep(1);
+                    } catch (InterruptedException ie) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param code 验证码原文
+     * @param image data:image/jpg;base64,...
+     */
+    public record Captcha(String code, String image) {
+    }
+}
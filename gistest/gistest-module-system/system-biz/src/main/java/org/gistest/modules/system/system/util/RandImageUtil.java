@@ -3,15 +3,22 @@ package org.gistest.modules.system.system.util;
 import jakarta.servlet.http.HttpServletResponse;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.security.SecureRandom;
 import java.util.Base64;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class RandImageUtil {
+    /**
+     * 验证码字符集
+     */
+    public static final String BASE_CHECK_CODES = "qwertyuiplkjhgfdsazxcvbnmQWERTYUPLKJHGFDSAZXCVBNM1234567890";
     /**
      * 定义图形大小
      */
@@ -37,6 +44,11 @@ public class RandImageUtil {
      * base64 图片前缀
      */
     private static final String BASE64_PRE = "data:image/jpg;base64,";
+    /**
+     * 验证码字体，Font 不可变，全局共用
+     */
+    private static final Font FONT = new Font("Times New Roman", Font.BOLD, 24);
+
     /**
      * 直接通过response 返回图片
      * @param response
@@ -49,33 +61,29 @@ public class RandImageUtil {
     }
 
     public static String generate(String resultCode) throws IOException {
-        BufferedImage image = getImageBuffer(resultCode);
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-        //写入流中
-        ImageIO.write(image, IMG_FORMAT, byteStream);
-        byte[] bytes = byteStream.toByteArray();
-        String base64 = Base64.getEncoder().encodeToString(bytes).trim();
-        base64 = base64.replaceAll("\n", "").replaceAll("\r", "");
-        return BASE64_PRE + base64;
+        try (Renderer renderer = new Renderer(ThreadLocalRandom.current())) {
+            return renderer.render(resultCode);
+        }
     }
 
     public static BufferedImage getImageBuffer(String resultCode) {
         final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
-        final Graphics2D graphics = (Graphics2D) image.getGraphics();
+        draw(image, resultCode, ThreadLocalRandom.current());
+        return image;
+    }
+
+    /**
+     * 在已有图片上重新绘制，覆盖原有内容
+     */
+    private static void draw(BufferedImage image, String resultCode, Random random) {
+        final Graphics2D graphics = image.createGraphics();
         graphics.setColor(Color.WHITE);
         graphics.fillRect(0, 0, WIDTH, HEIGHT);
         graphics.drawRect(0, 0, WIDTH -1, HEIGHT - 1);
 
-        SecureRandom random;
-        try {
-            random = SecureRandom.getInstance("SHA1PRNG");
-        } catch( Exception e) {
-            random = new SecureRandom();
-        }
-
         for (int i = 0; i < COUNT; i++) {
             // ---3
-            graphics.setColor(getRandColor(150, 200));
+            graphics.setColor(getRandColor(random, 150, 200));
 
             // 保证画在边框之内
             final int x = random.nextInt(WIDTH - LINE_WIDTH - 1) + 1;
@@ -84,26 +92,20 @@ public class RandImageUtil {
             final int yl = random.nextInt(LINE_WIDTH);
             graphics.drawLine(x, y, x + xl, y + yl);
         }
+        // 设置字体颜色
+        graphics.setColor(Color.BLACK);
+        // 设置字体样式
+        graphics.setFont(FONT);
         // 取随机产生的认证码
         for (int i = 0; i < resultCode.length(); i++) {
-            // 将认证码显示到图象中,调用函数出来的颜色相同，可能是因为种子太接近，所以只能直接生成
-            // graphics.setColor(new Color(20 + random.nextInt(130), 20 + random
-            // .nextInt(130), 20 + random.nextInt(130)));
-            // 设置字体颜色
-            graphics.setColor(Color.BLACK);
-            // 设置字体样式
-//			graphics.setFont(new Font("Arial Black", Font.ITALIC, 18));
-            graphics.setFont(new Font("Times New Roman", Font.BOLD, 24));
             // 设置字符，字符间距，上边距
             graphics.drawString(String.valueOf(resultCode.charAt(i)), (23 * i) + 8, 26);
         }
         // 图象生效
         graphics.dispose();
-        return image;
     }
 
-    private static Color getRandColor(int fc, int bc) { // 取得给定范围随机颜色
-        final Random random = new Random();
+    private static Color getRandColor(Random random, int fc, int bc) { // 取得给定范围随机颜色
         int length = 255;
         if (fc > length) {
             fc = length;
@@ -118,4 +120,60 @@ public class RandImageUtil {
 
         return new Color(r, g, b);
     }
+
+    /**
+     * 可复用的验证码渲染器，复用随机数、图片缓冲、JPEG 编码器与输出缓冲
+     * 构造传入的随机数只用于生成验证码；干扰线不需要不可预测，用 ThreadLocalRandom，避免 SecureRandom 每次取数分配数组
+     * 非线程安全，每个线程持有一个
+     */
+    public static class Renderer implements AutoCloseable {
+
+        private final Random random;
+
+        private final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        private final ByteArrayOutputStream byteStream = new ByteArrayOutputStream(4096);
+
+        private final ImageWriter writer;
+
+        public Renderer(Random random) {
+            this.random = random;
+            this.writer = ImageIO.getImageWritersByFormatName(IMG_FORMAT).next();
+        }
+
+        /**
+         * 生成随机验证码
+         * @param length
+         * @return
+         */
+        public String randomCode(int length) {
+            char[] code = new char[length];
+            for (int i = 0; i < length; i++) {
+                code[i] = BASE_CHECK_CODES.charAt(random.nextInt(BASE_CHECK_CODES.length()));
+            }
+            return new String(code);
+        }
+
+        /**
+         * 渲染并编码为 base64 图片
+         * @param resultCode
+         * @return data:image/jpg;base64,...
+         * @throws IOException
+         */
+        public String render(String resultCode) throws IOException {
+            draw(image, resultCode, ThreadLocalRandom.current());
+            byteStream.reset();
+            try (ImageOutputStream output = new MemoryCacheImageOutputStream(byteStream)) {
+                writer.setOutput(output);
+                writer.write(image);
+            }
+            // Base64 基础编码器不会输出换行，无需再做替换
+            return BASE64_PRE + Base64.getEncoder().encodeToString(byteStream.toByteArray());
+        }
+
+        @Override
+        public void close() {
+            writer.dispose();
+        }
+    }
 }
@@ -0,0 +1,246 @@
+package org.gistest.modules.tile.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 矢量瓦片配置
+ * 瓦片缓存为 CacheConstant.GIS_TILE_CACHE：Redis 过期时间按 gistest.redis.cache-ttls 配置（默认 24 小时），
+ * 进程内热点瓦片按 gistest.redis.near-caches 配置（默认按字节数上限 64 MB 淘汰、5 分钟）
+ */
+@Component
+@ConfigurationProperties(prefix = "gistest.tile")
+public class TileProperties {
+    /**
+     * 图层配置
+     * key: 图层名称，即 /tiles/{layer}/{z}/{x}/{y}.mvt 中的 layer，也是 MVT 中的图层名
+     * value: 数据表与字段
+     */
+    private Map<String, Layer> layers = new HashMap<>();
+    public Map<String, Layer> getLayers() { return layers; }
+    public void setLayers(Map<String, Layer> layers) { this.layers = layers; }
+
+    /**
+     * 瓦片 gzip 压缩后存入缓存，客户端支持 gzip 时直接返回压缩数据
+     */
+    private boolean gzip = true;
+    public boolean isGzip() { return gzip; }
+    public void setGzip(boolean gzip) { this.gzip = gzip; }
+
+    /**
+     * 浏览器缓存时间（Cache-Control max-age），过期后凭 ETag 协商，未变化时返回 304
+     */
+    private Duration browserMaxAge = Duration.ofMinutes(1);
+    public Duration getBrowserMaxAge() { return browserMaxAge; }
+    public void setBrowserMaxAge(Duration browserMaxAge) { this.browserMaxAge = browserMaxAge; }
+
+    /**
+     * 按范围失效时，单个层级的瓦片数不超过该值时逐个删除，超过时按 图层:层级 前缀整体清理
+     */
+    private int invalidateMaxTiles = 256;
+    public int getInvalidateMaxTiles() { return invalidateMaxTiles; }
+    public void setInvalidateMaxTiles(int invalidateMaxTiles) { this.invalidateMaxTiles = invalidateMaxTiles; }
+
+    /**
+     * 简化容差（屏幕像素，按 256 像素瓦片计算），各层级简化后的误差不超过该值
+     */
+    private double lodTolerance = 0.5;
+    public double getLodTolerance() { return lodTolerance; }
+    public void setLodTolerance(double lodTolerance) { this.lodTolerance = lodTolerance; }
+
+    /**
+     * 简化计算的并行度，为 0 时使用全部 CPU
+     */
+    private int lodParallelism = 0;
+    public int getLodParallelism() { return lodParallelism; }
+    public void setLodParallelism(int lodParallelism) { this.lodParallelism = lodParallelism; }
+
+    /**
+     * 简化时每批处理、写入的要素数
+     */
+    private int lodBatchSize = 500;
+    public int getLodBatchSize() { return lodBatchSize; }
+    public void setLodBatchSize(int lodBatchSize) { this.lodBatchSize = lodBatchSize; }
+
+    /**
+     * 瓦片预热
+     */
+    private Seed seed = new Seed();
+    public Seed getSeed() { return seed; }
+    public void setSeed(Seed seed) { this.seed = seed; }
+
+    public static class Layer {
+        /**
+         * 表名，可带 schema
+         */
+        private String table;
+        /**
+         * 几何字段
+         */
+        private String geometryColumn = "geom";
+        /**
+         * 要素 ID 字段（整数），为空时不写要素 ID
+         */
+        private String idColumn = "id";
+        /**
+         * 写入瓦片的属性字段
+         */
+        private List<String> attributes = new ArrayList<>();
+        /**
+         * 几何字段的坐标系
+         */
+        private int srid = 4326;
+        private int minZoom = 0;
+        private int maxZoom = 22;
+        /**
+         * 瓦片坐标范围（ST_AsMVTGeom extent）
+         */
+        private int extent = 4096;
+        /**
+         * 瓦片外扩的缓冲区，单位为瓦片坐标，避免线、面在瓦片边界处断开
+         */
+        private int buffer = 64;
+        /**
+         * 预计算简化几何的层级（升序，最多 8 个），为空时不简化
+         * 每个值是一档的最大层级：请求层级 z 使用不小于 z 的最小一档，大于最后一档时使用原始几何
+         */
+        private List<Integer> lodZooms = new ArrayList<>();
+        public String getTable() { return table; }
+        public void setTable(String table) { this.table = table; }
+        public String getGeometryColumn() { return geometryColumn; }
+        public void setGeometryColumn(String geometryColumn) { this.geometryColumn = geometryColumn; }
+        public String getIdColumn() { return idColumn; }
+        public void setIdColumn(String idColumn) { this.idColumn = idColumn; }
+        public List<String> getAttributes() { return attributes; }
+        public void setAttributes(List<String> attributes) { this.attributes = attributes; }
+        public int getSrid() { return srid; }
+        public void setSrid(int srid) { this.srid = srid; }
+        public int getMinZoom() { return minZoom; }
+        public void setMinZoom(int minZoom) { this.minZoom = minZoom; }
+        public int getMaxZoom() { return maxZoom; }
+        public void setMaxZoom(int maxZoom) { this.maxZoom = maxZoom; }
+        public int getExtent() { return extent; }
+        public void setExtent(int extent) { this.extent = extent; }
+        public int getBuffer() { return buffer; }
+        public void setBuffer(int buffer) { this.buffer = buffer; }
+        public List<Integer> getLodZooms() { return lodZooms; }
+        public void setLodZooms(List<Integer> lodZooms) { this.lodZooms = lodZooms; }
+    }
+
+    public static class Seed {
+        /**
+         * 定时预热的 cron 表达式（秒 分 时 日 月 周），如高峰前的 "0 30 7 * * MON-FRI"，为空时只能通过接口触发
+         */
+        private String cron;
+        /**
+         * 预热范围，与访问热度（heatCells）合并为一个任务
+         */
+        private List<Region> regions = new ArrayList<>();
+        /**
+         * 并行生成瓦片的线程数，即同时占用的数据库连接数
+         */
+        private int parallelism = 4;
+        /**
+         * 每批瓦片数：一批先 MGET 跳过已缓存的瓦片，生成后一次批量写入 Redis，并记录检查点
+         */
+        private int batchSize = 200;
+        /**
+         * 数据库预算：每秒最多生成的瓦片数，0 不限制
+         */
+        private int maxTilesPerSecond = 50;
+        /**
+         * Redis 预算：每秒最多写入的字节数，0 不限制
+         */
+        private long maxBytesPerSecond = 8L << 20;
+        /**
+         * 跳过 Redis 中已有的瓦片
+         */
+        private boolean skipCached = true;
+        /**
+         * 通过接口新建的任务最多的瓦片数，超过时拒绝并提示先调用 /tiles/seed/estimate 缩小范围；0 不限制
+         */
+        private long maxTiles = 1_000_000;
+        /**
+         * 按访问热度预热的格网数（取热度最高的格网），0 时不记录访问热度
+         */
+        private int heatCells = 0;
+        /**
+         * 访问热度的统计层级：请求的瓦片归入该层级的格网，更低层级的请求不统计
+         */
+        private int heatZoom = 12;
+        /**
+         * 热点格网预热到的最大层级
+         */
+        private int heatMaxZoom = 16;
+        /**
+         * 统计最近几天的访问热度
+         */
+        private int heatDays = 7;
+        /**
+         * 各节点把本地计数累加到 Redis 的间隔
+         */
+        private Duration heatFlushInterval = Duration.ofMinutes(1);
+        /**
+         * 本地计数的最大格网数，超过后新格网不再计数，直到下次累加
+         */
+        private int heatMaxEntries = 100000;
+        public String getCron() { return cron; }
+        public void setCron(String cron) { this.cron = cron; }
+        public List<Region> getRegions() { return regions; }
+        public void setRegions(List<Region> regions) { this.regions = regions; }
+        public int getParallelism() { return parallelism; }
+        public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public int getMaxTilesPerSecond() { return maxTilesPerSecond; }
+        public void setMaxTilesPerSecond(int maxTilesPerSecond) { this.maxTilesPerSecond = maxTilesPerSecond; }
+        public long getMaxBytesPerSecond() { return maxBytesPerSecond; }
+        public void setMaxBytesPerSecond(long maxBytesPerSecond) { this.maxBytesPerSecond = maxBytesPerSecond; }
+        public boolean isSkipCached() { return skipCached; }
+        public void setSkipCached(boolean skipCached) { this.skipCached = skipCached; }
+        public long getMaxTiles() { return maxTiles; }
+        public void setMaxTiles(long maxTiles) { this.maxTiles = maxTiles; }
+        public int getHeatCells() { return heatCells; }
+        public void setHeatCells(int heatCells) { this.heatCells = heatCells; }
+        public int getHeatZoom() { return heatZoom; }
+        public void setHeatZoom(int heatZoom) { this.heatZoom = heatZoom; }
+        public int getHeatMaxZoom() { return heatMaxZoom; }
+        public void setHeatMaxZoom(int heatMaxZoom) { this.heatMaxZoom = heatMaxZoom; }
+        public int getHeatDays() { return heatDays; }
+        public void setHeatDays(int heatDays) { this.heatDays = heatDays; }
+        public Duration getHeatFlushInterval() { return heatFlushInterval; }
+        public void setHeatFlushInterval(Duration heatFlushInterval) { this.heatFlushInterval = heatFlushInterval; }
+        public int getHeatMaxEntries() { return heatMaxEntries; }
+        public void setHeatMaxEntries(int heatMaxEntries) { this.heatMaxEntries = heatMaxEntries; }
+    }
+
+    public static class Region {
+        /**
+         * 图层名称
+         */
+        private String layer;
+        /**
+         * 范围 [minLon, minLat, maxLon, maxLat]，WGS84 经纬度
+         */
+        private List<Double> bbox = new ArrayList<>();
+        /**
+         * 层级范围，为空时使用图层的 minZoom/maxZoom
+         */
+        private Integer minZoom;
+        private Integer maxZoom;
+        public String getLayer() { return layer; }
+        public void setLayer(String layer) { this.layer = layer; }
+        public List<Double> getBbox() { return bbox; }
+        public void setBbox(List<Double> bbox) { this.bbox = bbox; }
+        public Integer getMinZoom() { return minZoom; }
+        public void setMinZoom(Integer minZoom) { this.minZoom = minZoom; }
+        public Integer getMaxZoom() { return maxZoom; }
+        public void setMaxZoom(Integer maxZoom) { this.maxZoom = maxZoom; }
+    }
+}
@@ -0,0 +1,107 @@
+package org.gistest.modules.tile.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.api.vo.Result;
+import org.gistest.common.util.HttpUtils;
+import org.gistest.modules.tile.config.TileProperties;
+import org.gistest.modules.tile.service.TileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@Tag(name="矢量瓦片")
+@RestController
+@Slf4j
+public class TileController {
+
+    private static final String MVT_CONTENT_TYPE = "application/vnd.mapbox-vector-tile";
+
+    @Autowired
+    private TileService tileService;
+    @Autowired
+    private TileProperties tileProperties;
+
+    /**
+     * 瓦片直接写入响应，不经过消息转换器：支持 gzip 的客户端直接收到缓存中的压缩数据，无需复制
+     * 没有要素的瓦片返回 204，OpenLayers 按空瓦片处理
+     */
+    @Operation(summary = "获取矢量瓦片（MVT）")
+    @GetMapping(value = "/tiles/{layer}/{z}/{x}/{y}.mvt")
+    public void tile(@PathVariable("layer") String layer, @PathVariable("z") int z, @PathVariable("x") int x, @PathVariable("y") int y,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TileService.Tile tile;
+        try {
+            tile = tileService.getTile(layer, z, x, y);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (tile == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown tile layer: " + layer);
+            return;
+        }
+        String etag = tile.etag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + tileProperties.getBrowserMaxAge().toSeconds());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (tile.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+        response.setContentType(MVT_CONTENT_TYPE);
+        if (tile.isGzip() && HttpUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(tile.length());
+            response.getOutputStream().write(tile.stored(), tile.offset(), tile.length());
+        } else if (tile.isGzip()) {
+            byte[] data = tile.decompressed();
+            response.setContentLength(data.length);
+            response.getOutputStream().write(data);
+        } else {
+            response.setContentLength(tile.length());
+            response.getOutputStream().write(tile.stored(), tile.offset(), tile.length());
+        }
+    }
+
+    @Operation(summary = "按范围失效瓦片缓存")
+    @PostMapping(value = "/tiles/{layer}/invalidate")
+    public Result<Integer> invalidate(@PathVariable("layer") String layer, @RequestParam("minLon") double minLon, @RequestParam("minLat") double minLat,
+                                      @RequestParam("maxLon") double maxLon, @RequestParam("maxLat") double maxLat) {
+        try {
+            return Result.OK(tileService.invalidate(layer, minLon, minLat, maxLon, maxLat));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * If-None-Match 弱比较，支持多个 ETag 与 *
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(opaque) || candidate.equals("W/" + opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
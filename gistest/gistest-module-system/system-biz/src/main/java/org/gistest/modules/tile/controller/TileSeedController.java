@@ -0,0 +1,93 @@
+package org.gistest.modules.tile.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.api.vo.Result;
+import org.gistest.modules.tile.config.TileProperties;
+import org.gistest.modules.tile.service.TileSeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name="瓦片预热")
+@RestController
+@Slf4j
+public class TileSeedController {
+
+    @Autowired
+    private TileSeedService tileSeedService;
+
+    /**
+     * 不指定 layer 时按配置的 regions 与访问热度；指定 layer 未指定 bbox 时为全图
+     */
+    @Operation(summary = "估算预热瓦片数（不生成瓦片）")
+    @GetMapping(value = "/tiles/seed/estimate")
+    public Result<TileSeedService.Estimate> estimate(@RequestParam(value = "layer", required = false) String layer,
+                                                     @RequestParam(value = "bbox", required = false) List<Double> bbox,
+                                                     @RequestParam(value = "minZoom", required = false) Integer minZoom,
+                                                     @RequestParam(value = "maxZoom", required = false) Integer maxZoom) {
+        try {
+            return Result.OK(tileSeedService.estimate(region(layer, bbox, minZoom, maxZoom)));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 瓦片数超过 gistest.tile.seed.max-tiles 时拒绝，范围同 estimate
+     */
+    @Operation(summary = "开始预热瓦片")
+    @PostMapping(value = "/tiles/seed")
+    public Result<TileSeedService.Progress> start(@RequestParam(value = "layer", required = false) String layer,
+                                                  @RequestParam(value = "bbox", required = false) List<Double> bbox,
+                                                  @RequestParam(value = "minZoom", required = false) Integer minZoom,
+                                                  @RequestParam(value = "maxZoom", required = false) Integer maxZoom) {
+        try {
+            return Result.OK(tileSeedService.start(region(layer, bbox, minZoom, maxZoom)));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "预热进度")
+    @GetMapping(value = "/tiles/seed")
+    public Result<TileSeedService.Progress> progress() {
+        TileSeedService.Progress progress = tileSeedService.getProgress();
+        return progress == null ? Result.error("No seeding job") : Result.OK(progress);
+    }
+
+    @Operation(summary = "从检查点续传预热任务")
+    @PostMapping(value = "/tiles/seed/resume")
+    public Result<TileSeedService.Progress> resume() {
+        try {
+            return Result.OK(tileSeedService.resume());
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "取消预热任务")
+    @PostMapping(value = "/tiles/seed/cancel")
+    public Result<Boolean> cancel() {
+        return Result.OK(tileSeedService.cancel());
+    }
+
+    private static TileProperties.Region region(String layer, List<Double> bbox, Integer minZoom, Integer maxZoom) {
+        if (layer == null || layer.isEmpty()) {
+            return null;
+        }
+        TileProperties.Region region = new TileProperties.Region();
+        region.setLayer(layer);
+        if (bbox != null) {
+            region.setBbox(bbox);
+        }
+        region.setMinZoom(minZoom);
+        region.setMaxZoom(maxZoom);
+        return region;
+    }
+}
@@ -0,0 +1,22 @@
+package org.gistest.modules.tile.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.gistest.modules.tile.config.TileProperties;
+
+@Mapper
+public interface TileMapper {
+
+    /**
+     * 用 ST_AsMVT 生成一个瓦片
+     * 表名、字段名直接拼入 SQL，只能来自 TileProperties 中校验过的配置
+     *
+     * @param name 图层名称
+     * @param layer 图层配置
+     * @param margin 查询范围外扩比例，buffer / extent
+     * @param lodZoom 简化几何的档位，为 null 时使用原始几何
+     * @return MVT 编码的瓦片，没有要素时为空数组
+     */
+    byte[] selectTile(@Param("name") String name, @Param("layer") TileProperties.Layer layer, @Param("z") int z, @Param("x") int x,
+                      @Param("y") int y, @Param("margin") double margin, @Param("lodZoom") Integer lodZoom);
+}
@@ -0,0 +1,167 @@
+package org.gistest.modules.tile.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.modules.tile.config.TileProperties;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 瓦片访问热度：请求的瓦片归入 heatZoom 层级的格网，在本地计数，定期累加到 Redis 按天的有序集合
+ * key 为 gis:tile:heat:{图层}:yyyyMMdd，member 为 "x:y"；各节点的计数汇总在一起，重新部署后仍然保留
+ * 预热时合并最近 heatDays 天，取热度最高的格网
+ */
+@Slf4j
+@Component
+public class TileHeatRecorder {
+
+    private static final String KEY_PREFIX = "gis:tile:heat:";
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Resource
+    private TileProperties tileProperties;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 图层 → 格网 → 计数，累加到 Redis 后整体替换
+     */
+    private volatile Map<String, Map<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    private boolean enabled;
+
+    @PostConstruct
+    public void init() {
+        TileProperties.Seed seed = tileProperties.getSeed();
+        enabled = seed.getHeatCells() > 0;
+        if (!enabled) {
+            return;
+        }
+        if (seed.getHeatZoom() < 0 || seed.getHeatZoom() > 30 || seed.getHeatDays() <= 0) {
+            throw new IllegalStateException("Invalid gistest.tile.seed heat configuration");
+        }
+        long interval = seed.getHeatFlushInterval().toMillis();
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("tile-heat").daemon().factory());
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            flush();
+        }
+    }
+
+    /**
+     * 记录一次瓦片请求，只在内存中计数
+     */
+    public void record(String layer, int z, int x, int y) {
+        int heatZoom = tileProperties.getSeed().getHeatZoom();
+        if (!enabled || z < heatZoom) {
+            return;
+        }
+        Map<String, LongAdder> cells = counts.computeIfAbsent(layer, l -> new ConcurrentHashMap<>());
+        String cell = (x >> (z - heatZoom)) + ":" + (y >> (z - heatZoom));
+        LongAdder adder = cells.get(cell);
+        if (adder == null) {
+            if (cells.size() >= tileProperties.getSeed().getHeatMaxEntries()) {
+                return;
+            }
+            adder = cells.computeIfAbsent(cell, c -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    /**
+     * 本地计数累加到 Redis（ZINCRBY 管道批量执行）
+     * 替换计数表时正在进行的少量计数可能丢失，对热度统计没有影响
+     */
+    void flush() {
+        Map<String, Map<String, LongAdder>> snapshot = counts;
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        counts = new ConcurrentHashMap<>();
+        String day = LocalDate.now().format(DAY);
+        long ttl = Duration.ofDays(tileProperties.getSeed().getHeatDays() + 1L).toSeconds();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                snapshot.forEach((layer, cells) -> {
+                    String key = key(layer, day);
+                    cells.forEach((cell, adder) -> redis.zIncrBy(key, adder.sum(), cell));
+                    redis.expire(key, ttl);
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("瓦片访问热度写入 Redis 失败", e);
+        }
+    }
+
+    /**
+     * 最近 heatDays 天热度最高的格网
+     * @param layer
+     * @param limit
+     * @return 格网行列号 {x, y}（heatZoom 层级），按热度降序
+     */
+    public List<int[]> topCells(String layer, int limit) {
+        int days = tileProperties.getSeed().getHeatDays();
+        LocalDate today = LocalDate.now();
+        List<String> others = new ArrayList<>(days - 1);
+        for (int i = 1; i < days; i++) {
+            others.add(key(layer, today.minusDays(i).format(DAY)));
+        }
+        // 同一图层的 key 带相同的 hash tag，集群模式下也在同一槽位，可以直接合并
+        String union = KEY_PREFIX + "{" + layer + "}:union";
+        Set<ZSetOperations.TypedTuple<String>> top;
+        try {
+            stringRedisTemplate.opsForZSet().unionAndStore(key(layer, today.format(DAY)), others, union);
+            top = stringRedisTemplate.opsForZSet().reverseRangeWithScores(union, 0, limit - 1L);
+        } finally {
+            stringRedisTemplate.delete(union);
+        }
+        List<int[]> cells = new ArrayList<>();
+        if (top != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : top) {
+                String member = tuple.getValue();
+                int separator = member == null ? -1 : member.indexOf(':');
+                if (separator > 0) {
+                    cells.add(new int[]{Integer.parseInt(member.substring(0, separator)), Integer.parseInt(member.substring(separator + 1))});
+                }
+            }
+        }
+        return cells;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private static String key(String layer, String day) {
+        return KEY_PREFIX + "{" + layer + "}:" + day;
+    }
+}
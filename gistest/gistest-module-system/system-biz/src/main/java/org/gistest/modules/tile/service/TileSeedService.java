@@ -0,0 +1,691 @@
+package org.gistest.modules.tile.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.modules.redis.cache.BatchRedisCache;
+import org.gistest.modules.tile.config.TileProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 瓦片预热：部署或清理瓦片缓存后，在高峰前把常用范围的瓦片提前写入 Redis，避免首批用户等待生成
+ * 任务范围为配置的 regions 加上访问热度最高的格网（TileHeatRecorder），按层级从低到高排列成若干行列号范围，不展开为瓦片列表
+ * 每 batchSize 个瓦片一批：MGET（peekAll，不填充 L1）跳过已缓存的瓦片，其余在 parallelism 个线程中生成，
+ * 再经 BatchRedisCache.putAll 一次批量写入，L1 失效合并为一条广播；
+ * 生成速度与写入字节数分别受 maxTilesPerSecond、maxBytesPerSecond 限制
+ * 任务状态与检查点（已完成的瓦片数）保存在 Redis 的 {gis:tile:seed}:job，进程退出或失败后可以续传；同时只有一个节点执行（{gis:tile:seed}:lock）
+ * 锁由 watchdog 线程定时续期，与批次耗时无关；状态只在持有锁时写入（脚本比对锁的 token），锁丢失后不再覆盖其他节点的任务状态
+ * 指标：gistest.tile.seed.total / completed（当前任务），gistest.tile.seed.tiles（按 result=rendered|cached|failed 计数）
+ */
+@Slf4j
+@Service
+public class TileSeedService {
+
+    /**
+     * 任务状态与锁使用相同的 hash tag，集群模式下可以在同一个脚本中访问
+     */
+    private static final String STATE_KEY = "{gis:tile:seed}:job";
+
+    private static final String LOCK_KEY = "{gis:tile:seed}:lock";
+
+    private static final Duration LOCK_TTL = Duration.ofMinutes(2);
+
+    /**
+     * 锁续期间隔，续期失败几次仍有余量
+     */
+    private static final Duration LOCK_RENEW_INTERVAL = LOCK_TTL.dividedBy(4);
+
+    static final String QUEUED = "QUEUED";
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+    static final String CANCELLED = "CANCELLED";
+
+    private static final RedisScript<Long> REFRESH_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end return 0", Long.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0", Long.class);
+
+    /**
+     * 持有锁时写入任务状态：KEYS[1] 锁，KEYS[2] 状态；ARGV[1] 锁的 token，ARGV[2] 为 1 时先删除旧状态，其后为字段与值
+     */
+    private static final RedisScript<Long> SAVE_STATE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) ~= ARGV[1] then return 0 end "
+                    + "if ARGV[2] == '1' then redis.call('del', KEYS[2]) end "
+                    + "redis.call('hset', KEYS[2], unpack(ARGV, 3)) return 1", Long.class);
+
+    private static final ObjectMapper PLAN_MAPPER = new ObjectMapper();
+
+    /**
+     * 未指定范围时的全图范围
+     */
+    private static final List<Double> WORLD = List.of(-180.0, -85.0511287798066, 180.0, 85.0511287798066);
+
+    @Resource
+    private TileProperties tileProperties;
+
+    @Resource
+    private TileService tileService;
+
+    @Resource
+    private TileHeatRecorder tileHeatRecorder;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private MeterRegistry registry;
+
+    /**
+     * 执行任务与定时触发，同时只执行一个任务
+     */
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService renderers;
+
+    /**
+     * 锁续期，不能与任务共用 scheduler（任务执行期间占用其唯一的线程）
+     */
+    private ScheduledExecutorService watchdog;
+
+    private volatile SeedJob current;
+
+    @PostConstruct
+    public void init() {
+        TileProperties.Seed seed = tileProperties.getSeed();
+        if (seed.getParallelism() <= 0 || seed.getBatchSize() <= 0) {
+            throw new IllegalStateException("gistest.tile.seed.parallelism and batch-size must be positive");
+        }
+        seed.getRegions().forEach(this::ranges);
+        registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("gistest.tile.seed.total", this, service -> service.current == null ? 0 : service.current.total)
+                .description("Tiles in the current seeding job")
+                .register(registry);
+        Gauge.builder("gistest.tile.seed.completed", this, service -> service.current == null ? 0 : service.current.completed)
+                .description("Tiles processed by the current seeding job")
+                .register(registry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("tile-seed").daemon().factory());
+        renderers = Executors.newFixedThreadPool(seed.getParallelism(), Thread.ofPlatform().name("tile-seed-render-", 1).daemon().factory());
+        watchdog = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("tile-seed-watchdog").daemon().factory());
+        if (seed.getCron() != null && !seed.getCron().isBlank()) {
+            scheduleNext(CronExpression.parse(seed.getCron()));
+            log.info("瓦片定时预热:{}，范围:{}，热点格网:{}", seed.getCron(), seed.getRegions().size(), seed.getHeatCells());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        SeedJob job = current;
+        if (job != null) {
+            job.cancelled = true;
+        }
+        scheduler.shutdownNow();
+        renderers.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    private void scheduleNext(CronExpression cron) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = cron.next(now);
+        if (next == null) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            try {
+                scheduledRun();
+            } catch (Exception e) {
+                log.error("瓦片定时预热失败", e);
+            } finally {
+                scheduleNext(cron);
+            }
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 定时预热：上次任务被中断（进程退出或失败）时续传，否则按当前配置与热度新建任务
+     */
+    private void scheduledRun() {
+        Map<Object, Object> state = stringRedisTemplate.opsForHash().entries(STATE_KEY);
+        Object lastState = state.get("state");
+        SeedJob job = RUNNING.equals(lastState) || FAILED.equals(lastState) ? restore(state) : create(plan(null));
+        current = job;
+        run(job);
+    }
+
+    /**
+     * 估算瓦片数（dry run），不生成瓦片
+     * @param region 指定范围，为 null 时按配置的 regions 与访问热度
+     * @return 各图层、各层级的瓦片数
+     */
+    public Estimate estimate(@Nullable TileProperties.Region region) {
+        List<TileRange> plan = plan(region);
+        Map<String, Map<Integer, Long>> layers = new TreeMap<>();
+        long tiles = 0;
+        for (TileRange range : plan) {
+            layers.computeIfAbsent(range.layer(), l -> new TreeMap<>()).merge(range.z(), range.count(), Long::sum);
+            tiles += range.count();
+        }
+        int rate = tileProperties.getSeed().getMaxTilesPerSecond();
+        return new Estimate(tiles, plan.size(), layers, rate > 0 ? tiles / rate : -1);
+    }
+
+    /**
+     * 新建预热任务并立即执行
+     * @param region 指定范围，为 null 时按配置的 regions 与访问热度
+     * @throws IllegalArgumentException 范围不合法、瓦片数超过 maxTiles，或本节点已有任务在执行
+     */
+    public Progress start(@Nullable TileProperties.Region region) {
+        List<TileRange> plan = plan(region);
+        long maxTiles = tileProperties.getSeed().getMaxTiles();
+        long tiles = plan.stream().mapToLong(TileRange::count).sum();
+        if (maxTiles > 0 && tiles > maxTiles) {
+            throw new IllegalArgumentException("Seeding job has " + tiles + " tiles, more than max-tiles " + maxTiles
+                    + "; check the range with /tiles/seed/estimate and narrow bbox or zoom levels");
+        }
+        return submit(() -> create(plan));
+    }
+
+    /**
+     * 从检查点续传上次的任务
+     * @throws IllegalArgumentException 没有可续传的任务
+     */
+    public Progress resume() {
+        Map<Object, Object> state = stringRedisTemplate.opsForHash().entries(STATE_KEY);
+        if (state.isEmpty() || COMPLETED.equals(state.get("state"))) {
+            throw new IllegalArgumentException("No seeding job to resume");
+        }
+        return submit(() -> restore(state));
+    }
+
+    public boolean cancel() {
+        SeedJob job = current;
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    /**
+     * @return 本节点的任务进度；本节点没有任务时返回 Redis 中记录的最近一次任务，都没有时返回 null
+     */
+    @Nullable
+    public Progress getProgress() {
+        SeedJob job = current;
+        if (job != null) {
+            return job.progress();
+        }
+        Map<Object, Object> state = stringRedisTemplate.opsForHash().entries(STATE_KEY);
+        if (state.isEmpty()) {
+            return null;
+        }
+        long total = longValue(state, "total");
+        long completed = longValue(state, "completed");
+        return new Progress((String) state.get("id"), (String) state.get("state"), total, completed, longValue(state, "rendered"),
+                longValue(state, "cached"), longValue(state, "failed"), longValue(state, "bytes"), percent(completed, total), 0, 0,
+                (String) state.get("message"));
+    }
+
+    private synchronized Progress submit(Supplier<SeedJob> factory) {
+        SeedJob running = current;
+        if (running != null && !running.isFinished()) {
+            throw new IllegalArgumentException("A seeding job is already running: " + running.id);
+        }
+        SeedJob job = factory.get();
+        current = job;
+        scheduler.execute(() -> run(job));
+        return job.progress();
+    }
+
+    private SeedJob create(List<TileRange> plan) {
+        SeedJob job = new SeedJob(UUID.randomUUID().toString(), plan, 0, 0, 0, 0, 0);
+        job.created = true;
+        return job;
+    }
+
+    private SeedJob restore(Map<Object, Object> state) {
+        List<TileRange> plan;
+        try {
+            plan = PLAN_MAPPER.readValue((String) state.get("plan"), new TypeReference<>() {
+            });
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid seeding job state", e);
+        }
+        return new SeedJob((String) state.get("id"), plan, longValue(state, "completed"), longValue(state, "rendered"),
+                longValue(state, "cached"), longValue(state, "failed"), longValue(state, "bytes"));
+    }
+
+    private static long longValue(Map<Object, Object> state, String field) {
+        Object value = state.get(field);
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+
+    private void run(SeedJob job) {
+        String token = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            // 另一节点正在执行，本节点不修改 Redis 中的任务状态
+            job.finish(CANCELLED, "Another node is seeding");
+            log.info("其他节点正在预热瓦片，跳过任务:{}", job.id);
+            return;
+        }
+        TileProperties.Seed seed = tileProperties.getSeed();
+        job.start();
+        log.info("开始预热瓦片，任务:{}，瓦片数:{}，检查点:{}", job.id, job.total, job.completed);
+        Pacer tilePacer = new Pacer(seed.getMaxTilesPerSecond());
+        Pacer bytePacer = new Pacer(seed.getMaxBytesPerSecond());
+        ScheduledFuture<?> renewal = watchdog.scheduleWithFixedDelay(() -> renewLock(job, token), LOCK_RENEW_INTERVAL.toMillis(),
+                LOCK_RENEW_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            saveState(job, token);
+            BatchRedisCache cache = tileService.tileCache();
+            TileCursor cursor = new TileCursor(job.plan, job.completed);
+            List<SeedTile> batch = new ArrayList<>(seed.getBatchSize());
+            while (cursor.hasNext() && !job.cancelled && !job.lockLost) {
+                batch.clear();
+                while (batch.size() < seed.getBatchSize() && cursor.hasNext()) {
+                    batch.add(cursor.next());
+                }
+                seedBatch(job, cache, batch, seed.isSkipCached(), tilePacer, bytePacer);
+                job.completed += batch.size();
+                saveState(job, token);
+            }
+            if (job.lockLost) {
+                throw new IllegalStateException("Seeding lock lost");
+            }
+            job.finish(job.cancelled ? CANCELLED : COMPLETED, job.cancelled ? "Cancelled" : null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(CANCELLED, "Interrupted");
+        } catch (Exception e) {
+            log.error("瓦片预热失败，任务:{}，已完成:{}", job.id, job.completed, e);
+            job.finish(FAILED, e.toString());
+        } finally {
+            renewal.cancel(false);
+            if (!job.lockLost) {
+                try {
+                    saveState(job, token);
+                    stringRedisTemplate.execute(RELEASE_LOCK, List.of(LOCK_KEY), token);
+                } catch (Exception e) {
+                    log.warn("保存瓦片预热状态失败:{}", job.id, e);
+                }
+            }
+        }
+        Progress progress = job.progress();
+        log.info("瓦片预热结束，任务:{}，状态:{}，生成:{}，已缓存:{}，失败:{}，写入:{} 字节，耗时:{}ms", job.id, progress.state(),
+                progress.rendered(), progress.cached(), progress.failed(), progress.bytes(), progress.elapsedMillis());
+    }
+
+    private void seedBatch(SeedJob job, BatchRedisCache cache, List<SeedTile> batch, boolean skipCached, Pacer tilePacer, Pacer bytePacer)
+            throws InterruptedException {
+        Map<String, SeedTile> pending = new LinkedHashMap<>();
+        for (SeedTile tile : batch) {
+            if (tileProperties.getLayers().containsKey(tile.layer())) {
+                pending.put(TileService.tileKey(tile.layer(), tile.z(), tile.x(), tile.y()), tile);
+            }
+        }
+        // 图层已从配置中移除的瓦片按失败计
+        long failed = batch.size() - pending.size();
+        if (skipCached && !pending.isEmpty()) {
+            // 不经过瓦片缓存的 L1，预热扫描的瓦片不挤占热点瓦片
+            Set<String> cached = cache.peekAll(pending.keySet()).keySet();
+            cached.forEach(pending::remove);
+            job.cached += cached.size();
+            count("cached", cached.size());
+        }
+        tilePacer.acquire(pending.size());
+        Map<String, CompletableFuture<byte[]>> futures = new LinkedHashMap<>();
+        pending.forEach((key, tile) -> futures.put(key, CompletableFuture.supplyAsync(() -> tileService.load(tile.layer(),
+                tileProperties.getLayers().get(tile.layer()), tile.z(), tile.x(), tile.y()), renderers)));
+        Map<String, byte[]> tiles = new LinkedHashMap<>();
+        long bytes = 0;
+        for (Map.Entry<String, CompletableFuture<byte[]>> entry : futures.entrySet()) {
+            try {
+                byte[] stored = entry.getValue().join();
+                tiles.put(entry.getKey(), stored);
+                bytes += stored.length;
+            } catch (RuntimeException e) {
+                if (failed++ == 0) {
+                    log.warn("预热生成瓦片失败:{}", entry.getKey(), e);
+                }
+            }
+        }
+        if (!tiles.isEmpty()) {
+            cache.putAll(tiles);
+        }
+        bytePacer.acquire(bytes);
+        job.rendered += tiles.size();
+        job.failed += failed;
+        job.bytes += bytes;
+        count("rendered", tiles.size());
+        count("failed", failed);
+    }
+
+    private void count(String result, long amount) {
+        if (amount > 0) {
+            registry.counter("gistest.tile.seed.tiles", "result", result).increment(amount);
+        }
+    }
+
+    /**
+     * 锁续期，锁已被其他节点取得（或过期后被抢占）时标记任务，任务在当前批次结束后停止
+     */
+    private void renewLock(SeedJob job, String token) {
+        try {
+            Long renewed = stringRedisTemplate.execute(REFRESH_LOCK, List.of(LOCK_KEY), token, Long.toString(LOCK_TTL.toMillis()));
+            if (renewed != null && renewed == 0) {
+                job.lockLost = true;
+            }
+        } catch (Exception e) {
+            // 锁在 LOCK_TTL 内仍有效，下次继续续期
+            log.warn("瓦片预热锁续期失败:{}", job.id, e);
+        }
+    }
+
+    /**
+     * 持有锁时写入任务状态，新任务第一次写入时替换旧任务的状态与任务范围
+     * @throws IllegalStateException 锁已丢失，此时不写入
+     */
+    private void saveState(SeedJob job, String token) {
+        List<String> args = new ArrayList<>();
+        args.add(token);
+        args.add(job.created ? "1" : "0");
+        if (job.created) {
+            try {
+                Collections.addAll(args, "plan", PLAN_MAPPER.writeValueAsString(job.plan), "id", job.id, "total", Long.toString(job.total));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        Collections.addAll(args, "state", job.state, "completed", Long.toString(job.completed), "rendered", Long.toString(job.rendered),
+                "cached", Long.toString(job.cached), "failed", Long.toString(job.failed), "bytes", Long.toString(job.bytes),
+                "message", job.message == null ? "" : job.message);
+        Long saved = stringRedisTemplate.execute(SAVE_STATE, List.of(LOCK_KEY, STATE_KEY), args.toArray());
+        if (saved == null || saved == 0) {
+            job.lockLost = true;
+            throw new IllegalStateException("Seeding lock lost");
+        }
+        job.created = false;
+    }
+
+    /**
+     * 任务范围：指定范围，或配置的 regions 加上各图层的热点格网，按层级升序
+     */
+    List<TileRange> plan(@Nullable TileProperties.Region region) {
+        List<TileRange> plan = new ArrayList<>();
+        if (region != null) {
+            plan.addAll(ranges(region));
+        } else {
+            tileProperties.getSeed().getRegions().forEach(r -> plan.addAll(ranges(r)));
+            if (tileHeatRecorder.isEnabled()) {
+                tileProperties.getLayers().forEach((name, layer) ->
+                        plan.addAll(heatRanges(name, layer, tileHeatRecorder.topCells(name, tileProperties.getSeed().getHeatCells()))));
+            }
+        }
+        plan.sort(Comparator.comparingInt(TileRange::z));
+        return plan;
+    }
+
+    private List<TileRange> ranges(TileProperties.Region region) {
+        TileProperties.Layer layer = tileProperties.getLayers().get(region.getLayer());
+        if (layer == null) {
+            throw new IllegalArgumentException("Unknown tile layer: " + region.getLayer());
+        }
+        List<Double> bbox = region.getBbox() == null || region.getBbox().isEmpty() ? WORLD : region.getBbox();
+        if (bbox.size() != 4 || bbox.get(0) > bbox.get(2) || bbox.get(1) > bbox.get(3)) {
+            throw new IllegalArgumentException("Invalid bounding box: " + bbox);
+        }
+        int minZoom = Math.max(region.getMinZoom() == null ? layer.getMinZoom() : region.getMinZoom(), layer.getMinZoom());
+        int maxZoom = Math.min(region.getMaxZoom() == null ? layer.getMaxZoom() : region.getMaxZoom(), layer.getMaxZoom());
+        List<TileRange> ranges = new ArrayList<>();
+        for (int z = minZoom; z <= maxZoom; z++) {
+            // 纬度越大 y 越小
+            ranges.add(new TileRange(region.getLayer(), z, TileService.lonToX(bbox.get(0), z), TileService.latToY(bbox.get(3), z),
+                    TileService.lonToX(bbox.get(2), z), TileService.latToY(bbox.get(1), z)));
+        }
+        return ranges;
+    }
+
+    /**
+     * 热点格网在各层级覆盖的瓦片：不高于 heatZoom 的层级为格网所在的上级瓦片（去重），更高层级为格网内的全部瓦片
+     */
+    private List<TileRange> heatRanges(String name, TileProperties.Layer layer, List<int[]> cells) {
+        int heatZoom = tileProperties.getSeed().getHeatZoom();
+        int maxZoom = Math.min(tileProperties.getSeed().getHeatMaxZoom(), layer.getMaxZoom());
+        List<TileRange> ranges = new ArrayList<>();
+        for (int z = layer.getMinZoom(); z <= maxZoom; z++) {
+            Set<Long> seen = new HashSet<>();
+            for (int[] cell : cells) {
+                if (z <= heatZoom) {
+                    int x = cell[0] >> (heatZoom - z);
+                    int y = cell[1] >> (heatZoom - z);
+                    if (seen.add((long) x << 32 | y)) {
+                        ranges.add(new TileRange(name, z, x, y, x, y));
+                    }
+                } else {
+                    int shift = z - heatZoom;
+                    ranges.add(new TileRange(name, z, cell[0] << shift, cell[1] << shift, ((cell[0] + 1) << shift) - 1, ((cell[1] + 1) << shift) - 1));
+                }
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * 一个层级上的瓦片行列号范围（含边界）
+     */
+    public record TileRange(String layer, int z, int minX, int minY, int maxX, int maxY) {
+
+        public long count() {
+            return (long) (maxX - minX + 1) * (maxY - minY + 1);
+        }
+    }
+
+    record SeedTile(String layer, int z, int x, int y) {
+    }
+
+    /**
+     * 按顺序遍历任务范围内的瓦片，可从任意序号开始（续传）
+     */
+    static final class TileCursor {
+
+        private final List<TileRange> ranges;
+
+        private int index;
+
+        private long offset;
+
+        TileCursor(List<TileRange> ranges, long skip) {
+            this.ranges = ranges;
+            while (index < ranges.size() && skip >= ranges.get(index).count()) {
+                skip -= ranges.get(index).count();
+                index++;
+            }
+            offset = skip;
+        }
+
+        boolean hasNext() {
+            return index < ranges.size();
+        }
+
+        SeedTile next() {
+            TileRange range = ranges.get(index);
+            int height = range.maxY() - range.minY() + 1;
+            SeedTile tile = new SeedTile(range.layer(), range.z(), range.minX() + (int) (offset / height), range.minY() + (int) (offset % height));
+            if (++offset >= range.count()) {
+                index++;
+                offset = 0;
+            }
+            return tile;
+        }
+    }
+
+    /**
+     * 按速率限制放行，先放行后计费：本次的量决定下一次最早的放行时间
+     */
+    static final class Pacer {
+
+        private final double permitsPerSecond;
+
+        private long next = System.nanoTime();
+
+        Pacer(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        void acquire(double permits) throws InterruptedException {
+            if (permitsPerSecond <= 0 || permits <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            long start = Math.max(next, now);
+            next = start + (long) (permits / permitsPerSecond * 1_000_000_000L);
+            TimeUnit.NANOSECONDS.sleep(start - now);
+        }
+    }
+
+    private static double percent(long completed, long total) {
+        return total == 0 ? 100 : Math.round(completed * 1000.0 / total) / 10.0;
+    }
+
+    private static final class SeedJob {
+
+        final String id;
+
+        final List<TileRange> plan;
+
+        final long total;
+
+        volatile String state = QUEUED;
+
+        volatile String message;
+
+        volatile long completed;
+
+        volatile long rendered;
+
+        volatile long cached;
+
+        volatile long failed;
+
+        volatile long bytes;
+
+        volatile boolean cancelled;
+
+        /**
+         * 锁已丢失，不再写入任务状态
+         */
+        volatile boolean lockLost;
+
+        /**
+         * 新建的任务，取得锁后第一次写入状态时写入任务范围，不覆盖其他节点正在执行的任务
+         */
+        boolean created;
+
+        private long startCompleted;
+
+        private long startNanos;
+
+        private volatile long endNanos;
+
+        SeedJob(String id, List<TileRange> plan, long completed, long rendered, long cached, long failed, long bytes) {
+            this.id = id;
+            this.plan = plan;
+            this.total = plan.stream().mapToLong(TileRange::count).sum();
+            this.completed = completed;
+            this.rendered = rendered;
+            this.cached = cached;
+            this.failed = failed;
+            this.bytes = bytes;
+        }
+
+        void start() {
+            startCompleted = completed;
+            startNanos = System.nanoTime();
+            state = RUNNING;
+        }
+
+        void finish(String state, @Nullable String message) {
+            endNanos = System.nanoTime();
+            this.message = message;
+            this.state = state;
+        }
+
+        boolean isFinished() {
+            return COMPLETED.equals(state) || FAILED.equals(state) || CANCELLED.equals(state);
+        }
+
+        Progress progress() {
+            long elapsedNanos = startNanos == 0 ? 0 : (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+            double seconds = elapsedNanos / 1e9;
+            return new Progress(id, state, total, completed, rendered, cached, failed, bytes, percent(completed, total),
+                    seconds > 0 ? Math.round((completed - startCompleted) / seconds) : 0, elapsedNanos / 1_000_000, message);
+        }
+    }
+
+    /**
+     * 瓦片数估算
+     * @param tiles 瓦片总数（重叠范围重复计算，执行时已缓存的会跳过）
+     * @param ranges 行列号范围数
+     * @param layers 图层 → 层级 → 瓦片数
+     * @param estimatedSeconds 按 maxTilesPerSecond 估算的最长耗时，不限速时为 -1
+     */
+    public record Estimate(long tiles, int ranges, Map<String, Map<Integer, Long>> layers, long estimatedSeconds) {
+    }
+
+    /**
+     * 预热进度
+     * @param id 任务 id
+     * @param state 任务状态
+     * @param total 瓦片总数
+     * @param completed 已处理的瓦片数，即检查点
+     * @param rendered 生成并写入的瓦片数
+     * @param cached 已在缓存中而跳过的瓦片数
+     * @param failed 生成失败的瓦片数
+     * @param bytes 写入 Redis 的字节数
+     * @param percent 进度
+     * @param tilesPerSecond 本次运行的处理速度
+     * @param elapsedMillis 本次运行耗时
+     * @param message 失败原因
+     */
+    public record Progress(String id, String state, long total, long completed, long rendered, long cached, long failed, long bytes,
+                           double percent, double tilesPerSecond, long elapsedMillis, String message) {
+    }
+}
@@ -0,0 +1,279 @@
+package org.gistest.modules.tile.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.gistest.common.constant.CacheConstant;
+import org.gistest.common.modules.redis.cache.BatchRedisCache;
+import org.gistest.common.modules.redis.config.RedisConfig;
+import org.gistest.common.util.Murmur3;
+import org.gistest.modules.lod.service.LodService;
+import org.gistest.modules.tile.config.TileProperties;
+import org.gistest.modules.tile.mapper.TileMapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 矢量瓦片（MVT）服务
+ * 瓦片由 PostGIS 的 ST_AsMVT 生成，编码后的字节存入 CacheConstant.GIS_TILE_CACHE：
+ * 进程内 L1 保存热点瓦片，未命中时读 Redis，再未命中时由一个节点加载（RCacheWriter 的加载租约），其余请求等待结果
+ * 缓存值格式：16 字节 ETag（瓦片数据的 Murmur3 128）+ 1 字节标记（是否 gzip）+ 瓦片数据，命中时无需再计算 ETag 或压缩
+ * 没有要素的瓦片同样缓存（只有头部），避免空白区域反复查询数据库
+ */
+@Slf4j
+@Service
+public class TileService {
+
+    static final int HEADER_LENGTH = 17;
+
+    private static final byte FLAG_GZIP = 1;
+
+    /**
+     * 表名、字段名、图层名只允许标识符，这些值会直接拼入 SQL 与缓存 key 模式
+     */
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private static final Pattern LAYER_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    /**
+     * Web 墨卡托的纬度范围
+     */
+    private static final double MAX_LATITUDE = 85.0511287798066;
+
+    @Resource
+    private TileProperties tileProperties;
+
+    @Resource
+    private TileMapper tileMapper;
+
+    @Resource
+    private CacheManager cacheManager;
+
+    @Resource
+    private LodService lodService;
+
+    @Resource
+    private TileHeatRecorder tileHeatRecorder;
+
+    @PostConstruct
+    public void validate() {
+        tileProperties.getLayers().forEach((name, layer) -> {
+            check(LAYER_NAME, name, name);
+            check(IDENTIFIER, name, layer.getTable());
+            check(IDENTIFIER, name, layer.getGeometryColumn());
+            if (layer.getIdColumn() != null && !layer.getIdColumn().isEmpty()) {
+                check(IDENTIFIER, name, layer.getIdColumn());
+            }
+            layer.getAttributes().forEach(attribute -> check(IDENTIFIER, name, attribute));
+            if (layer.getMinZoom() < 0 || layer.getMaxZoom() > 30 || layer.getMinZoom() > layer.getMaxZoom()) {
+                throw new IllegalStateException("Invalid zoom range of tile layer: " + name);
+            }
+        });
+        log.info("矢量瓦片图层:{}", tileProperties.getLayers().keySet());
+    }
+
+    private static void check(Pattern pattern, String layer, @Nullable String value) {
+        if (value == null || !pattern.matcher(value).matches()) {
+            throw new IllegalStateException("Invalid identifier [" + value + "] of tile layer: " + layer);
+        }
+    }
+
+    /**
+     * 取瓦片，优先从缓存读取
+     * @param layerName
+     * @param z
+     * @param x
+     * @param y
+     * @return 图层不存在时返回 null
+     * @throws IllegalArgumentException 层级或行列号超出范围
+     */
+    @Nullable
+    public Tile getTile(String layerName, int z, int x, int y) {
+        TileProperties.Layer layer = tileProperties.getLayers().get(layerName);
+        if (layer == null) {
+            return null;
+        }
+        if (z < layer.getMinZoom() || z > layer.getMaxZoom()) {
+            throw new IllegalArgumentException("Zoom level out of range: " + z);
+        }
+        int size = 1 << z;
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            throw new IllegalArgumentException("Tile out of range: " + z + "/" + x + "/" + y);
+        }
+        tileHeatRecorder.record(layerName, z, x, y);
+        byte[] stored;
+        try {
+            stored = tileCache().get(tileKey(layerName, z, x, y), () -> load(layerName, layer, z, x, y));
+        } catch (PessimisticLockingFailureException e) {
+            // 缓存配置了加锁模式且等待超时（如大范围清理期间），直接生成瓦片，不写缓存
+            log.warn("瓦片缓存加锁等待超时，直接生成瓦片 {}/{}/{}/{}", layerName, z, x, y);
+            stored = load(layerName, layer, z, x, y);
+        }
+        return new Tile(stored);
+    }
+
+    /**
+     * 生成瓦片并编码为缓存值，预热（TileSeedService）直接调用后批量写入缓存
+     */
+    byte[] load(String layerName, TileProperties.Layer layer, int z, int x, int y) {
+        long start = System.nanoTime();
+        byte[] mvt = tileMapper.selectTile(layerName, layer, z, x, y, (double) layer.getBuffer() / layer.getExtent(),
+                lodService.lodZoom(layerName, layer, z));
+        if (mvt == null) {
+            mvt = new byte[0];
+        }
+        byte[] payload = mvt;
+        byte flags = 0;
+        if (tileProperties.isGzip() && mvt.length > 0) {
+            byte[] compressed = gzip(mvt);
+            if (compressed.length < mvt.length) {
+                payload = compressed;
+                flags = FLAG_GZIP;
+            }
+        }
+        Murmur3.Hash128 hash = Murmur3.hash128(mvt);
+        byte[] stored = new byte[HEADER_LENGTH + payload.length];
+        ByteBuffer.wrap(stored).putLong(hash.h1()).putLong(hash.h2()).put(flags).put(payload);
+        log.debug("生成瓦片 {}/{}/{}/{}，{} 字节，存储 {} 字节，耗时 {}ms", layerName, z, x, y, mvt.length, payload.length,
+                (System.nanoTime() - start) / 1_000_000);
+        return stored;
+    }
+
+    /**
+     * 按范围失效图层的瓦片缓存，数据更新后调用
+     * 各层级覆盖范围的瓦片（含外扩一圈，覆盖 buffer 中的要素）不超过 invalidateMaxTiles 时逐个删除，否则按 图层:层级 前缀整体清理
+     * @param layerName
+     * @param minLon 范围，WGS84 经纬度
+     * @param minLat
+     * @param maxLon
+     * @param maxLat
+     * @return 逐个删除的瓦片数
+     */
+    public int invalidate(String layerName, double minLon, double minLat, double maxLon, double maxLat) {
+        TileProperties.Layer layer = tileProperties.getLayers().get(layerName);
+        if (layer == null) {
+            throw new IllegalArgumentException("Unknown tile layer: " + layerName);
+        }
+        if (minLon > maxLon || minLat > maxLat) {
+            throw new IllegalArgumentException("Invalid bounding box");
+        }
+        BatchRedisCache cache = tileCache();
+        List<String> keys = new ArrayList<>();
+        List<Integer> clearedZooms = new ArrayList<>();
+        for (int z = layer.getMinZoom(); z <= layer.getMaxZoom(); z++) {
+            int max = (1 << z) - 1;
+            int minX = Math.max(lonToX(minLon, z) - 1, 0);
+            int maxX = Math.min(lonToX(maxLon, z) + 1, max);
+            // 纬度越大 y 越小
+            int minY = Math.max(latToY(maxLat, z) - 1, 0);
+            int maxY = Math.min(latToY(minLat, z) + 1, max);
+            long count = (long) (maxX - minX + 1) * (maxY - minY + 1);
+            if (count > tileProperties.getInvalidateMaxTiles()) {
+                cache.clear(layerName + ":" + z + ":*");
+                clearedZooms.add(z);
+                continue;
+            }
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    keys.add(tileKey(layerName, z, x, y));
+                }
+            }
+        }
+        cache.evictAll(keys);
+        log.info("瓦片缓存失效，图层:{}，删除瓦片:{}，整体清理层级:{}", layerName, keys.size(), clearedZooms);
+        return keys.size();
+    }
+
+    BatchRedisCache tileCache() {
+        BatchRedisCache cache = cacheManager instanceof RedisConfig.RedisConfigCacheManager redisConfigCacheManager
+                ? redisConfigCacheManager.getBatchCache(CacheConstant.GIS_TILE_CACHE) : null;
+        if (cache == null) {
+            throw new IllegalStateException("Tile cache is not available: " + CacheConstant.GIS_TILE_CACHE);
+        }
+        return cache;
+    }
+
+    static String tileKey(String layerName, int z, int x, int y) {
+        return layerName + ":" + z + ":" + x + ":" + y;
+    }
+
+    static int lonToX(double lon, int z) {
+        int x = (int) Math.floor((lon + 180) / 360 * (1 << z));
+        return Math.min(Math.max(x, 0), (1 << z) - 1);
+    }
+
+    static int latToY(double lat, int z) {
+        double rad = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat)));
+        int y = (int) Math.floor((1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * (1 << z));
+        return Math.min(Math.max(y, 0), (1 << z) - 1);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 缓存中的瓦片
+     * @param stored 缓存值，不要修改
+     */
+    public record Tile(byte[] stored) {
+
+        /**
+         * 弱 ETag：同一瓦片的 gzip 与未压缩两种响应共用
+         */
+        public String etag() {
+            return "W/\"" + HexFormat.of().formatHex(stored, 0, 16) + "\"";
+        }
+
+        public boolean isEmpty() {
+            return stored.length == HEADER_LENGTH;
+        }
+
+        public boolean isGzip() {
+            return stored[16] == FLAG_GZIP;
+        }
+
+        public int offset() {
+            return HEADER_LENGTH;
+        }
+
+        public int length() {
+            return stored.length - HEADER_LENGTH;
+        }
+
+        /**
+         * @return 未压缩的瓦片数据，用于不支持 gzip 的客户端
+         */
+        public byte[] decompressed() {
+            if (!isGzip()) {
+                return Arrays.copyOfRange(stored, HEADER_LENGTH, stored.length);
+            }
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(stored, HEADER_LENGTH, length()))) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
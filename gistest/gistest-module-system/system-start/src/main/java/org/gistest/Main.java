@@ -6,12 +6,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Objects;
 
 @Slf4j
+@EnableAsync
 @SpringBootApplication
 public class Main extends SpringBootServletInitializer {
     public static void main(String[] args) throws UnknownHostException {
@@ -20,6 +22,7 @@ public class Main extends SpringBootServletInitializer {
         ConfigurableApplicationContext application = app.run(args);
         System.out.println("当前JDK版本：" + System.getProperty("java.version"));
         Environment env = application.getEnvironment();
+        log.info("虚拟线程模式：{}", env.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
         String ip = InetAddress.getLocalHost().getHostAddress();
         String port = env.getProperty("server.port");
         String path = Objects.toString(env.getProperty("server.servlet.content-path"), "");